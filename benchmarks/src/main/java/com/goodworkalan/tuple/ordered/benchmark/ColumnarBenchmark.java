@@ -0,0 +1,85 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.goodworkalan.tuple.ordered.ColumnarTable;
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Measures binary search and prefix scans of a columnar table against a sorted
+ * list of ordered triples. Run with <code>-prof gc</code> and compare the
+ * retained heap of the two containers with a heap histogram to measure the
+ * footprint.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ColumnarBenchmark
+{
+    @Param({ "1000000" })
+    public int size;
+
+    private Triple<Integer, Long, Integer>[] triples;
+
+    private List<Ordered<Triple<Integer, Long, Integer>>> list;
+
+    private ColumnarTable<Triple<Integer, Long, Integer>> table;
+
+    @Setup
+    public void setup()
+    {
+        triples = Inputs.triples(size);
+        Ordered<Triple<Integer, Long, Integer>>[] ordered = Inputs.ordered(triples);
+        Arrays.sort(ordered);
+        list = Arrays.asList(ordered);
+        table = new ColumnarTable<Triple<Integer, Long, Integer>>(Arrays.asList(triples));
+    }
+
+    @Benchmark
+    public int listSearch()
+    {
+        return Collections.binarySearch(list, Ordered.order(triples[ThreadLocalRandom.current().nextInt(size)]));
+    }
+
+    @Benchmark
+    public int tableSearch()
+    {
+        return table.indexOf(triples[ThreadLocalRandom.current().nextInt(size)]);
+    }
+
+    @Benchmark
+    public void tablePrefix(Blackhole blackhole)
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Iterator<Triple<Integer, Long, Integer>> prefix = table.prefix(Tuple.from(random.nextInt(64), (long) random.nextInt(64)));
+        while (prefix.hasNext())
+        {
+            blackhole.consume(prefix.next());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.goodworkalan.tuple.ordered.ComparisonStatistics;
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Quintuple;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Measures the cost of comparing quintuples when the member that decides the
+ * comparison is the first, the third or the last, through both
+ * <code>Ordered.compareTo</code> and <code>TupleComparator.compare</code>.
+ * The members before the deciding member are equal and are either values or,
+ * for the null-heavy case, nulls. The comparator is also measured with
+ * instrumentation to show the cost of recording statistics.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CompareBenchmark
+{
+    /** The number of pairs compared per invocation. */
+    private final static int PAIRS = 1024;
+
+    /** The index of the member that decides the comparison. */
+    @Param({ "first", "middle", "last" })
+    public String deciding;
+
+    /** Whether the equal members before the deciding member are null. */
+    @Param({ "false", "true" })
+    public boolean nulls;
+
+    private final TupleComparator<Quintuple<Integer, Integer, Integer, Integer, Integer>> comparator = TupleComparator.<Integer, Integer, Integer, Integer, Integer>quintuple();
+
+    private final TupleComparator<Quintuple<Integer, Integer, Integer, Integer, Integer>> instrumented = TupleComparator.of(Order.<Integer>last().<Integer>prepend().<Integer>prepend().<Integer>prepend().<Integer>prepend().instrument(new ComparisonStatistics()));
+
+    private Quintuple<Integer, Integer, Integer, Integer, Integer>[] left;
+
+    private Quintuple<Integer, Integer, Integer, Integer, Integer>[] right;
+
+    private Ordered<Quintuple<Integer, Integer, Integer, Integer, Integer>>[] orderedLeft;
+
+    private Ordered<Quintuple<Integer, Integer, Integer, Integer, Integer>>[] orderedRight;
+
+    @Setup
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void setup()
+    {
+        int index = deciding.equals("first") ? 0 : deciding.equals("middle") ? 2 : 4;
+        Random random = new Random(Inputs.SEED);
+        left = new Quintuple[PAIRS];
+        right = new Quintuple[PAIRS];
+        orderedLeft = new Ordered[PAIRS];
+        orderedRight = new Ordered[PAIRS];
+        for (int i = 0; i < PAIRS; i++)
+        {
+            Integer[] l = new Integer[5];
+            Integer[] r = new Integer[5];
+            for (int j = 0; j < 5; j++)
+            {
+                if (j < index)
+                {
+                    l[j] = r[j] = nulls ? null : random.nextInt(1000);
+                }
+                else
+                {
+                    l[j] = random.nextInt(1000);
+                    r[j] = j == index ? l[j] + 1 + random.nextInt(10) : random.nextInt(1000);
+                }
+            }
+            if (random.nextBoolean())
+            {
+                Integer[] swap = l;
+                l = r;
+                r = swap;
+            }
+            left[i] = Tuple.from(l[0], l[1], l[2], l[3], l[4]);
+            right[i] = Tuple.from(r[0], r[1], r[2], r[3], r[4]);
+            orderedLeft[i] = Ordered.order(left[i]);
+            orderedRight[i] = Ordered.order(right[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int orderedCompareTo()
+    {
+        int sum = 0;
+        for (int i = 0; i < PAIRS; i++)
+        {
+            sum += orderedLeft[i].compareTo(orderedRight[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int comparatorCompare()
+    {
+        int sum = 0;
+        for (int i = 0; i < PAIRS; i++)
+        {
+            sum += comparator.compare(left[i], right[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int instrumentedCompare()
+    {
+        int sum = 0;
+        for (int i = 0; i < PAIRS; i++)
+        {
+            sum += instrumented.compare(left[i], right[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,123 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.mallardsoft.tuple.Decuple;
+import com.mallardsoft.tuple.Nonuple;
+import com.mallardsoft.tuple.Octuple;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Quadruple;
+import com.mallardsoft.tuple.Quintuple;
+import com.mallardsoft.tuple.Septuple;
+import com.mallardsoft.tuple.Sextuple;
+import com.mallardsoft.tuple.Single;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Measures the cost of wrapping an existing tuple in an ordered tuple for
+ * each arity from single to decuple. The tuples are created once, so only the
+ * construction of the ordered tuple is measured. Run with
+ * <code>-prof gc</code> to report the allocation per construction.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConstructBenchmark
+{
+    private final Single<Integer> single = Tuple.from(1);
+
+    private final Pair<Integer, Integer> pair = Tuple.from(1, 2);
+
+    private final Triple<Integer, Integer, Integer> triple = Tuple.from(1, 2, 3);
+
+    private final Quadruple<Integer, Integer, Integer, Integer> quadruple = Tuple.from(1, 2, 3, 4);
+
+    private final Quintuple<Integer, Integer, Integer, Integer, Integer> quintuple = Tuple.from(1, 2, 3, 4, 5);
+
+    private final Sextuple<Integer, Integer, Integer, Integer, Integer, Integer> sextuple = Tuple.from(1, 2, 3, 4, 5, 6);
+
+    private final Septuple<Integer, Integer, Integer, Integer, Integer, Integer, Integer> septuple = Tuple.from(1, 2, 3, 4, 5, 6, 7);
+
+    private final Octuple<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> octuple = Tuple.from(1, 2, 3, 4, 5, 6, 7, 8);
+
+    private final Nonuple<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> nonuple = Tuple.from(1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    private final Decuple<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer> decuple = Tuple.from(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+    @Benchmark
+    public Object single()
+    {
+        return Ordered.order(single);
+    }
+
+    @Benchmark
+    public Object pair()
+    {
+        return Ordered.order(pair);
+    }
+
+    @Benchmark
+    public Object triple()
+    {
+        return Ordered.order(triple);
+    }
+
+    @Benchmark
+    public Object quadruple()
+    {
+        return Ordered.order(quadruple);
+    }
+
+    @Benchmark
+    public Object quintuple()
+    {
+        return Ordered.order(quintuple);
+    }
+
+    @Benchmark
+    public Object sextuple()
+    {
+        return Ordered.order(sextuple);
+    }
+
+    @Benchmark
+    public Object septuple()
+    {
+        return Ordered.order(septuple);
+    }
+
+    @Benchmark
+    public Object octuple()
+    {
+        return Ordered.order(octuple);
+    }
+
+    @Benchmark
+    public Object nonuple()
+    {
+        return Ordered.order(nonuple);
+    }
+
+    @Benchmark
+    public Object decuple()
+    {
+        return Ordered.order(decuple);
+    }
+}
@@ -0,0 +1,84 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.goodworkalan.tuple.ordered.ExternalSort;
+import com.goodworkalan.tuple.ordered.MergedRuns;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Triple;
+
+/**
+ * Measures an external sort of a stream of triples and the read of its result
+ * for several run sizes and fan-ins. Run files are written to a temporary
+ * directory that is removed at the end of the trial.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ExternalSortBenchmark
+{
+    @Param({ "2000000" })
+    public int size;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int runSize;
+
+    @Param({ "16", "64" })
+    public int fanIn;
+
+    private Triple<Integer, Long, Integer>[] triples;
+
+    private File directory;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        triples = Inputs.triples(size);
+        directory = File.createTempFile("external", "sort");
+        directory.delete();
+        directory.mkdir();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        for (File file : directory.listFiles())
+        {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public void sort(Blackhole blackhole) throws IOException
+    {
+        ExternalSort<Triple<Integer, Long, Integer>> sort = new ExternalSort<Triple<Integer, Long, Integer>>(TupleComparator.<Integer, Long, Integer>triple(), directory, runSize, fanIn, ExternalSort.DEFAULT_BUFFER_SIZE);
+        MergedRuns<Triple<Integer, Long, Integer>> sorted = sort.sort(Arrays.asList(triples).iterator());
+        while (sorted.hasNext())
+        {
+            blackhole.consume(sorted.next());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.Prefixes;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.goodworkalan.tuple.ordered.TupleIndex;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Measures the throughput of lookups, updates and prefix scans of a tuple
+ * index against a concurrent skip list of ordered tuples, with all threads
+ * sharing one preloaded index. Run with <code>-t</code> from 1 to 64 to
+ * measure scaling.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark
+{
+    /** The number of distinct leading members. */
+    private final static int PREFIXES = 10000;
+
+    /** The number of tuples for each leading member. */
+    private final static int PER_PREFIX = 100;
+
+    @Param({ "index", "skiplist" })
+    public String map;
+
+    private TupleIndex<Pair<Integer, Integer>, Integer> index;
+
+    private ConcurrentSkipListMap<Ordered<Pair<Integer, Integer>>, Integer> skipList;
+
+    @Setup
+    public void setup()
+    {
+        index = new TupleIndex<Pair<Integer, Integer>, Integer>(TupleComparator.<Integer, Integer>pair());
+        skipList = new ConcurrentSkipListMap<Ordered<Pair<Integer, Integer>>, Integer>();
+        Random random = new Random(Inputs.SEED);
+        for (int i = 0; i < PREFIXES * PER_PREFIX / 2; i++)
+        {
+            Pair<Integer, Integer> key = Tuple.from(random.nextInt(PREFIXES), random.nextInt(PER_PREFIX));
+            if (map.equals("index"))
+            {
+                index.put(key, i);
+            }
+            else
+            {
+                skipList.put(Ordered.order(key), i);
+            }
+        }
+    }
+
+    private static Pair<Integer, Integer> key()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Tuple.from(random.nextInt(PREFIXES), random.nextInt(PER_PREFIX));
+    }
+
+    @Benchmark
+    public Object get()
+    {
+        if (map.equals("index"))
+        {
+            return index.get(key());
+        }
+        return skipList.get(Ordered.order(key()));
+    }
+
+    @Benchmark
+    public Object putRemove()
+    {
+        Pair<Integer, Integer> key = key();
+        if (map.equals("index"))
+        {
+            return index.put(key, 0) == null ? index.remove(key) : null;
+        }
+        Ordered<Pair<Integer, Integer>> ordered = Ordered.order(key);
+        return skipList.put(ordered, 0) == null ? skipList.remove(ordered) : null;
+    }
+
+    @Benchmark
+    public void prefixScan(Blackhole blackhole)
+    {
+        Pair<Integer, Integer> key = key();
+        Iterable<? extends Map.Entry<?, Integer>> entries;
+        if (map.equals("index"))
+        {
+            entries = index.prefix(Tuple.from(Tuple.get1(key))).entrySet();
+        }
+        else
+        {
+            entries = Prefixes.subMap(skipList, Tuple.from(Tuple.get1(key))).entrySet();
+        }
+        for (Map.Entry<?, Integer> entry : entries)
+        {
+            blackhole.consume(entry.getValue());
+        }
+    }
+}
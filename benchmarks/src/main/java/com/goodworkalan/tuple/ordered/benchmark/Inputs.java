@@ -0,0 +1,61 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.Random;
+
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Reproducible benchmark inputs generated from fixed seeds.
+ *
+ * @author Alan Gutierrez
+ */
+final class Inputs
+{
+    /** The seed used for every input so that runs can be compared. */
+    public final static long SEED = 0x5EEDL;
+
+    /** Cannot be instantiated. */
+    private Inputs()
+    {
+    }
+
+    /**
+     * Create an array of random triples with a small domain in the leading
+     * members so that comparisons often examine every member.
+     *
+     * @param size
+     *            The number of triples.
+     * @return An array of random triples.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Triple<Integer, Long, Integer>[] triples(int size)
+    {
+        Random random = new Random(SEED);
+        Triple<Integer, Long, Integer>[] triples = new Triple[size];
+        for (int i = 0; i < size; i++)
+        {
+            triples[i] = Tuple.from(random.nextInt(64), (long) random.nextInt(64), random.nextInt());
+        }
+        return triples;
+    }
+
+    /**
+     * Wrap each of the given triples in an ordered tuple.
+     *
+     * @param triples
+     *            The triples.
+     * @return An array of ordered triples.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Ordered<Triple<Integer, Long, Integer>>[] ordered(Triple<Integer, Long, Integer>[] triples)
+    {
+        Ordered<Triple<Integer, Long, Integer>>[] ordered = new Ordered[triples.length];
+        for (int i = 0; i < triples.length; i++)
+        {
+            ordered[i] = Ordered.order(triples[i]);
+        }
+        return ordered;
+    }
+}
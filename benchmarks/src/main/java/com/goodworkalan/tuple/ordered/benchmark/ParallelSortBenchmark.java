@@ -0,0 +1,93 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.goodworkalan.tuple.ordered.ParallelSort;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Triple;
+
+/**
+ * Measures the scaling of the parallel sort with the parallelism of its pool,
+ * comparing the tuple comparison against precomputed binary keys, with the
+ * sequential <code>Arrays.sort</code> as a baseline.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ParallelSortBenchmark
+{
+    @Param({ "1000000" })
+    public int size;
+
+    @Param({ "1", "2", "4", "8" })
+    public int parallelism;
+
+    @Param({ "8192" })
+    public int threshold;
+
+    private final TupleComparator<Triple<Integer, Long, Integer>> comparator = TupleComparator.<Integer, Long, Integer>triple();
+
+    private Triple<Integer, Long, Integer>[] triples;
+
+    private ForkJoinPool pool;
+
+    private ParallelSort sort;
+
+    @Setup
+    public void setup()
+    {
+        triples = Inputs.triples(size);
+        pool = new ForkJoinPool(parallelism);
+        sort = new ParallelSort(pool, threshold);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object sequential()
+    {
+        Triple<Integer, Long, Integer>[] copy = triples.clone();
+        Arrays.sort(copy, comparator);
+        return copy;
+    }
+
+    @Benchmark
+    public Object parallel()
+    {
+        Triple<Integer, Long, Integer>[] copy = triples.clone();
+        sort.sort(copy, comparator);
+        return copy;
+    }
+
+    @Benchmark
+    public Object parallelByKeys()
+    {
+        Triple<Integer, Long, Integer>[] copy = triples.clone();
+        sort.sortByKeys(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,92 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.goodworkalan.tuple.ordered.ParallelSort;
+import com.goodworkalan.tuple.ordered.RadixSort;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Triple;
+
+/**
+ * Measures the sequential and parallel radix sorts against the sequential
+ * and parallel comparison sorts for triples of numbers.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class RadixSortBenchmark
+{
+    @Param({ "100000", "1000000", "10000000" })
+    public int size;
+
+    private final TupleComparator<Triple<Integer, Long, Integer>> comparator = TupleComparator.<Integer, Long, Integer>triple();
+
+    private Triple<Integer, Long, Integer>[] triples;
+
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup()
+    {
+        triples = Inputs.triples(size);
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object comparison()
+    {
+        Triple<Integer, Long, Integer>[] copy = triples.clone();
+        Arrays.sort(copy, comparator);
+        return copy;
+    }
+
+    @Benchmark
+    public Object parallelComparison()
+    {
+        Triple<Integer, Long, Integer>[] copy = triples.clone();
+        new ParallelSort(pool, ParallelSort.DEFAULT_THRESHOLD).sort(copy, comparator);
+        return copy;
+    }
+
+    @Benchmark
+    public Object radix()
+    {
+        Triple<Integer, Long, Integer>[] copy = triples.clone();
+        new RadixSort().sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public Object parallelRadix()
+    {
+        Triple<Integer, Long, Integer>[] copy = triples.clone();
+        new RadixSort(pool).sort(copy);
+        return copy;
+    }
+}
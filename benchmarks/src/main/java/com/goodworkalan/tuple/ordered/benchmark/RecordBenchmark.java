@@ -0,0 +1,89 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.goodworkalan.tuple.ordered.RecordComparator;
+import com.goodworkalan.tuple.ordered.Records;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Triple;
+
+/**
+ * Measures comparing serialized triples in place with a record comparator
+ * against decoding them into tuples and comparing the tuples. Run with
+ * <code>-prof gc</code> to confirm that the record comparison does not
+ * allocate.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordBenchmark
+{
+    /** The number of records. */
+    private final static int SIZE = 1024;
+
+    private final RecordComparator records = new RecordComparator(3);
+
+    private final TupleComparator<Triple<Integer, Long, Integer>> tuples = TupleComparator.triple();
+
+    private ByteBuffer left;
+
+    private ByteBuffer right;
+
+    private int[] offsets;
+
+    private int index;
+
+    @Setup
+    public void setup()
+    {
+        Triple<Integer, Long, Integer>[] triples = Inputs.triples(SIZE);
+        ByteBuffer packed = ByteBuffer.allocate(SIZE * Records.length(triples[0]));
+        offsets = new int[SIZE];
+        for (int i = 0; i < SIZE; i++)
+        {
+            offsets[i] = packed.position();
+            Records.encode(triples[i], packed);
+        }
+        left = packed.duplicate();
+        right = packed.duplicate();
+    }
+
+    private void next()
+    {
+        index = (index + 1) & (SIZE - 1);
+        left.position(offsets[index]);
+        right.position(offsets[(index * 7 + 1) & (SIZE - 1)]);
+    }
+
+    @Benchmark
+    public int compareRecords()
+    {
+        next();
+        return records.compare(left, right);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public int decodeAndCompare()
+    {
+        next();
+        return tuples.compare((Triple<Integer, Long, Integer>) Records.decode(left), (Triple<Integer, Long, Integer>) Records.decode(right));
+    }
+}
@@ -0,0 +1,91 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Triple;
+
+/**
+ * Measures sorting an array of triples and inserting them into a tree set,
+ * both as ordered tuples and as tuples ordered by a tuple comparator. Each
+ * invocation copies the unsorted input, which is included in the time.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms6g", "-Xmx6g" })
+public class SortBenchmark
+{
+    @Param({ "1000", "1000000", "10000000" })
+    public int size;
+
+    private final TupleComparator<Triple<Integer, Long, Integer>> comparator = TupleComparator.<Integer, Long, Integer>triple();
+
+    private Triple<Integer, Long, Integer>[] triples;
+
+    private Ordered<Triple<Integer, Long, Integer>>[] ordered;
+
+    @Setup
+    public void setup()
+    {
+        triples = Inputs.triples(size);
+        ordered = Inputs.ordered(triples);
+    }
+
+    @Benchmark
+    public Object sortOrdered()
+    {
+        Ordered<Triple<Integer, Long, Integer>>[] copy = ordered.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public Object sortComparator()
+    {
+        Triple<Integer, Long, Integer>[] copy = triples.clone();
+        Arrays.sort(copy, comparator);
+        return copy;
+    }
+
+    @Benchmark
+    public Object treeSetOrdered()
+    {
+        TreeSet<Ordered<Triple<Integer, Long, Integer>>> set = new TreeSet<Ordered<Triple<Integer, Long, Integer>>>();
+        for (Ordered<Triple<Integer, Long, Integer>> tuple : ordered)
+        {
+            set.add(tuple);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public Object treeSetComparator()
+    {
+        TreeSet<Triple<Integer, Long, Integer>> set = new TreeSet<Triple<Integer, Long, Integer>>(comparator);
+        for (Triple<Integer, Long, Integer> tuple : triples)
+        {
+            set.add(tuple);
+        }
+        return set;
+    }
+}
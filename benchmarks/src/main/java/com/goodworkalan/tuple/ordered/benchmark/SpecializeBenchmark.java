@@ -0,0 +1,115 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Measures a specialized comparator against the interpreted tuple comparison
+ * for triples with equal leading members. When polluted, the interpreted
+ * comparison is first run over triples of other member types, as it would be
+ * in an application that orders tuples of several shapes, so that its member
+ * comparisons see several types.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpecializeBenchmark
+{
+    /** The number of pairs compared per invocation. */
+    private final static int PAIRS = 1024;
+
+    @Param({ "false", "true" })
+    public boolean polluted;
+
+    private final Order<String, Tuple<Long, Tuple<Integer, End>>> order = Order.<Integer>last().<Long>prepend().<String>prepend();
+
+    private final TupleComparator<Triple<String, Long, Integer>> interpreted = TupleComparator.of(order);
+
+    private final TupleComparator<Triple<String, Long, Integer>> specialized = TupleComparator.specialize(order, String.class, Long.class, Integer.class);
+
+    private Triple<String, Long, Integer>[] left;
+
+    private Triple<String, Long, Integer>[] right;
+
+    @Setup
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void setup()
+    {
+        Random random = new Random(Inputs.SEED);
+        left = new Triple[PAIRS];
+        right = new Triple[PAIRS];
+        for (int i = 0; i < PAIRS; i++)
+        {
+            String string = Integer.toString(random.nextInt(4));
+            long number = random.nextInt(4);
+            left[i] = Tuple.from(string, number, random.nextInt());
+            right[i] = Tuple.from(string, number, random.nextInt());
+        }
+        if (polluted)
+        {
+            pollute(Order.<String>last().<Double>prepend().<Integer>prepend(), random);
+            pollute(Order.<Double>last().<Integer>prepend().<Long>prepend(), random);
+            pollute(Order.<Long>last().<String>prepend().<Double>prepend(), random);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void pollute(Order order, Random random)
+    {
+        TupleComparator comparator = TupleComparator.of(order);
+        Object[] values = { 1, 1L, 1.0, "1" };
+        for (int i = 0; i < 100000; i++)
+        {
+            Tuple<?, ?> tuple = Tuple.from(values[random.nextInt(4)], values[random.nextInt(4)], values[random.nextInt(4)]);
+            comparator.compare(tuple, tuple);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int interpreted()
+    {
+        int sum = 0;
+        for (int i = 0; i < PAIRS; i++)
+        {
+            sum += interpreted.compare(left[i], right[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int specialized()
+    {
+        int sum = 0;
+        for (int i = 0; i < PAIRS; i++)
+        {
+            sum += specialized.compare(left[i], right[i]);
+        }
+        return sum;
+    }
+}
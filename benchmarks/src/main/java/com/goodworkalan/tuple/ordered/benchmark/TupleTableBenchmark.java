@@ -0,0 +1,134 @@
+package com.goodworkalan.tuple.ordered.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.goodworkalan.tuple.ordered.TupleTable;
+import com.goodworkalan.tuple.ordered.TupleTableWriter;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Measures the time to make a sorted set of triples available by loading a
+ * tree set of ordered tuples against opening a memory-mapped tuple table, and
+ * the time of point and prefix lookups in each.
+ *
+ * @author Alan Gutierrez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class TupleTableBenchmark
+{
+    @Param({ "1000000" })
+    public int size;
+
+    @Param({ "0", "2" })
+    public int bloomMembers;
+
+    private Triple<Integer, Long, Integer>[] triples;
+
+    private File file;
+
+    private TreeSet<Ordered<Triple<Integer, Long, Integer>>> set;
+
+    private TupleTable<Triple<Integer, Long, Integer>> table;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        triples = Inputs.triples(size);
+        Arrays.sort(triples, TupleComparator.<Integer, Long, Integer>triple());
+        file = File.createTempFile("tuple", ".table");
+        TupleTableWriter writer = new TupleTableWriter(file, TupleTableWriter.DEFAULT_BLOCK_SIZE, bloomMembers, size);
+        try
+        {
+            for (Triple<Integer, Long, Integer> triple : triples)
+            {
+                writer.add(triple);
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+        set = new TreeSet<Ordered<Triple<Integer, Long, Integer>>>(Arrays.asList(Inputs.ordered(triples)));
+        table = new TupleTable<Triple<Integer, Long, Integer>>(file);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object loadTreeSet()
+    {
+        return new TreeSet<Ordered<Triple<Integer, Long, Integer>>>(Arrays.asList(Inputs.ordered(triples)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object openTable() throws IOException
+    {
+        return new TupleTable<Triple<Integer, Long, Integer>>(file);
+    }
+
+    @Benchmark
+    public boolean treeSetContains()
+    {
+        return set.contains(Ordered.order(triples[ThreadLocalRandom.current().nextInt(size)]));
+    }
+
+    @Benchmark
+    public boolean tableContains()
+    {
+        return table.contains(triples[ThreadLocalRandom.current().nextInt(size)]);
+    }
+
+    @Benchmark
+    public boolean tableMissing()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return table.contains(Tuple.from(random.nextInt(64), 64L + random.nextInt(64), random.nextInt()));
+    }
+
+    @Benchmark
+    public void tablePrefix(Blackhole blackhole)
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Iterator<Triple<Integer, Long, Integer>> prefix = table.prefix(Tuple.from(random.nextInt(64), (long) random.nextInt(64)));
+        while (prefix.hasNext())
+        {
+            blackhole.consume(prefix.next());
+        }
+    }
+}
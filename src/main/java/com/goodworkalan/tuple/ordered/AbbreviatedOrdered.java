@@ -0,0 +1,71 @@
+package com.goodworkalan.tuple.ordered;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * An ordered tuple that caches an abbreviated key of its leading members. When
+ * two abbreviated ordered tuples have different abbreviated keys, they are
+ * ordered with a single primitive comparison. Otherwise the comparison falls
+ * back to the full tuple comparison.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple.
+ */
+final class AbbreviatedOrdered<T extends Tuple<?, ?>> extends Ordered<T>
+{
+    /** The abbreviated key, comparable as a signed long. */
+    private final long abbreviation;
+
+    /**
+     * Create an abbreviated ordered tuple.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @param order
+     *            The tuple comparison.
+     */
+    public AbbreviatedOrdered(T tuple, Order<?, ?> order)
+    {
+        super(tuple, erase(order));
+        this.abbreviation = order.abbreviate(tuple);
+    }
+
+    /**
+     * Cast the given tuple comparison to a comparison of the tuple type.
+     * 
+     * @param <T>
+     *            The type of tuple.
+     * @param order
+     *            The tuple comparison.
+     * @return The tuple comparison.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ComparableServer<? super T> erase(Order<?, ?> order)
+    {
+        return (ComparableServer<? super T>) order;
+    }
+
+    /**
+     * Compare this ordered tuple to the given ordered tuple, using the
+     * abbreviated keys when both ordered tuples have one and they differ.
+     * 
+     * @param o
+     *            Another ordered tuple.
+     * @return A negative integer, zero, or a positive integer as this ordered
+     *         tuple is less than, equal to, or greater than the other.
+     */
+    public int compareTo(Ordered<T> o)
+    {
+        if (o instanceof AbbreviatedOrdered<?>)
+        {
+            long other = ((AbbreviatedOrdered<?>) o).abbreviation;
+            if (abbreviation != other)
+            {
+                return abbreviation < other ? -1 : 1;
+            }
+        }
+        return super.compareTo(o);
+    }
+}
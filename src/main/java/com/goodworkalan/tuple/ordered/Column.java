@@ -0,0 +1,319 @@
+package com.goodworkalan.tuple.ordered;
+
+/**
+ * One member of every tuple in a {@link ColumnarTable}, stored in a primitive
+ * array when every non-null value is an <code>Integer</code>,
+ * <code>Long</code> or <code>Double</code>, and in an object array otherwise.
+ * A primitive column marks null values in a separate array that is only
+ * allocated when the column has nulls.
+ * <p>
+ * A column compares a row with a value in the same way as the step of the
+ * comparison that orders its member, so that a binary search of the columns
+ * agrees with the order of the tuples.
+ * 
+ * @author Alan Gutierrez
+ */
+abstract class Column
+{
+    /** The step that orders the member or null if the member is not ordered. */
+    protected final Order<?, ?> step;
+
+    /** Whether each row is null or null if no row is null. */
+    protected final boolean[] nulls;
+
+    /**
+     * Create a column.
+     * 
+     * @param step
+     *            The step that orders the member or null if the member is not
+     *            ordered.
+     * @param nulls
+     *            Whether each row is null or null if no row is null.
+     */
+    protected Column(Order<?, ?> step, boolean[] nulls)
+    {
+        this.step = step;
+        this.nulls = nulls;
+    }
+
+    /**
+     * Create a column of the given values, choosing a primitive column if
+     * every non-null value has the same primitive wrapper type.
+     * 
+     * @param values
+     *            The values of the member in row order.
+     * @param step
+     *            The step that orders the member or null if the member is not
+     *            ordered.
+     * @return A column of the values.
+     */
+    public static Column of(Object[] values, Order<?, ?> step)
+    {
+        Class<?> type = null;
+        boolean[] nulls = null;
+        for (int i = 0; i < values.length; i++)
+        {
+            if (values[i] == null)
+            {
+                if (nulls == null)
+                {
+                    nulls = new boolean[values.length];
+                }
+                nulls[i] = true;
+            }
+            else if (type == null)
+            {
+                type = values[i].getClass();
+            }
+            else if (type != values[i].getClass())
+            {
+                type = Object.class;
+            }
+        }
+        if (type == Integer.class)
+        {
+            int[] ints = new int[values.length];
+            for (int i = 0; i < values.length; i++)
+            {
+                ints[i] = values[i] == null ? 0 : ((Integer) values[i]).intValue();
+            }
+            return new IntColumn(step, nulls, ints);
+        }
+        if (type == Long.class)
+        {
+            long[] longs = new long[values.length];
+            for (int i = 0; i < values.length; i++)
+            {
+                longs[i] = values[i] == null ? 0 : ((Long) values[i]).longValue();
+            }
+            return new LongColumn(step, nulls, longs);
+        }
+        if (type == Double.class)
+        {
+            double[] doubles = new double[values.length];
+            for (int i = 0; i < values.length; i++)
+            {
+                doubles[i] = values[i] == null ? 0 : ((Double) values[i]).doubleValue();
+            }
+            return new DoubleColumn(step, nulls, doubles);
+        }
+        return new ObjectColumn(step, values);
+    }
+
+    /**
+     * Compare the nullity of the given row and the given value, placing nulls
+     * as the step does.
+     * 
+     * @param row
+     *            The row.
+     * @param value
+     *            The value.
+     * @return A negative integer or a positive integer as the row is ordered
+     *         before or after the value because one of them is null, zero if
+     *         both are null, or two if neither is null.
+     */
+    protected final int compareNulls(int row, Object value)
+    {
+        if (nulls != null && nulls[row])
+        {
+            return value == null ? 0 : step.nullsLast ? 1 : -1;
+        }
+        if (value == null)
+        {
+            return step.nullsLast ? -1 : 1;
+        }
+        return 2;
+    }
+
+    /**
+     * Compare the member at the given row with the given value.
+     * 
+     * @param row
+     *            The row.
+     * @param value
+     *            The value.
+     * @return A negative integer, zero, or a positive integer as the member is
+     *         ordered before, the same as, or after the value.
+     */
+    public abstract int compare(int row, Object value);
+
+    /**
+     * Get the member at the given row.
+     * 
+     * @param row
+     *            The row.
+     * @return The member, boxed if the column is primitive.
+     */
+    public abstract Object get(int row);
+
+    /**
+     * A column of <code>Integer</code> members.
+     */
+    private final static class IntColumn extends Column
+    {
+        /** The values. */
+        private final int[] values;
+
+        /**
+         * Create a column of <code>Integer</code> members.
+         * 
+         * @param step
+         *            The step that orders the member.
+         * @param nulls
+         *            Whether each row is null or null if no row is null.
+         * @param values
+         *            The values.
+         */
+        public IntColumn(Order<?, ?> step, boolean[] nulls, int[] values)
+        {
+            super(step, nulls);
+            this.values = values;
+        }
+
+        public int compare(int row, Object value)
+        {
+            int compare = compareNulls(row, value);
+            if (compare != 2)
+            {
+                return compare;
+            }
+            int l = values[row];
+            int r = ((Integer) value).intValue();
+            if (step.descending)
+            {
+                int swap = l;
+                l = r;
+                r = swap;
+            }
+            return l < r ? -1 : l == r ? 0 : 1;
+        }
+
+        public Object get(int row)
+        {
+            return nulls != null && nulls[row] ? null : Integer.valueOf(values[row]);
+        }
+    }
+
+    /**
+     * A column of <code>Long</code> members.
+     */
+    private final static class LongColumn extends Column
+    {
+        /** The values. */
+        private final long[] values;
+
+        /**
+         * Create a column of <code>Long</code> members.
+         * 
+         * @param step
+         *            The step that orders the member.
+         * @param nulls
+         *            Whether each row is null or null if no row is null.
+         * @param values
+         *            The values.
+         */
+        public LongColumn(Order<?, ?> step, boolean[] nulls, long[] values)
+        {
+            super(step, nulls);
+            this.values = values;
+        }
+
+        public int compare(int row, Object value)
+        {
+            int compare = compareNulls(row, value);
+            if (compare != 2)
+            {
+                return compare;
+            }
+            long l = values[row];
+            long r = ((Long) value).longValue();
+            if (step.descending)
+            {
+                long swap = l;
+                l = r;
+                r = swap;
+            }
+            return l < r ? -1 : l == r ? 0 : 1;
+        }
+
+        public Object get(int row)
+        {
+            return nulls != null && nulls[row] ? null : Long.valueOf(values[row]);
+        }
+    }
+
+    /**
+     * A column of <code>Double</code> members, ordered as
+     * {@link Double#compare(double, double)} orders them.
+     */
+    private final static class DoubleColumn extends Column
+    {
+        /** The values. */
+        private final double[] values;
+
+        /**
+         * Create a column of <code>Double</code> members.
+         * 
+         * @param step
+         *            The step that orders the member.
+         * @param nulls
+         *            Whether each row is null or null if no row is null.
+         * @param values
+         *            The values.
+         */
+        public DoubleColumn(Order<?, ?> step, boolean[] nulls, double[] values)
+        {
+            super(step, nulls);
+            this.values = values;
+        }
+
+        public int compare(int row, Object value)
+        {
+            int compare = compareNulls(row, value);
+            if (compare != 2)
+            {
+                return compare;
+            }
+            double r = ((Double) value).doubleValue();
+            return step.descending ? Double.compare(r, values[row]) : Double.compare(values[row], r);
+        }
+
+        public Object get(int row)
+        {
+            return nulls != null && nulls[row] ? null : Double.valueOf(values[row]);
+        }
+    }
+
+    /**
+     * A column of members of any type, compared by the step itself.
+     */
+    private final static class ObjectColumn extends Column
+    {
+        /** The values. */
+        private final Object[] values;
+
+        /**
+         * Create a column of members of any type.
+         * 
+         * @param step
+         *            The step that orders the member.
+         * @param values
+         *            The values.
+         */
+        public ObjectColumn(Order<?, ?> step, Object[] values)
+        {
+            super(step, null);
+            this.values = values;
+        }
+
+        public int compare(int row, Object value)
+        {
+            return step.compareMember(values[row], value);
+        }
+
+        public Object get(int row)
+        {
+            return values[row];
+        }
+    }
+}
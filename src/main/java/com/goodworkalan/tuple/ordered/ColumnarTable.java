@@ -0,0 +1,347 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * An immutable sorted list of tuples stored as one column per tuple member.
+ * <p>
+ * Members that are all <code>Integer</code>, <code>Long</code> or
+ * <code>Double</code> are stored in primitive arrays, so a row of a triple of
+ * numbers costs a few array slots instead of an ordered wrapper, a chain of
+ * tuple objects and a boxed object for each member. A binary search compares
+ * the lookup members with the columns directly, in the same way as the
+ * steps of the {@link Order} of the comparator, reading adjacent primitive
+ * values rather than following references. Tuples are created only when they
+ * are returned by {@link #get(int)} or an iterator.
+ * <p>
+ * Every tuple must have the same number of members, and at least as many
+ * members as the comparison has steps. Members after the last step are stored
+ * but do not affect the order.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple.
+ */
+public class ColumnarTable<T extends Tuple<?, ?>> implements Iterable<T>
+{
+    /** The number of rows. */
+    private final int size;
+
+    /** The number of members of each tuple. */
+    private final int arity;
+
+    /** The number of leading members that are ordered. */
+    private final int ordered;
+
+    /** The columns. */
+    private final Column[] columns;
+
+    /**
+     * Create a table of the given tuples in the order of ordered tuples.
+     * 
+     * @param tuples
+     *            The tuples.
+     * @exception IllegalArgumentException
+     *                If the tuples do not all have the same number of members.
+     */
+    public ColumnarTable(Collection<? extends T> tuples)
+    {
+        this(tuples, null);
+    }
+
+    /**
+     * Create a table of the given tuples in the order of the given comparator.
+     * Equal tuples are kept in their original order.
+     * 
+     * @param tuples
+     *            The tuples.
+     * @param comparator
+     *            The comparator that orders the tuples or null for the order
+     *            of ordered tuples.
+     * @exception IllegalArgumentException
+     *                If the tuples do not all have the same number of members
+     *                or have fewer members than the comparison has steps.
+     */
+    public ColumnarTable(Collection<? extends T> tuples, TupleComparator<? super T> comparator)
+    {
+        Tuple<?, ?>[] rows = tuples.toArray(new Tuple<?, ?>[tuples.size()]);
+        this.size = rows.length;
+        this.arity = size == 0 ? 0 : Tuples.arity(rows[0]);
+        for (Tuple<?, ?> row : rows)
+        {
+            if (Tuples.arity(row) != arity)
+            {
+                throw new IllegalArgumentException("Tuples must all have the same number of members.");
+            }
+        }
+        Order<?, ?> order = size == 0 ? null : comparator == null ? Ordered.chain(arity) : comparator.getOrder();
+        if (order != null && order.plan.length > arity)
+        {
+            throw new IllegalArgumentException("Tuples have fewer members than the comparison.");
+        }
+        this.ordered = order == null ? 0 : order.plan.length;
+        if (size != 0)
+        {
+            Arrays.sort(rows, new TupleComparator<Tuple<?, ?>>(order));
+        }
+        this.columns = new Column[arity];
+        Object[][] values = new Object[arity][size];
+        for (int i = 0; i < size; i++)
+        {
+            Object rest = rows[i];
+            for (int j = 0; j < arity; j++)
+            {
+                values[j][i] = Tuples.first((Tuple<?, ?>) rest);
+                rest = Tuples.rest((Tuple<?, ?>) rest);
+            }
+            rows[i] = null;
+        }
+        for (int j = 0; j < arity; j++)
+        {
+            columns[j] = Column.of(values[j], j < ordered ? order.plan[j] : null);
+            values[j] = null;
+        }
+    }
+
+    /**
+     * Get the number of tuples.
+     * 
+     * @return The number of tuples.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Create the tuple at the given index.
+     * 
+     * @param index
+     *            The index.
+     * @return A new tuple with the members at the index.
+     * @exception IndexOutOfBoundsException
+     *                If the index is out of range.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Object[] members = new Object[arity];
+        for (int j = 0; j < arity; j++)
+        {
+            members[j] = columns[j].get(index);
+        }
+        return (T) Keys.tuple(members, arity);
+    }
+
+    /**
+     * Get the leading members of the given tuple or prefix, at most the
+     * number of ordered members.
+     * 
+     * @param tuple
+     *            The tuple or prefix.
+     * @return The members.
+     */
+    private Object[] members(Tuple<?, ?> tuple)
+    {
+        int count = Math.min(Tuples.arity(tuple), ordered);
+        Object[] members = new Object[count];
+        Object rest = tuple;
+        for (int j = 0; j < count; j++)
+        {
+            members[j] = Tuples.first((Tuple<?, ?>) rest);
+            rest = Tuples.rest((Tuple<?, ?>) rest);
+        }
+        return members;
+    }
+
+    /**
+     * Find the first row whose leading members are ordered after the given
+     * members, or after or the same as the given members if inclusive.
+     * 
+     * @param members
+     *            The members.
+     * @param inclusive
+     *            Whether a row that is the same as the members is a match.
+     * @return The first matching row or the size if there is none.
+     */
+    private int search(Object[] members, boolean inclusive)
+    {
+        int low = 0;
+        int high = size;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            int compare = 0;
+            for (int j = 0; j < members.length && compare == 0; j++)
+            {
+                compare = columns[j].compare(mid, members[j]);
+            }
+            if (compare > 0 || (inclusive && compare == 0))
+            {
+                high = mid;
+            }
+            else
+            {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the index of the first tuple that is ordered the same as the given
+     * tuple.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @return The index of the tuple if it is found, otherwise
+     *         <code>(-(insertion point) - 1)</code>, as returned by
+     *         {@link Arrays#binarySearch(Object[], Object)}.
+     */
+    public int indexOf(Tuple<?, ?> tuple)
+    {
+        Object[] members = members(tuple);
+        int index = search(members, true);
+        if (index < search(members, false))
+        {
+            return index;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * Determine whether the table contains a tuple that is ordered the same
+     * as the given tuple.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @return True if the table contains the tuple.
+     */
+    public boolean contains(Tuple<?, ?> tuple)
+    {
+        return indexOf(tuple) >= 0;
+    }
+
+    /**
+     * Get the index of the first tuple whose leading members are ordered the
+     * same as or after the members of the given prefix.
+     * 
+     * @param prefix
+     *            The prefix.
+     * @return The index of the first tuple that is not before the prefix.
+     */
+    public int fromIndex(Tuple<?, ?> prefix)
+    {
+        return search(members(prefix), true);
+    }
+
+    /**
+     * Get the index after the last tuple whose leading members are ordered the
+     * same as or before the members of the given prefix.
+     * 
+     * @param prefix
+     *            The prefix.
+     * @return The index of the first tuple that is after the prefix.
+     */
+    public int toIndex(Tuple<?, ?> prefix)
+    {
+        return search(members(prefix), false);
+    }
+
+    /**
+     * Get an iterator in order over the tuples whose leading members are
+     * ordered the same as the members of the given prefix.
+     * 
+     * @param prefix
+     *            The prefix.
+     * @return An iterator over the tuples that start with the prefix.
+     */
+    public Iterator<T> prefix(Tuple<?, ?> prefix)
+    {
+        Object[] members = members(prefix);
+        return new Rows(search(members, true), search(members, false));
+    }
+
+    /**
+     * Get an iterator over all of the tuples in order.
+     * 
+     * @return An iterator over the tuples.
+     */
+    public Iterator<T> iterator()
+    {
+        return new Rows(0, size);
+    }
+
+    /**
+     * An iterator that creates the tuples of a range of rows as they are read.
+     */
+    private final class Rows implements Iterator<T>
+    {
+        /** The next row. */
+        private int row;
+
+        /** The row after the last row. */
+        private final int end;
+
+        /**
+         * Create an iterator over a range of rows.
+         * 
+         * @param row
+         *            The first row.
+         * @param end
+         *            The row after the last row.
+         */
+        public Rows(int row, int end)
+        {
+            this.row = row;
+            this.end = end;
+        }
+
+        /**
+         * Return true if there are more tuples.
+         * 
+         * @return True if there are more tuples.
+         */
+        public boolean hasNext()
+        {
+            return row < end;
+        }
+
+        /**
+         * Get the next tuple.
+         * 
+         * @return The next tuple.
+         * @exception NoSuchElementException
+         *                If there are no more tuples.
+         */
+        public T next()
+        {
+            if (row >= end)
+            {
+                throw new NoSuchElementException();
+            }
+            return get(row++);
+        }
+
+        /**
+         * Not supported.
+         * 
+         * @exception UnsupportedOperationException
+         *                Always.
+         */
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
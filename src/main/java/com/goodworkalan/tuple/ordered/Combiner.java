@@ -0,0 +1,23 @@
+package com.goodworkalan.tuple.ordered;
+
+/**
+ * Combines objects that compare as equal into a single object.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of object to combine.
+ */
+public interface Combiner<T>
+{
+    /**
+     * Combine the given objects that compare as equal.
+     * 
+     * @param combined
+     *            The result of combining the earlier equal objects.
+     * @param duplicate
+     *            The next equal object.
+     * @return The combination of the objects.
+     */
+    public T combine(T combined, T duplicate);
+}
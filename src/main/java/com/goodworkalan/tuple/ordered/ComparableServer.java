@@ -21,4 +21,16 @@ interface ComparableServer<T>
      *         object against objects of the same type.
      */
     public Comparable<T> comparable(T object);
+
+    /**
+     * Compare the given objects without creating an intermediate comparable.
+     * 
+     * @param left
+     *            The left object.
+     * @param right
+     *            The right object.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         object is less than, equal to, or greater than the right object.
+     */
+    public int compare(T left, T right);
 }
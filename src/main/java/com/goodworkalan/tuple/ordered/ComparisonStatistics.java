@@ -0,0 +1,155 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of the comparisons of an instrumented tuple comparison created
+ * with {@link Order#instrument(ComparisonStatistics)}.
+ * <p>
+ * The statistics record the number of comparisons, a histogram of the number
+ * of members examined before each comparison was decided, the number of
+ * member comparisons where a member was null and the time spent comparing. A
+ * histogram weighted toward the last members shows that tuples tie on their
+ * leading members, which suggests that the members should be reordered.
+ * <p>
+ * Counters are striped so that recording scales across threads. The
+ * statistics are a standard MBean that can be registered with the platform
+ * MBean server. Each getter reads a current value, so values read while
+ * comparisons are recorded may not be consistent with one another.
+ * 
+ * @author Alan Gutierrez
+ */
+public class ComparisonStatistics implements ComparisonStatisticsMBean
+{
+    /**
+     * The number of buckets in the histogram of members examined. The last
+     * bucket counts comparisons that examined this many members or more.
+     */
+    public final static int BUCKETS = 10;
+
+    /** The counts of comparisons by the number of members examined. */
+    private final LongAdder[] examined;
+
+    /** The number of member comparisons where either member was null. */
+    private final LongAdder nulls = new LongAdder();
+
+    /** The total time spent comparing in nanoseconds. */
+    private final LongAdder nanoseconds = new LongAdder();
+
+    /**
+     * Create empty comparison statistics.
+     */
+    public ComparisonStatistics()
+    {
+        this.examined = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            examined[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a comparison.
+     * 
+     * @param members
+     *            The number of members examined.
+     * @param nullMembers
+     *            The number of member comparisons where a member was null.
+     * @param nanos
+     *            The time spent comparing in nanoseconds.
+     */
+    void record(int members, int nullMembers, long nanos)
+    {
+        examined[Math.min(members, BUCKETS) - 1].increment();
+        if (nullMembers != 0)
+        {
+            nulls.add(nullMembers);
+        }
+        nanoseconds.add(nanos);
+    }
+
+    /**
+     * Get the number of comparisons.
+     * 
+     * @return The number of comparisons.
+     */
+    public long getComparisons()
+    {
+        long comparisons = 0;
+        for (LongAdder count : examined)
+        {
+            comparisons += count.sum();
+        }
+        return comparisons;
+    }
+
+    /**
+     * Get the number of member comparisons where either member was null.
+     * 
+     * @return The number of null member comparisons.
+     */
+    public long getNullComparisons()
+    {
+        return nulls.sum();
+    }
+
+    /**
+     * Get the total time spent comparing in nanoseconds.
+     * 
+     * @return The total time spent comparing.
+     */
+    public long getNanoseconds()
+    {
+        return nanoseconds.sum();
+    }
+
+    /**
+     * Get a histogram of the number of members examined before a comparison
+     * was decided, where the element at index <code>i</code> is the number of
+     * comparisons that examined <code>i + 1</code> members.
+     * 
+     * @return The histogram of members examined.
+     */
+    public long[] getMembersExamined()
+    {
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            histogram[i] = examined[i].sum();
+        }
+        return histogram;
+    }
+
+    /**
+     * Get the mean number of members examined before a comparison was
+     * decided.
+     * 
+     * @return The mean number of members examined or zero if there have been
+     *         no comparisons.
+     */
+    public double getMeanMembersExamined()
+    {
+        long[] histogram = getMembersExamined();
+        long comparisons = 0;
+        long members = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            comparisons += histogram[i];
+            members += histogram[i] * (i + 1);
+        }
+        return comparisons == 0 ? 0 : (double) members / comparisons;
+    }
+
+    /**
+     * Reset all of the statistics to zero.
+     */
+    public void reset()
+    {
+        for (LongAdder count : examined)
+        {
+            count.reset();
+        }
+        nulls.reset();
+        nanoseconds.reset();
+    }
+}
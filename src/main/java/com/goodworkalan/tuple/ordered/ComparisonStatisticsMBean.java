@@ -0,0 +1,54 @@
+package com.goodworkalan.tuple.ordered;
+
+/**
+ * The management interface of {@link ComparisonStatistics}, so that the
+ * statistics of a tuple comparison can be registered with an MBean server and
+ * read through JMX.
+ * 
+ * @author Alan Gutierrez
+ */
+public interface ComparisonStatisticsMBean
+{
+    /**
+     * Get the number of comparisons.
+     * 
+     * @return The number of comparisons.
+     */
+    public long getComparisons();
+
+    /**
+     * Get the number of member comparisons where either member was null.
+     * 
+     * @return The number of null member comparisons.
+     */
+    public long getNullComparisons();
+
+    /**
+     * Get the total time spent comparing in nanoseconds.
+     * 
+     * @return The total time spent comparing.
+     */
+    public long getNanoseconds();
+
+    /**
+     * Get a histogram of the number of members examined before a comparison
+     * was decided, where the element at index <code>i</code> is the number of
+     * comparisons that examined <code>i + 1</code> members.
+     * 
+     * @return The histogram of members examined.
+     */
+    public long[] getMembersExamined();
+
+    /**
+     * Get the mean number of members examined before a comparison was
+     * decided.
+     * 
+     * @return The mean number of members examined.
+     */
+    public double getMeanMembersExamined();
+
+    /**
+     * Reset all of the statistics to zero.
+     */
+    public void reset();
+}
@@ -0,0 +1,105 @@
+package com.goodworkalan.tuple.ordered;
+
+/**
+ * A step in a tuple comparison that compares a non-null <code>Double</code>
+ * tuple member as a primitive <code>double</code> without checking for null.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <Rest>
+ *            The type of the remainder of the tuple.
+ */
+class DoubleOrder<Rest> extends Order<Double, Rest>
+{
+    /**
+     * Create a step in a tuple comparison.
+     * 
+     * @param compareRest
+     *            A comparable server that creates a comparable for the rest of
+     *            the tuple.
+     */
+    DoubleOrder(ComparableServer<Rest> compareRest)
+    {
+        super(compareRest);
+    }
+
+    /**
+     * Create a step in a tuple comparison.
+     * 
+     * @param compareRest
+     *            A comparable server that creates a comparable for the rest of
+     *            the tuple.
+     * @param descending
+     *            Whether the tuple member is ordered from greatest to least.
+     * @param statistics
+     *            The statistics that record comparisons or null.
+     */
+    DoubleOrder(ComparableServer<Rest> compareRest, boolean descending, ComparisonStatistics statistics)
+    {
+        super(compareRest, descending, false, statistics);
+    }
+
+    /**
+     * Create a copy of this step with the given direction and statistics.
+     * Members are never null so the null placement is ignored.
+     * 
+     * @param descending
+     *            Whether the tuple member is ordered from greatest to least.
+     * @param nullsLast
+     *            Ignored.
+     * @param statistics
+     *            The statistics that record comparisons or null.
+     * @return A copy of this step.
+     */
+    Order<Double, Rest> copy(boolean descending, boolean nullsLast, ComparisonStatistics statistics)
+    {
+        return new DoubleOrder<Rest>(compareRest, descending, statistics);
+    }
+
+    /**
+     * Members are compared as non-null primitive <code>double</code> values.
+     * 
+     * @return True.
+     */
+    boolean primitive()
+    {
+        return true;
+    }
+
+    /**
+     * Compare two tuple members as primitive <code>double</code>
+     * values in the same order as <code>Double.compareTo</code>, with negative
+     * zero before positive zero and not-a-number after positive infinity.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         member is ordered before, the same as, or after the right member.
+     * @exception NullPointerException
+     *                If either member is null.
+     */
+    int compareMember(Object left, Object right)
+    {
+        double l = ((Double) left).doubleValue();
+        double r = ((Double) right).doubleValue();
+        if (descending)
+        {
+            double swap = l;
+            l = r;
+            r = swap;
+        }
+        if (l < r)
+        {
+            return -1;
+        }
+        if (l > r)
+        {
+            return 1;
+        }
+        long lb = Double.doubleToLongBits(l);
+        long rb = Double.doubleToLongBits(r);
+        return lb < rb ? -1 : lb == rb ? 0 : 1;
+    }
+}
@@ -10,6 +10,9 @@ import com.mallardsoft.tuple.End;
  */
 class EndComparableServer implements ComparableServer<End>, Comparable<End>
 {
+    /** The end comparable server shared by all tuple comparisons. */
+    public final static EndComparableServer INSTANCE = new EndComparableServer();
+
     /**
      * Get an implementation of comparable that will compare the given end to
      * another end and always return equal.
@@ -30,4 +33,14 @@ class EndComparableServer implements ComparableServer<End>, Comparable<End>
     {
         return 0;
     }
+
+    /**
+     * Return zero since ends are always equal.
+     * 
+     * @return Zero.
+     */
+    public int compare(End left, End right)
+    {
+        return 0;
+    }
 }
@@ -0,0 +1,299 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * A stable external merge sort for streams of tuples larger than the heap.
+ * <p>
+ * Tuples are read into an in-memory run of at most the run size, the run is
+ * sorted and then spilled to a temporary run file as a sequence of
+ * length-prefixed binary keys from {@link Keys}. Once the input is exhausted,
+ * runs are merged with at most the fan-in number of runs open at once,
+ * writing intermediate runs when there are more runs than the fan-in, and the
+ * final merge is performed lazily as the result is read. At most one run of
+ * tuples and one read-ahead buffer per open run are held in memory.
+ * <p>
+ * Tuple members must be types that can be encoded in a binary key.
+ *
+ * @author Alan Gutierrez
+ *
+ * @param <T>
+ *            The type of tuple.
+ */
+public class ExternalSort<T extends Tuple<?, ?>>
+{
+    /** The default number of tuples in an in-memory run. */
+    public final static int DEFAULT_RUN_SIZE = 1 << 20;
+
+    /** The default number of runs merged at once. */
+    public final static int DEFAULT_FAN_IN = 64;
+
+    /** The default size of the read-ahead and write buffers. */
+    public final static int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /** The comparator that orders the tuples. */
+    private final Comparator<? super T> comparator;
+
+    /** The directory for run files or null for the system default. */
+    private final File directory;
+
+    /** The maximum number of tuples in an in-memory run. */
+    private final int runSize;
+
+    /** The maximum number of runs merged at once. */
+    private final int fanIn;
+
+    /** The size of the read-ahead and write buffers. */
+    private final int bufferSize;
+
+    /**
+     * Create an external sort that orders tuples with the given comparator,
+     * such as a {@link TupleComparator}, using the default run size, fan-in
+     * and buffer size and the system temporary directory.
+     *
+     * @param comparator
+     *            The comparator that orders the tuples.
+     */
+    public ExternalSort(Comparator<? super T> comparator)
+    {
+        this(comparator, null, DEFAULT_RUN_SIZE, DEFAULT_FAN_IN, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create an external sort.
+     *
+     * @param comparator
+     *            The comparator that orders the tuples.
+     * @param directory
+     *            The directory for run files or null for the system temporary
+     *            directory.
+     * @param runSize
+     *            The maximum number of tuples in an in-memory run.
+     * @param fanIn
+     *            The maximum number of runs merged at once.
+     * @param bufferSize
+     *            The size of the read-ahead buffer of each run being merged
+     *            and of the write buffer of each run being written.
+     * @exception IllegalArgumentException
+     *                If the run size or buffer size is less than one or the
+     *                fan-in is less than two.
+     */
+    public ExternalSort(Comparator<? super T> comparator, File directory, int runSize, int fanIn, int bufferSize)
+    {
+        if (runSize < 1 || bufferSize < 1)
+        {
+            throw new IllegalArgumentException("Run size and buffer size must be at least one.");
+        }
+        if (fanIn < 2)
+        {
+            throw new IllegalArgumentException("Fan-in must be at least two.");
+        }
+        this.comparator = comparator;
+        this.directory = directory;
+        this.runSize = runSize;
+        this.fanIn = fanIn;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Sort the given tuples. The input is read entirely, spilling runs to
+     * disk, before this method returns. The returned iterator merges the
+     * remaining runs as it is read and should be closed if it is not read to
+     * the end, so that its run files are deleted.
+     *
+     * @param tuples
+     *            The tuples to sort.
+     * @return An iterator over the sorted tuples.
+     * @exception IOException
+     *                If a run file cannot be written or read.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded in a binary key.
+     */
+    public MergedRuns<T> sort(Iterator<? extends T> tuples) throws IOException
+    {
+        List<File> files = new ArrayList<File>();
+        boolean success = false;
+        try
+        {
+            List<T> run = new ArrayList<T>();
+            while (tuples.hasNext())
+            {
+                run.add(tuples.next());
+                if (run.size() == runSize)
+                {
+                    files.add(spill(run));
+                    run.clear();
+                }
+            }
+            MergedRuns<T> sorted;
+            if (files.isEmpty())
+            {
+                Collections.sort(run, comparator);
+                sorted = new MergedRuns<T>(Collections.singletonList(run.iterator()), comparator);
+            }
+            else
+            {
+                if (!run.isEmpty())
+                {
+                    files.add(spill(run));
+                }
+                run = null;
+                while (files.size() > fanIn)
+                {
+                    files = mergePass(files);
+                }
+                sorted = new MergedRuns<T>(open(files), comparator);
+            }
+            success = true;
+            return sorted;
+        }
+        finally
+        {
+            if (!success)
+            {
+                for (File file : files)
+                {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sort the given run and write it to a new run file. The run file is
+     * deleted if it cannot be written.
+     *
+     * @param run
+     *            The run.
+     * @return The run file.
+     * @exception IOException
+     *                If the run file cannot be written.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded in a binary key.
+     */
+    private File spill(List<T> run) throws IOException
+    {
+        Collections.sort(run, comparator);
+        File file = File.createTempFile("run", ".tuples", directory);
+        boolean success = false;
+        try
+        {
+            RunWriter writer = new RunWriter(file, bufferSize);
+            try
+            {
+                for (T tuple : run)
+                {
+                    writer.write(tuple);
+                }
+            }
+            finally
+            {
+                writer.close();
+            }
+            success = true;
+            return file;
+        }
+        finally
+        {
+            if (!success)
+            {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Merge each group of fan-in run files into a single run file. The merged
+     * run files are deleted if the pass does not complete.
+     *
+     * @param files
+     *            The run files.
+     * @return The merged run files.
+     * @exception IOException
+     *                If a run file cannot be written or read.
+     */
+    private List<File> mergePass(List<File> files) throws IOException
+    {
+        List<File> merged = new ArrayList<File>();
+        boolean success = false;
+        try
+        {
+            for (int i = 0; i < files.size(); i += fanIn)
+            {
+                List<File> group = files.subList(i, Math.min(i + fanIn, files.size()));
+                File file = File.createTempFile("run", ".tuples", directory);
+                merged.add(file);
+                MergedRuns<T> runs = new MergedRuns<T>(open(group), comparator);
+                try
+                {
+                    RunWriter writer = new RunWriter(file, bufferSize);
+                    try
+                    {
+                        while (runs.hasNext())
+                        {
+                            writer.write(runs.next());
+                        }
+                    }
+                    finally
+                    {
+                        writer.close();
+                    }
+                }
+                finally
+                {
+                    runs.close();
+                }
+            }
+            success = true;
+            return merged;
+        }
+        finally
+        {
+            if (!success)
+            {
+                for (File file : merged)
+                {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Open a reader for each of the given run files.
+     *
+     * @param files
+     *            The run files.
+     * @return A list of run readers.
+     * @exception IOException
+     *                If a run file cannot be opened.
+     */
+    private List<RunReader<T>> open(List<File> files) throws IOException
+    {
+        List<RunReader<T>> readers = new ArrayList<RunReader<T>>();
+        try
+        {
+            for (File file : files)
+            {
+                readers.add(new RunReader<T>(file, bufferSize));
+            }
+        }
+        catch (IOException e)
+        {
+            for (RunReader<T> reader : readers)
+            {
+                reader.close();
+            }
+            throw e;
+        }
+        return readers;
+    }
+}
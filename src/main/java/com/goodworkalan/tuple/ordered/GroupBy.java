@@ -0,0 +1,147 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * An iterator over the aggregates of groups of sorted tuples that share their
+ * leading members.
+ * <p>
+ * The tuples are read from an iterator that is already sorted by a tuple
+ * comparison, such as the order of {@link Ordered} tuples. A group ends when
+ * the leading members of the next tuple differ from those of the group
+ * according to the tuple comparison, so only the aggregate of the current
+ * group and one tuple of lookahead are held in memory. Aggregates are created
+ * and folded by a {@link Reducer} and are returned as each group ends.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple.
+ * @param <A>
+ *            The type of aggregate.
+ */
+public class GroupBy<T extends Tuple<?, ?>, A> implements Iterator<A>
+{
+    /** The sorted tuples. */
+    private final Iterator<? extends T> tuples;
+
+    /** The tuple comparison that orders the tuples. */
+    private final Order<?, ?> order;
+
+    /** The number of leading members that identify a group. */
+    private final int members;
+
+    /** The reducer. */
+    private final Reducer<? super T, A> reducer;
+
+    /** The first tuple of the next group or null if there is none. */
+    private T next;
+
+    /**
+     * Create an iterator over the aggregates of groups of tuples sorted in the
+     * order of {@link Ordered} tuples, ascending with nulls first.
+     * 
+     * @param tuples
+     *            The sorted tuples.
+     * @param members
+     *            The number of leading members that identify a group.
+     * @param reducer
+     *            The reducer.
+     * @exception IllegalArgumentException
+     *                If the number of members is less than one or greater than
+     *                ten.
+     */
+    public GroupBy(Iterator<? extends T> tuples, int members, Reducer<? super T, A> reducer)
+    {
+        this(tuples, members < 1 || members > 10 ? null : Ordered.chain(members), members, reducer);
+    }
+
+    /**
+     * Create an iterator over the aggregates of groups of tuples sorted by the
+     * given tuple comparison.
+     * 
+     * @param tuples
+     *            The sorted tuples.
+     * @param order
+     *            The tuple comparison that orders the tuples.
+     * @param members
+     *            The number of leading members that identify a group.
+     * @param reducer
+     *            The reducer.
+     * @exception IllegalArgumentException
+     *                If the number of members is less than one or greater than
+     *                the number of members compared.
+     */
+    public GroupBy(Iterator<? extends T> tuples, Order<?, ?> order, int members, Reducer<? super T, A> reducer)
+    {
+        if (order == null || members < 1 || members > order.plan.length)
+        {
+            throw new IllegalArgumentException("Group must be identified by one or more of the members compared.");
+        }
+        this.tuples = tuples;
+        this.order = order;
+        this.members = members;
+        this.reducer = reducer;
+        this.next = tuples.hasNext() ? tuples.next() : null;
+    }
+
+    /**
+     * Return true if there is another group.
+     * 
+     * @return True if there is another group.
+     */
+    public boolean hasNext()
+    {
+        return next != null;
+    }
+
+    /**
+     * Read the tuples of the next group and return their aggregate.
+     * 
+     * @return The aggregate of the next group.
+     * @exception NoSuchElementException
+     *                If there are no more groups.
+     * @exception IllegalStateException
+     *                If the tuples are not sorted.
+     */
+    public A next()
+    {
+        if (next == null)
+        {
+            throw new NoSuchElementException();
+        }
+        T first = next;
+        A aggregate = reducer.start(first);
+        next = null;
+        while (tuples.hasNext())
+        {
+            T tuple = tuples.next();
+            int compare = order.compareLeading(first, tuple, members);
+            if (compare < 0)
+            {
+                next = tuple;
+                break;
+            }
+            if (compare > 0)
+            {
+                throw new IllegalStateException("Tuples are not sorted.");
+            }
+            aggregate = reducer.reduce(aggregate, tuple);
+        }
+        return aggregate;
+    }
+
+    /**
+     * Not supported.
+     * 
+     * @exception UnsupportedOperationException
+     *                Always.
+     */
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+}
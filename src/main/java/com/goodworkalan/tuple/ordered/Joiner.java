@@ -0,0 +1,28 @@
+package com.goodworkalan.tuple.ordered;
+
+/**
+ * Creates the result of joining a left tuple with a matching right tuple.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <L>
+ *            The type of left tuple.
+ * @param <R>
+ *            The type of right tuple.
+ * @param <O>
+ *            The type of result.
+ */
+public interface Joiner<L, R, O>
+{
+    /**
+     * Join the given left tuple with the given right tuple.
+     * 
+     * @param left
+     *            The left tuple.
+     * @param right
+     *            The matching right tuple or null if the left tuple has no
+     *            match in a left or anti join.
+     * @return The result of the join.
+     */
+    public O join(L left, R right);
+}
@@ -0,0 +1,545 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Static methods that encode tuples as binary keys whose unsigned
+ * lexicographic byte order matches the order of tuples wrapped by
+ * {@link Ordered}, and decode binary keys back into tuples.
+ * <p>
+ * Each tuple member is written as a type byte followed by an order preserving
+ * encoding of the value. A null member is written as a single zero byte so
+ * that it sorts before every non-null member. Integers are written big-endian
+ * with the sign bit flipped, floating point numbers are written as their bits
+ * with the sign bit flipped for positive numbers and every bit flipped for
+ * negative numbers, and strings are written one UTF-16 code unit at a time as
+ * modified UTF-8, terminated by a zero byte, with any zero byte in the string
+ * escaped as a zero byte followed by <code>0xFF</code>.
+ * <p>
+ * Tuple members may be <code>Boolean</code>, <code>Byte</code>,
+ * <code>Short</code>, <code>Character</code>, <code>Integer</code>,
+ * <code>Long</code>, <code>Float</code>, <code>Double</code> or
+ * <code>String</code>.
+ *
+ * @author Alan Gutierrez
+ */
+public final class Keys
+{
+    /** The type byte of a null member. */
+    final static byte NULL = 0x00;
+
+    /** The type byte of a boolean member. */
+    final static byte BOOLEAN = 0x10;
+
+    /** The type byte of a byte member. */
+    final static byte BYTE = 0x11;
+
+    /** The type byte of a short member. */
+    final static byte SHORT = 0x12;
+
+    /** The type byte of a character member. */
+    final static byte CHARACTER = 0x13;
+
+    /** The type byte of an integer member. */
+    final static byte INTEGER = 0x14;
+
+    /** The type byte of a long member. */
+    final static byte LONG = 0x15;
+
+    /** The type byte of a float member. */
+    final static byte FLOAT = 0x16;
+
+    /** The type byte of a double member. */
+    final static byte DOUBLE = 0x17;
+
+    /** The type byte of a string member. */
+    final static byte STRING = 0x18;
+
+    /** The largest number of members in a decoded tuple. */
+    private final static int MAXIMUM_ARITY = 10;
+
+    /** Cannot be instantiated. */
+    private Keys()
+    {
+    }
+
+    /**
+     * Get the length in bytes of the binary key of the given tuple.
+     *
+     * @param tuple
+     *            The tuple.
+     * @return The length of the binary key.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded.
+     */
+    public static int length(Tuple<?, ?> tuple)
+    {
+        int length = 0;
+        Object rest = tuple;
+        while (rest instanceof Tuple<?, ?>)
+        {
+            Tuple<?, ?> remaining = (Tuple<?, ?>) rest;
+            length += length(Tuples.first(remaining));
+            rest = Tuples.rest(remaining);
+        }
+        return length;
+    }
+
+    /**
+     * Encode the given tuple as a binary key.
+     *
+     * @param tuple
+     *            The tuple.
+     * @return The binary key.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded.
+     */
+    public static byte[] encode(Tuple<?, ?> tuple)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length(tuple));
+        encode(tuple, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Write the binary key of the given tuple to the given buffer at the
+     * current position of the buffer.
+     *
+     * @param tuple
+     *            The tuple.
+     * @param buffer
+     *            The buffer.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded.
+     * @exception java.nio.BufferOverflowException
+     *                If the buffer does not have room for the binary key.
+     */
+    public static void encode(Tuple<?, ?> tuple, ByteBuffer buffer)
+    {
+        Object rest = tuple;
+        while (rest instanceof Tuple<?, ?>)
+        {
+            Tuple<?, ?> remaining = (Tuple<?, ?>) rest;
+            encode(Tuples.first(remaining), buffer);
+            rest = Tuples.rest(remaining);
+        }
+    }
+
+    /**
+     * Decode the given binary key into a tuple.
+     *
+     * @param key
+     *            The binary key.
+     * @return A tuple of the arity of the binary key.
+     * @exception IllegalArgumentException
+     *                If the binary key is malformed.
+     */
+    public static Tuple<?, ?> decode(byte[] key)
+    {
+        return decode(ByteBuffer.wrap(key));
+    }
+
+    /**
+     * Decode the binary key between the position and the limit of the given
+     * buffer into a tuple. The position of the buffer is advanced to the limit.
+     *
+     * @param buffer
+     *            The buffer.
+     * @return A tuple of the arity of the binary key.
+     * @exception IllegalArgumentException
+     *                If the binary key is malformed.
+     */
+    public static Tuple<?, ?> decode(ByteBuffer buffer)
+    {
+        Object[] members = new Object[MAXIMUM_ARITY];
+        int arity = 0;
+        while (buffer.hasRemaining())
+        {
+            if (arity == MAXIMUM_ARITY)
+            {
+                throw new IllegalArgumentException("Binary key has more than " + MAXIMUM_ARITY + " members.");
+            }
+            members[arity++] = decodeMember(buffer);
+        }
+        return tuple(members, arity);
+    }
+
+    /**
+     * Compare two binary keys as unsigned bytes in lexicographic order.
+     *
+     * @param left
+     *            The left binary key.
+     * @param right
+     *            The right binary key.
+     * @return A negative integer, zero, or a positive integer as the left key
+     *         is less than, equal to, or greater than the right key.
+     */
+    public static int compare(byte[] left, byte[] right)
+    {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++)
+        {
+            int compare = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (compare != 0)
+            {
+                return compare;
+            }
+        }
+        return left.length - right.length;
+    }
+
+    /**
+     * Compare the bytes between the position and the limit of two buffers as
+     * unsigned bytes in lexicographic order. The positions of the buffers are
+     * not changed.
+     *
+     * @param left
+     *            The left binary key.
+     * @param right
+     *            The right binary key.
+     * @return A negative integer, zero, or a positive integer as the left key
+     *         is less than, equal to, or greater than the right key.
+     */
+    public static int compare(ByteBuffer left, ByteBuffer right)
+    {
+        int leftPosition = left.position();
+        int rightPosition = right.position();
+        int length = Math.min(left.remaining(), right.remaining());
+        for (int i = 0; i < length; i++)
+        {
+            int compare = (left.get(leftPosition + i) & 0xFF) - (right.get(rightPosition + i) & 0xFF);
+            if (compare != 0)
+            {
+                return compare;
+            }
+        }
+        return left.remaining() - right.remaining();
+    }
+
+    /**
+     * Determine whether the given tuple member can be encoded in a binary key.
+     *
+     * @param member
+     *            The tuple member.
+     * @return True if the tuple member can be encoded.
+     */
+    static boolean encodable(Object member)
+    {
+        return member == null
+            || member instanceof String
+            || member instanceof Integer
+            || member instanceof Long
+            || member instanceof Double
+            || member instanceof Float
+            || member instanceof Short
+            || member instanceof Character
+            || member instanceof Byte
+            || member instanceof Boolean;
+    }
+
+    /**
+     * Get the length in bytes of the encoding of the given tuple member.
+     *
+     * @param member
+     *            The tuple member.
+     * @return The length of the encoded member.
+     * @exception IllegalArgumentException
+     *                If the tuple member cannot be encoded.
+     */
+    static int length(Object member)
+    {
+        if (member == null)
+        {
+            return 1;
+        }
+        else if (member instanceof String)
+        {
+            String string = (String) member;
+            int length = 2;
+            for (int i = 0, stop = string.length(); i < stop; i++)
+            {
+                char ch = string.charAt(i);
+                length += ch < 0x80 ? (ch == 0 ? 2 : 1) : ch < 0x800 ? 2 : 3;
+            }
+            return length;
+        }
+        else if (member instanceof Integer || member instanceof Float)
+        {
+            return 5;
+        }
+        else if (member instanceof Long || member instanceof Double)
+        {
+            return 9;
+        }
+        else if (member instanceof Short || member instanceof Character)
+        {
+            return 3;
+        }
+        else if (member instanceof Byte || member instanceof Boolean)
+        {
+            return 2;
+        }
+        throw new IllegalArgumentException("Cannot encode a " + member.getClass().getName() + " in a binary key.");
+    }
+
+    /**
+     * Write the encoding of the given tuple member to the given buffer.
+     *
+     * @param member
+     *            The tuple member.
+     * @param buffer
+     *            The buffer.
+     * @exception IllegalArgumentException
+     *                If the tuple member cannot be encoded.
+     */
+    static void encode(Object member, ByteBuffer buffer)
+    {
+        if (member == null)
+        {
+            buffer.put(NULL);
+        }
+        else if (member instanceof String)
+        {
+            buffer.put(STRING);
+            String string = (String) member;
+            for (int i = 0, stop = string.length(); i < stop; i++)
+            {
+                char ch = string.charAt(i);
+                if (ch == 0)
+                {
+                    buffer.put((byte) 0x00);
+                    buffer.put((byte) 0xFF);
+                }
+                else if (ch < 0x80)
+                {
+                    buffer.put((byte) ch);
+                }
+                else if (ch < 0x800)
+                {
+                    buffer.put((byte) (0xC0 | (ch >> 6)));
+                    buffer.put((byte) (0x80 | (ch & 0x3F)));
+                }
+                else
+                {
+                    buffer.put((byte) (0xE0 | (ch >> 12)));
+                    buffer.put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (ch & 0x3F)));
+                }
+            }
+            buffer.put((byte) 0x00);
+        }
+        else if (member instanceof Integer)
+        {
+            buffer.put(INTEGER);
+            buffer.putInt(((Integer) member).intValue() ^ Integer.MIN_VALUE);
+        }
+        else if (member instanceof Long)
+        {
+            buffer.put(LONG);
+            buffer.putLong(((Long) member).longValue() ^ Long.MIN_VALUE);
+        }
+        else if (member instanceof Double)
+        {
+            buffer.put(DOUBLE);
+            buffer.putLong(toSortable(((Double) member).doubleValue()));
+        }
+        else if (member instanceof Float)
+        {
+            buffer.put(FLOAT);
+            buffer.putInt(toSortable(((Float) member).floatValue()));
+        }
+        else if (member instanceof Short)
+        {
+            buffer.put(SHORT);
+            buffer.putShort((short) (((Short) member).shortValue() ^ Short.MIN_VALUE));
+        }
+        else if (member instanceof Character)
+        {
+            buffer.put(CHARACTER);
+            buffer.putChar(((Character) member).charValue());
+        }
+        else if (member instanceof Byte)
+        {
+            buffer.put(BYTE);
+            buffer.put((byte) (((Byte) member).byteValue() ^ Byte.MIN_VALUE));
+        }
+        else if (member instanceof Boolean)
+        {
+            buffer.put(BOOLEAN);
+            buffer.put(((Boolean) member).booleanValue() ? (byte) 1 : (byte) 0);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Cannot encode a " + member.getClass().getName() + " in a binary key.");
+        }
+    }
+
+    /**
+     * Read a tuple member from the current position of the given buffer.
+     *
+     * @param buffer
+     *            The buffer.
+     * @return The tuple member.
+     * @exception IllegalArgumentException
+     *                If the binary key is malformed or ends before the end of
+     *                the member.
+     */
+    static Object decodeMember(ByteBuffer buffer)
+    {
+        byte type;
+        try
+        {
+            type = buffer.get();
+            switch (type)
+            {
+            case NULL:
+                return null;
+            case STRING:
+                StringBuilder string = new StringBuilder();
+                for (;;)
+                {
+                    int b = buffer.get() & 0xFF;
+                    if (b == 0)
+                    {
+                        if (!buffer.hasRemaining() || (buffer.get(buffer.position()) & 0xFF) != 0xFF)
+                        {
+                            return string.toString();
+                        }
+                        buffer.get();
+                        string.append((char) 0);
+                    }
+                    else if (b < 0x80)
+                    {
+                        string.append((char) b);
+                    }
+                    else if (b < 0xE0)
+                    {
+                        string.append((char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F)));
+                    }
+                    else
+                    {
+                        int high = (b & 0x0F) << 12;
+                        int middle = (buffer.get() & 0x3F) << 6;
+                        string.append((char) (high | middle | (buffer.get() & 0x3F)));
+                    }
+                }
+            case INTEGER:
+                return Integer.valueOf(buffer.getInt() ^ Integer.MIN_VALUE);
+            case LONG:
+                return Long.valueOf(buffer.getLong() ^ Long.MIN_VALUE);
+            case DOUBLE:
+                return Double.valueOf(fromSortable(buffer.getLong()));
+            case FLOAT:
+                return Float.valueOf(fromSortable(buffer.getInt()));
+            case SHORT:
+                return Short.valueOf((short) (buffer.getShort() ^ Short.MIN_VALUE));
+            case CHARACTER:
+                return Character.valueOf(buffer.getChar());
+            case BYTE:
+                return Byte.valueOf((byte) (buffer.get() ^ Byte.MIN_VALUE));
+            case BOOLEAN:
+                return buffer.get() == 0 ? Boolean.FALSE : Boolean.TRUE;
+            }
+        }
+        catch (BufferUnderflowException e)
+        {
+            throw new IllegalArgumentException("Binary key is truncated.", e);
+        }
+        throw new IllegalArgumentException("Unknown binary key member type " + type + ".");
+    }
+
+    /**
+     * Convert the given double into a long whose unsigned order matches the
+     * order of <code>Double.compareTo</code>.
+     *
+     * @param value
+     *            The double.
+     * @return The sortable bits of the double.
+     */
+    static long toSortable(double value)
+    {
+        long bits = Double.doubleToLongBits(value);
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Convert the sortable bits of a double back into a double.
+     *
+     * @param bits
+     *            The sortable bits.
+     * @return The double.
+     */
+    static double fromSortable(long bits)
+    {
+        return Double.longBitsToDouble(bits < 0 ? bits ^ Long.MIN_VALUE : ~bits);
+    }
+
+    /**
+     * Convert the given float into an int whose unsigned order matches the
+     * order of <code>Float.compareTo</code>.
+     *
+     * @param value
+     *            The float.
+     * @return The sortable bits of the float.
+     */
+    static int toSortable(float value)
+    {
+        int bits = Float.floatToIntBits(value);
+        return bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Convert the sortable bits of a float back into a float.
+     *
+     * @param bits
+     *            The sortable bits.
+     * @return The float.
+     */
+    static float fromSortable(int bits)
+    {
+        return Float.intBitsToFloat(bits < 0 ? bits ^ Integer.MIN_VALUE : ~bits);
+    }
+
+    /**
+     * Create a tuple from the given number of members in the given array.
+     *
+     * @param members
+     *            The tuple members.
+     * @param arity
+     *            The number of members.
+     * @return A tuple of the given arity.
+     * @exception IllegalArgumentException
+     *                If the arity is zero.
+     */
+    static Tuple<?, ?> tuple(Object[] members, int arity)
+    {
+        Object[] m = members;
+        switch (arity)
+        {
+        case 1:
+            return Tuple.from(m[0]);
+        case 2:
+            return Tuple.from(m[0], m[1]);
+        case 3:
+            return Tuple.from(m[0], m[1], m[2]);
+        case 4:
+            return Tuple.from(m[0], m[1], m[2], m[3]);
+        case 5:
+            return Tuple.from(m[0], m[1], m[2], m[3], m[4]);
+        case 6:
+            return Tuple.from(m[0], m[1], m[2], m[3], m[4], m[5]);
+        case 7:
+            return Tuple.from(m[0], m[1], m[2], m[3], m[4], m[5], m[6]);
+        case 8:
+            return Tuple.from(m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7]);
+        case 9:
+            return Tuple.from(m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7], m[8]);
+        case 10:
+            return Tuple.from(m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7], m[8], m[9]);
+        }
+        throw new IllegalArgumentException("Cannot create a tuple of " + arity + " members.");
+    }
+}
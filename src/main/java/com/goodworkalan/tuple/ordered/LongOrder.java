@@ -0,0 +1,94 @@
+package com.goodworkalan.tuple.ordered;
+
+/**
+ * A step in a tuple comparison that compares a non-null <code>Long</code>
+ * tuple member as a primitive <code>long</code> without checking for null.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <Rest>
+ *            The type of the remainder of the tuple.
+ */
+class LongOrder<Rest> extends Order<Long, Rest>
+{
+    /**
+     * Create a step in a tuple comparison.
+     * 
+     * @param compareRest
+     *            A comparable server that creates a comparable for the rest of
+     *            the tuple.
+     */
+    LongOrder(ComparableServer<Rest> compareRest)
+    {
+        super(compareRest);
+    }
+
+    /**
+     * Create a step in a tuple comparison.
+     * 
+     * @param compareRest
+     *            A comparable server that creates a comparable for the rest of
+     *            the tuple.
+     * @param descending
+     *            Whether the tuple member is ordered from greatest to least.
+     * @param statistics
+     *            The statistics that record comparisons or null.
+     */
+    LongOrder(ComparableServer<Rest> compareRest, boolean descending, ComparisonStatistics statistics)
+    {
+        super(compareRest, descending, false, statistics);
+    }
+
+    /**
+     * Create a copy of this step with the given direction and statistics.
+     * Members are never null so the null placement is ignored.
+     * 
+     * @param descending
+     *            Whether the tuple member is ordered from greatest to least.
+     * @param nullsLast
+     *            Ignored.
+     * @param statistics
+     *            The statistics that record comparisons or null.
+     * @return A copy of this step.
+     */
+    Order<Long, Rest> copy(boolean descending, boolean nullsLast, ComparisonStatistics statistics)
+    {
+        return new LongOrder<Rest>(compareRest, descending, statistics);
+    }
+
+    /**
+     * Members are compared as non-null primitive <code>long</code> values.
+     * 
+     * @return True.
+     */
+    boolean primitive()
+    {
+        return true;
+    }
+
+    /**
+     * Compare two tuple members as primitive <code>long</code>
+     * values.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         member is ordered before, the same as, or after the right member.
+     * @exception NullPointerException
+     *                If either member is null.
+     */
+    int compareMember(Object left, Object right)
+    {
+        long l = ((Long) left).longValue();
+        long r = ((Long) right).longValue();
+        if (descending)
+        {
+            long swap = l;
+            l = r;
+            r = swap;
+        }
+        return l < r ? -1 : l == r ? 0 : 1;
+    }
+}
@@ -0,0 +1,306 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator that lazily merges sorted iterators into a single sorted
+ * iterator using a loser tree.
+ * <p>
+ * The loser tree holds the next object of each source, so memory is
+ * proportional to the number of sources, and advancing costs one comparison
+ * per level of the tree. Objects that compare as equal are returned in the
+ * order of their sources, so the merge is stable. Duplicates are either all
+ * returned or folded together with a {@link Combiner}, and the
+ * {@link #first()} combiner drops all but the first of a run of duplicates.
+ * <p>
+ * Sources that are <code>Closeable</code> are closed when they are exhausted
+ * or when the merge iterator is closed.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of object to merge.
+ */
+public class MergeIterator<T> implements Iterator<T>, Closeable
+{
+    /** The sources. */
+    private final Iterator<? extends T>[] sources;
+
+    /** The next object of each source. */
+    private final Object[] heads;
+
+    /** Whether each source is exhausted. */
+    private final boolean[] exhausted;
+
+    /**
+     * The loser of the match at each internal node of the tree, with the index
+     * of the overall winner at index zero.
+     */
+    private final int[] losers;
+
+    /** The comparator that orders the sources. */
+    private final Comparator<? super T> comparator;
+
+    /** The combiner for duplicates or null to keep duplicates. */
+    private final Combiner<T> combiner;
+
+    /**
+     * Create a merge iterator that returns every object of the given sorted
+     * sources, including duplicates.
+     * 
+     * @param sources
+     *            The sorted sources.
+     * @param comparator
+     *            The comparator that orders the sources, such as a
+     *            {@link TupleComparator}.
+     */
+    public MergeIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator)
+    {
+        this(sources, comparator, null);
+    }
+
+    /**
+     * Create a merge iterator that folds objects that compare as equal with
+     * the given combiner.
+     * 
+     * @param sources
+     *            The sorted sources.
+     * @param comparator
+     *            The comparator that orders the sources, such as a
+     *            {@link TupleComparator}.
+     * @param combiner
+     *            The combiner for duplicates or null to keep duplicates.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public MergeIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator, Combiner<T> combiner)
+    {
+        int count = Math.max(sources.size(), 1);
+        this.sources = sources.toArray(new Iterator[count]);
+        this.heads = new Object[count];
+        this.exhausted = new boolean[count];
+        this.losers = new int[count];
+        this.comparator = comparator;
+        this.combiner = combiner;
+        for (int i = 0; i < count; i++)
+        {
+            advance(i);
+        }
+        int[] winners = new int[count * 2];
+        for (int i = 0; i < count; i++)
+        {
+            winners[count + i] = i;
+        }
+        for (int node = count - 1; node > 0; node--)
+        {
+            int left = winners[node * 2];
+            int right = winners[node * 2 + 1];
+            if (before(right, left))
+            {
+                winners[node] = right;
+                losers[node] = left;
+            }
+            else
+            {
+                winners[node] = left;
+                losers[node] = right;
+            }
+        }
+        losers[0] = winners[1];
+    }
+
+    /**
+     * Get a combiner that keeps the first of a run of duplicates and drops
+     * the rest.
+     * 
+     * @param <T>
+     *            The type of object to combine.
+     * @return A combiner that drops duplicates.
+     */
+    public static <T> Combiner<T> first()
+    {
+        return new Combiner<T>()
+        {
+            public T combine(T combined, T duplicate)
+            {
+                return combined;
+            }
+        };
+    }
+
+    /**
+     * Read the next object of the given source into its head, marking the
+     * source as exhausted and closing it if it has no more objects.
+     * 
+     * @param source
+     *            The source index.
+     */
+    private void advance(int source)
+    {
+        Iterator<? extends T> iterator = sources[source];
+        if (iterator != null && iterator.hasNext())
+        {
+            heads[source] = iterator.next();
+        }
+        else
+        {
+            heads[source] = null;
+            exhausted[source] = true;
+            sources[source] = null;
+            close(iterator);
+        }
+    }
+
+    /**
+     * Close the given source if it is closeable, ignoring errors, since the
+     * source has already been read or is being abandoned.
+     * 
+     * @param source
+     *            The source.
+     */
+    private static void close(Iterator<?> source)
+    {
+        if (source instanceof Closeable)
+        {
+            try
+            {
+                ((Closeable) source).close();
+            }
+            catch (IOException e)
+            {
+                // Nothing more will be read from the source.
+            }
+        }
+    }
+
+    /**
+     * Determine whether the head of the left source is ordered before the
+     * head of the right source, with exhausted sources ordered last and ties
+     * broken by source index.
+     * 
+     * @param left
+     *            The left source index.
+     * @param right
+     *            The right source index.
+     * @return True if the left source is ordered before the right source.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean before(int left, int right)
+    {
+        if (exhausted[left])
+        {
+            return false;
+        }
+        if (exhausted[right])
+        {
+            return true;
+        }
+        int compare = comparator.compare((T) heads[left], (T) heads[right]);
+        return compare < 0 || (compare == 0 && left < right);
+    }
+
+    /**
+     * Replay the matches from the leaf of the given source to the root after
+     * the head of the source has changed.
+     * 
+     * @param source
+     *            The source index.
+     */
+    private void replay(int source)
+    {
+        int winner = source;
+        for (int node = (source + losers.length) >> 1; node > 0; node >>= 1)
+        {
+            if (before(losers[node], winner))
+            {
+                int loser = winner;
+                winner = losers[node];
+                losers[node] = loser;
+            }
+        }
+        losers[0] = winner;
+    }
+
+    /**
+     * Remove and return the head of the winning source.
+     * 
+     * @return The least next object.
+     */
+    @SuppressWarnings("unchecked")
+    private T pop()
+    {
+        int winner = losers[0];
+        T next = (T) heads[winner];
+        advance(winner);
+        replay(winner);
+        return next;
+    }
+
+    /**
+     * Return true if any source has more objects.
+     * 
+     * @return True if there are more objects.
+     */
+    public boolean hasNext()
+    {
+        return !exhausted[losers[0]];
+    }
+
+    /**
+     * Get the least next object of all the sources, combined with any
+     * duplicates if there is a combiner.
+     * 
+     * @return The next object.
+     * @exception NoSuchElementException
+     *                If there are no more objects.
+     */
+    @SuppressWarnings("unchecked")
+    public T next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        T next = pop();
+        if (combiner != null)
+        {
+            while (hasNext() && comparator.compare((T) heads[losers[0]], next) == 0)
+            {
+                next = combiner.combine(next, pop());
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Not supported.
+     * 
+     * @exception UnsupportedOperationException
+     *                Always.
+     */
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Close all the remaining sources.
+     */
+    public void close()
+    {
+        for (int i = 0; i < sources.length; i++)
+        {
+            if (!exhausted[i])
+            {
+                exhausted[i] = true;
+                heads[i] = null;
+                close(sources[i]);
+                sources[i] = null;
+            }
+        }
+    }
+}
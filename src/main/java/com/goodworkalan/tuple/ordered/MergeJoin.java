@@ -0,0 +1,308 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * An iterator over the lazily computed results of a sort-merge join of two
+ * sorted iterators of tuples on their leading members.
+ * <p>
+ * The left and right tuples may have different arities, but both must be
+ * sorted by the same tuple comparison of their leading key members. The left
+ * tuples are streamed. The right tuples that share a key are buffered while
+ * the left tuples with that key are joined with them, so memory is bounded by
+ * the largest group of right tuples with the same key, and a group larger than
+ * the maximum is reported as an error rather than exhausting the heap. Put the
+ * input with fewer duplicate keys on the right.
+ * <p>
+ * An inner join produces a result for each matching pair, a left join also
+ * produces a result with a null right tuple for each left tuple without a
+ * match, and an anti join produces only those results.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <L>
+ *            The type of left tuple.
+ * @param <R>
+ *            The type of right tuple.
+ * @param <O>
+ *            The type of result.
+ */
+public class MergeJoin<L extends Tuple<?, ?>, R extends Tuple<?, ?>, O> implements Iterator<O>
+{
+    /** The default maximum number of right tuples with the same key. */
+    public final static int DEFAULT_MAXIMUM = 1 << 16;
+
+    /**
+     * The type of a join.
+     */
+    public enum Type
+    {
+        /** Join each left tuple with each matching right tuple. */
+        INNER,
+
+        /**
+         * Join each left tuple with each matching right tuple, or with null if
+         * there is no matching right tuple.
+         */
+        LEFT,
+
+        /** Join each left tuple that has no matching right tuple with null. */
+        ANTI
+    }
+
+    /** The type of join. */
+    private final Type type;
+
+    /** The sorted left tuples. */
+    private final Iterator<? extends L> left;
+
+    /** The sorted right tuples. */
+    private final Iterator<? extends R> right;
+
+    /** The tuple comparison that orders the keys. */
+    private final Order<?, ?> order;
+
+    /** The number of leading members in the key. */
+    private final int members;
+
+    /** The maximum number of right tuples with the same key. */
+    private final int maximum;
+
+    /** The joiner. */
+    private final Joiner<? super L, ? super R, ? extends O> joiner;
+
+    /** The right tuples that match the current key. */
+    private final List<R> group;
+
+    /** The next left tuple or null if the left tuples are exhausted. */
+    private L nextLeft;
+
+    /** The next right tuple or null if the right tuples are exhausted. */
+    private R nextRight;
+
+    /** The left tuple being joined with the group or null. */
+    private L current;
+
+    /** The index of the next right tuple in the group to join. */
+    private int index;
+
+    /** Whether the next result has been computed. */
+    private boolean ready;
+
+    /** The next result. */
+    private O result;
+
+    /**
+     * Create a join of tuples sorted in the order of {@link Ordered} tuples,
+     * ascending with nulls first, with the default maximum group size.
+     * 
+     * @param type
+     *            The type of join.
+     * @param left
+     *            The sorted left tuples.
+     * @param right
+     *            The sorted right tuples.
+     * @param members
+     *            The number of leading members in the key.
+     * @param joiner
+     *            The joiner.
+     * @exception IllegalArgumentException
+     *                If the number of members is less than one or greater than
+     *                ten.
+     */
+    public MergeJoin(Type type, Iterator<? extends L> left, Iterator<? extends R> right, int members, Joiner<? super L, ? super R, ? extends O> joiner)
+    {
+        this(type, left, right, members < 1 || members > 10 ? null : Ordered.chain(members), members, DEFAULT_MAXIMUM, joiner);
+    }
+
+    /**
+     * Create a join of tuples sorted by the given tuple comparison.
+     * 
+     * @param type
+     *            The type of join.
+     * @param left
+     *            The sorted left tuples.
+     * @param right
+     *            The sorted right tuples.
+     * @param order
+     *            The tuple comparison that orders the keys.
+     * @param members
+     *            The number of leading members in the key.
+     * @param maximum
+     *            The maximum number of right tuples with the same key.
+     * @param joiner
+     *            The joiner.
+     * @exception IllegalArgumentException
+     *                If the number of members is less than one or greater than
+     *                the number of members compared, or if the maximum is less
+     *                than one.
+     */
+    public MergeJoin(Type type, Iterator<? extends L> left, Iterator<? extends R> right, Order<?, ?> order, int members, int maximum, Joiner<? super L, ? super R, ? extends O> joiner)
+    {
+        if (order == null || members < 1 || members > order.plan.length)
+        {
+            throw new IllegalArgumentException("Key must be one or more of the members compared.");
+        }
+        if (maximum < 1)
+        {
+            throw new IllegalArgumentException("Maximum must be at least one.");
+        }
+        this.type = type;
+        this.left = left;
+        this.right = right;
+        this.order = order;
+        this.members = members;
+        this.maximum = maximum;
+        this.joiner = joiner;
+        this.group = new ArrayList<R>();
+        this.nextLeft = left.hasNext() ? left.next() : null;
+        this.nextRight = right.hasNext() ? right.next() : null;
+    }
+
+    /**
+     * Read the next left tuple.
+     * 
+     * @return The next left tuple.
+     * @exception IllegalStateException
+     *                If the left tuples are not sorted.
+     */
+    private L readLeft()
+    {
+        L tuple = nextLeft;
+        nextLeft = left.hasNext() ? left.next() : null;
+        if (nextLeft != null && order.compareLeading(tuple, nextLeft, members) > 0)
+        {
+            throw new IllegalStateException("Left tuples are not sorted.");
+        }
+        return tuple;
+    }
+
+    /**
+     * Read the next right tuple.
+     * 
+     * @return The next right tuple.
+     * @exception IllegalStateException
+     *                If the right tuples are not sorted.
+     */
+    private R readRight()
+    {
+        R tuple = nextRight;
+        nextRight = right.hasNext() ? right.next() : null;
+        if (nextRight != null && order.compareLeading(tuple, nextRight, members) > 0)
+        {
+            throw new IllegalStateException("Right tuples are not sorted.");
+        }
+        return tuple;
+    }
+
+    /**
+     * Replace the group with the right tuples that match the key of the given
+     * left tuple, skipping right tuples with lesser keys. An anti join only
+     * needs to know whether there is a match, so it keeps only the first.
+     * 
+     * @param tuple
+     *            The left tuple.
+     * @exception IllegalStateException
+     *                If there are more matching right tuples than the maximum.
+     */
+    private void match(L tuple)
+    {
+        group.clear();
+        while (nextRight != null && order.compareLeading(nextRight, tuple, members) < 0)
+        {
+            readRight();
+        }
+        while (nextRight != null && order.compareLeading(nextRight, tuple, members) == 0)
+        {
+            R match = readRight();
+            if (group.isEmpty() || type != Type.ANTI)
+            {
+                if (group.size() == maximum)
+                {
+                    throw new IllegalStateException("More than " + maximum + " right tuples have the same key.");
+                }
+                group.add(match);
+            }
+        }
+    }
+
+    /**
+     * Return true if there is another result of the join.
+     * 
+     * @return True if there is another result.
+     */
+    public boolean hasNext()
+    {
+        while (!ready)
+        {
+            if (current != null)
+            {
+                if (index < group.size())
+                {
+                    result = joiner.join(current, group.get(index++));
+                    ready = true;
+                    break;
+                }
+                current = null;
+            }
+            if (nextLeft == null || (type == Type.INNER && nextRight == null && group.isEmpty()))
+            {
+                return false;
+            }
+            L tuple = readLeft();
+            if (group.isEmpty() || order.compareLeading(tuple, group.get(0), members) != 0)
+            {
+                match(tuple);
+            }
+            if (group.isEmpty())
+            {
+                if (type != Type.INNER)
+                {
+                    result = joiner.join(tuple, null);
+                    ready = true;
+                }
+            }
+            else if (type != Type.ANTI)
+            {
+                current = tuple;
+                index = 0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the next result of the join.
+     * 
+     * @return The next result.
+     * @exception NoSuchElementException
+     *                If there are no more results.
+     */
+    public O next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        O next = result;
+        result = null;
+        ready = false;
+        return next;
+    }
+
+    /**
+     * Not supported.
+     * 
+     * @exception UnsupportedOperationException
+     *                Always.
+     */
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,31 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An iterator over the result of an {@link ExternalSort} that merges sorted
+ * runs as it is read. Runs that are exhausted are closed and their run files
+ * are deleted. Closing the iterator deletes any remaining run files.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple.
+ */
+public class MergedRuns<T> extends MergeIterator<T>
+{
+    /**
+     * Create an iterator that merges the given sorted runs.
+     * 
+     * @param runs
+     *            The sorted runs.
+     * @param comparator
+     *            The comparator that orders the runs.
+     */
+    MergedRuns(List<? extends Iterator<T>> runs, Comparator<? super T> comparator)
+    {
+        super(runs, comparator);
+    }
+}
@@ -2,12 +2,21 @@ package com.goodworkalan.tuple.ordered;
 
 import com.mallardsoft.tuple.End;
 import com.mallardsoft.tuple.Tuple;
-import com.mallardsoft.tuple.Variable;
 
 /**
  * A comparable builder that creates an implementation of comparable that
  * compares a tuple member in a tuple and then propagates the comparison to the
  * next comparable builder.
+ * <p>
+ * Each step orders its member ascending with nulls first unless the step is
+ * changed with {@link #descending()} or {@link #nullsLast()}. When a chain is
+ * built the steps are flattened into a plan, so a comparison walks the tuple
+ * members in a single loop with no adapter objects for the direction or the
+ * null placement.
+ * <p>
+ * A comparison can be instrumented with {@link #instrument(ComparisonStatistics)}
+ * to record how many members are examined before each comparison is decided.
+ * An uninstrumented comparison pays only for a null check.
  * 
  * @author Alan Gutierrez
  * 
@@ -21,18 +30,75 @@ public class Order<First extends Comparable<First>, Rest> implements ComparableS
     /**
      * A comparable server that creates a comparable for the rest of the tuple.
      */
-    private final ComparableServer<Rest> compareRest;
+    final ComparableServer<Rest> compareRest;
+
+    /** Whether the tuple member is ordered from greatest to least. */
+    final boolean descending;
+
+    /** Whether null tuple members are ordered after non-null members. */
+    final boolean nullsLast;
+
+    /** This step followed by the steps for the rest of the tuple. */
+    final Order<?, ?>[] plan;
+
+    /** The statistics that record comparisons or null if not instrumented. */
+    final ComparisonStatistics statistics;
 
     /**
-     * Create a step in a tuple comparison.
+     * Create a step in a tuple comparison that orders the tuple member
+     * ascending with nulls first.
      * 
      * @param compareRest
      *            A comparable server that creates a comparable for the rest of
      *            the tuple.
      */
     Order(ComparableServer<Rest> compareRest)
+    {
+        this(compareRest, false, false);
+    }
+
+    /**
+     * Create a step in a tuple comparison.
+     * 
+     * @param compareRest
+     *            A comparable server that creates a comparable for the rest of
+     *            the tuple.
+     * @param descending
+     *            Whether the tuple member is ordered from greatest to least.
+     * @param nullsLast
+     *            Whether null tuple members are ordered after non-null
+     *            members.
+     */
+    Order(ComparableServer<Rest> compareRest, boolean descending, boolean nullsLast)
+    {
+        this(compareRest, descending, nullsLast, null);
+    }
+
+    /**
+     * Create a step in a tuple comparison that records comparisons that begin
+     * with this step in the given statistics.
+     * 
+     * @param compareRest
+     *            A comparable server that creates a comparable for the rest of
+     *            the tuple.
+     * @param descending
+     *            Whether the tuple member is ordered from greatest to least.
+     * @param nullsLast
+     *            Whether null tuple members are ordered after non-null
+     *            members.
+     * @param statistics
+     *            The statistics that record comparisons or null.
+     */
+    Order(ComparableServer<Rest> compareRest, boolean descending, boolean nullsLast, ComparisonStatistics statistics)
     {
         this.compareRest = compareRest;
+        this.descending = descending;
+        this.nullsLast = nullsLast;
+        this.statistics = statistics;
+        Order<?, ?>[] rest = compareRest instanceof Order<?, ?> ? ((Order<?, ?>) compareRest).plan : new Order<?, ?>[0];
+        this.plan = new Order<?, ?>[rest.length + 1];
+        this.plan[0] = this;
+        System.arraycopy(rest, 0, plan, 1, rest.length);
     }
     
     /**
@@ -42,7 +108,40 @@ public class Order<First extends Comparable<First>, Rest> implements ComparableS
      */
     public static <A extends Comparable<A>> Order<A, End> last()
     {
-        return new Order<A, End>(new EndComparableServer());
+        return new Order<A, End>(EndComparableServer.INSTANCE);
+    }
+
+    /**
+     * Begin the reverse construction of a tuple comparison whose last member
+     * is a non-null <code>Integer</code> compared as a primitive.
+     * 
+     * @return The penultimate step in a tuple comparison.
+     */
+    public static Order<Integer, End> lastInt()
+    {
+        return new IntOrder<End>(EndComparableServer.INSTANCE);
+    }
+
+    /**
+     * Begin the reverse construction of a tuple comparison whose last member
+     * is a non-null <code>Long</code> compared as a primitive.
+     * 
+     * @return The penultimate step in a tuple comparison.
+     */
+    public static Order<Long, End> lastLong()
+    {
+        return new LongOrder<End>(EndComparableServer.INSTANCE);
+    }
+
+    /**
+     * Begin the reverse construction of a tuple comparison whose last member
+     * is a non-null <code>Double</code> compared as a primitive.
+     * 
+     * @return The penultimate step in a tuple comparison.
+     */
+    public static Order<Double, End> lastDouble()
+    {
+        return new DoubleOrder<End>(EndComparableServer.INSTANCE);
     }
 
     /**
@@ -58,6 +157,122 @@ public class Order<First extends Comparable<First>, Rest> implements ComparableS
         return new Order<T, Tuple<First, Rest>>(this);
     }
 
+    /**
+     * Prepend a step in a tuple comparison for a non-null
+     * <code>Integer</code> tuple member compared as a primitive.
+     * 
+     * @return A tuple comparison that begins with a comparison of an
+     *         <code>Integer</code> tuple member.
+     */
+    public Order<Integer, Tuple<First, Rest>> prependInt()
+    {
+        return new IntOrder<Tuple<First, Rest>>(this);
+    }
+
+    /**
+     * Prepend a step in a tuple comparison for a non-null <code>Long</code>
+     * tuple member compared as a primitive.
+     * 
+     * @return A tuple comparison that begins with a comparison of a
+     *         <code>Long</code> tuple member.
+     */
+    public Order<Long, Tuple<First, Rest>> prependLong()
+    {
+        return new LongOrder<Tuple<First, Rest>>(this);
+    }
+
+    /**
+     * Prepend a step in a tuple comparison for a non-null <code>Double</code>
+     * tuple member compared as a primitive.
+     * 
+     * @return A tuple comparison that begins with a comparison of a
+     *         <code>Double</code> tuple member.
+     */
+    public Order<Double, Tuple<First, Rest>> prependDouble()
+    {
+        return new DoubleOrder<Tuple<First, Rest>>(this);
+    }
+
+    /**
+     * Create a copy of this step with the given direction, null placement and
+     * statistics.
+     * 
+     * @param descending
+     *            Whether the tuple member is ordered from greatest to least.
+     * @param nullsLast
+     *            Whether null tuple members are ordered after non-null
+     *            members.
+     * @param statistics
+     *            The statistics that record comparisons or null.
+     * @return A copy of this step.
+     */
+    Order<First, Rest> copy(boolean descending, boolean nullsLast, ComparisonStatistics statistics)
+    {
+        return new Order<First, Rest>(compareRest, descending, nullsLast, statistics);
+    }
+
+    /**
+     * Create a tuple comparison that orders the first member from least to
+     * greatest and orders the rest of the tuple the same as this comparison.
+     * 
+     * @return A tuple comparison with an ascending first member.
+     */
+    public Order<First, Rest> ascending()
+    {
+        return copy(false, nullsLast, statistics);
+    }
+
+    /**
+     * Create a tuple comparison that orders the first member from greatest to
+     * least and orders the rest of the tuple the same as this comparison.
+     * 
+     * @return A tuple comparison with a descending first member.
+     */
+    public Order<First, Rest> descending()
+    {
+        return copy(true, nullsLast, statistics);
+    }
+
+    /**
+     * Create a tuple comparison that orders a null first member before
+     * non-null first members, regardless of direction, and orders the rest of
+     * the tuple the same as this comparison.
+     * 
+     * @return A tuple comparison that orders a null first member first.
+     */
+    public Order<First, Rest> nullsFirst()
+    {
+        return copy(descending, false, statistics);
+    }
+
+    /**
+     * Create a tuple comparison that orders a null first member after non-null
+     * first members, regardless of direction, and orders the rest of the
+     * tuple the same as this comparison.
+     * 
+     * @return A tuple comparison that orders a null first member last.
+     */
+    public Order<First, Rest> nullsLast()
+    {
+        return copy(descending, true, statistics);
+    }
+
+    /**
+     * Create a tuple comparison that orders tuples the same as this comparison
+     * and records each comparison in the given statistics. Steps prepended to
+     * the instrumented comparison are not instrumented, so this should be the
+     * last step in the construction of a comparison.
+     * 
+     * @param statistics
+     *            The statistics that record comparisons or null to remove
+     *            instrumentation.
+     * @return An instrumented tuple comparison.
+     */
+    public Order<First, Rest> instrument(ComparisonStatistics statistics)
+    {
+        return copy(descending, nullsLast, statistics);
+    }
+
     /**
      * Create a comparable that will compare the given tuple against other
      * tuples of the same type.
@@ -67,37 +282,439 @@ public class Order<First extends Comparable<First>, Rest> implements ComparableS
      * @return A comparable that will compare the given tuple against other
      *         tuples of the same type.
      */
-    public Comparable<Tuple<First, Rest>> comparable(Tuple<First, Rest> tuple)
+    public Comparable<Tuple<First, Rest>> comparable(final Tuple<First, Rest> tuple)
     {
-        Variable<First> v1 = new Variable<First>();
-        final Rest r1 = tuple.extract(v1);
-        final First f1 = v1.get();
         return new Comparable<Tuple<First,Rest>>()
         {
             public int compareTo(Tuple<First, Rest> other)
             {
-                Variable<First> v2 = new Variable<First>();
-                Rest r2 = other.extract(v2);
-                First f2 = v2.get();
-                if (f1 == null)
+                return compare(tuple, other);
+            }
+        };
+    }
+
+    /**
+     * Compare the given tuples member by member according to the direction and
+     * null placement of each step. The comparison walks both tuples directly
+     * and does not allocate any objects.
+     * 
+     * @param left
+     *            The left tuple.
+     * @param right
+     *            The right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         tuple is less than, equal to, or greater than the right tuple.
+     */
+    public int compare(Tuple<First, Rest> left, Tuple<First, Rest> right)
+    {
+        return compareTuples(left, right);
+    }
+
+    /**
+     * Compare the leading members of the given tuple against the members of
+     * the given prefix. A tuple that begins with the members of the prefix is
+     * equal to the prefix.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @param prefix
+     *            A tuple with the same leading member types as the tuple and
+     *            the same or fewer members.
+     * @return A negative integer, zero, or a positive integer as the tuple is
+     *         less than, begins with, or is greater than the prefix.
+     */
+    public int comparePrefix(Tuple<First, Rest> tuple, Tuple<First, ?> prefix)
+    {
+        return comparePrefixes(tuple, prefix);
+    }
+
+    /**
+     * Compare the given tuples member by member without type checks.
+     * 
+     * @param left
+     *            The left tuple.
+     * @param right
+     *            The right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         tuple is less than, equal to, or greater than the right tuple.
+     */
+    int compareTuples(Tuple<?, ?> left, Tuple<?, ?> right)
+    {
+        if (statistics != null)
+        {
+            return compareInstrumented(left, right, false);
+        }
+        Order<?, ?>[] plan = this.plan;
+        Tuple<?, ?> l = left;
+        Tuple<?, ?> r = right;
+        int i = 0;
+        for (;;)
+        {
+            int compare = plan[i].compareMember(Tuples.first(l), Tuples.first(r));
+            if (compare != 0 || ++i == plan.length)
+            {
+                return compare;
+            }
+            l = (Tuple<?, ?>) Tuples.rest(l);
+            r = (Tuple<?, ?>) Tuples.rest(r);
+        }
+    }
+
+    /**
+     * Compare the leading members of the given tuple against the members of
+     * the given prefix without type checks, stopping at the end of whichever
+     * of the two is shorter.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @param prefix
+     *            The prefix.
+     * @return A negative integer, zero, or a positive integer as the tuple is
+     *         less than, shares its leading members with, or is greater than
+     *         the prefix.
+     */
+    int comparePrefixes(Tuple<?, ?> tuple, Tuple<?, ?> prefix)
+    {
+        if (statistics != null)
+        {
+            return compareInstrumented(tuple, prefix, true);
+        }
+        Order<?, ?>[] plan = this.plan;
+        Tuple<?, ?> t = tuple;
+        Tuple<?, ?> p = prefix;
+        int i = 0;
+        for (;;)
+        {
+            int compare = plan[i].compareMember(Tuples.first(t), Tuples.first(p));
+            if (compare != 0 || ++i == plan.length)
+            {
+                return compare;
+            }
+            Object rest = Tuples.rest(p);
+            Object next = Tuples.rest(t);
+            if (!(rest instanceof Tuple<?, ?>) || !(next instanceof Tuple<?, ?>))
+            {
+                return 0;
+            }
+            p = (Tuple<?, ?>) rest;
+            t = (Tuple<?, ?>) next;
+        }
+    }
+
+    /**
+     * Compare the given number of leading members of the given tuples without
+     * type checks and without recording statistics.
+     * 
+     * @param left
+     *            The left tuple.
+     * @param right
+     *            The right tuple.
+     * @param members
+     *            The number of leading members to compare, at least one and
+     *            at most the number of steps in this comparison.
+     * @return A negative integer, zero, or a positive integer as the leading
+     *         members of the left tuple are less than, equal to, or greater
+     *         than the leading members of the right tuple.
+     */
+    int compareLeading(Tuple<?, ?> left, Tuple<?, ?> right, int members)
+    {
+        Order<?, ?>[] plan = this.plan;
+        Tuple<?, ?> l = left;
+        Tuple<?, ?> r = right;
+        int i = 0;
+        for (;;)
+        {
+            int compare = plan[i].compareMember(Tuples.first(l), Tuples.first(r));
+            if (compare != 0 || ++i == members)
+            {
+                return compare;
+            }
+            l = (Tuple<?, ?>) Tuples.rest(l);
+            r = (Tuple<?, ?>) Tuples.rest(r);
+        }
+    }
+
+    /**
+     * Compare the given tuples or the given tuple and prefix and record the
+     * number of members examined, the number of members that were null and
+     * the time taken in the statistics of this comparison.
+     * 
+     * @param left
+     *            The left tuple.
+     * @param right
+     *            The right tuple or prefix.
+     * @param prefix
+     *            Whether the right tuple is a prefix.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         tuple is less than, equal to, or greater than the right tuple.
+     */
+    private int compareInstrumented(Tuple<?, ?> left, Tuple<?, ?> right, boolean prefix)
+    {
+        long start = System.nanoTime();
+        Order<?, ?>[] plan = this.plan;
+        Tuple<?, ?> l = left;
+        Tuple<?, ?> r = right;
+        int nulls = 0;
+        int examined = 0;
+        int compare;
+        for (;;)
+        {
+            Object first = Tuples.first(l);
+            Object second = Tuples.first(r);
+            if (first == null || second == null)
+            {
+                nulls++;
+            }
+            compare = plan[examined++].compareMember(first, second);
+            if (compare != 0 || examined == plan.length)
+            {
+                break;
+            }
+            Object rest = Tuples.rest(r);
+            Object next = Tuples.rest(l);
+            if (prefix && (!(rest instanceof Tuple<?, ?>) || !(next instanceof Tuple<?, ?>)))
+            {
+                break;
+            }
+            r = (Tuple<?, ?>) rest;
+            l = (Tuple<?, ?>) next;
+        }
+        statistics.record(examined, nulls, System.nanoTime() - start);
+        return compare;
+    }
+
+    /**
+     * Create an abbreviated key from the first eight bytes of the binary key
+     * of the leading members of the given tuple. Members are included while
+     * the steps are ascending with nulls first and the members can be encoded
+     * in a binary key, and the abbreviation is padded with zeros. The type
+     * byte is omitted for the members of primitive steps, since their type is
+     * fixed and they are never null, so a leading <code>long</code> fills the
+     * whole abbreviation. If two abbreviations differ, they order the tuples
+     * the same way this comparison does. If they are equal, the tuples must
+     * be compared in full.
+     * <p>
+     * The bytes are shifted directly into the abbreviation without allocating
+     * a buffer. The abbreviation has its sign bit flipped so that it can be
+     * compared as a signed long.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @return The abbreviated key.
+     */
+    long abbreviate(Tuple<?, ?> tuple)
+    {
+        long abbreviation = 0;
+        int free = 64;
+        Tuple<?, ?> t = tuple;
+        for (int i = 0; i < plan.length && free != 0; i++)
+        {
+            Order<?, ?> step = plan[i];
+            Object member = Tuples.first(t);
+            if (step.descending || step.nullsLast || !Keys.encodable(member))
+            {
+                break;
+            }
+            if (step.primitive())
+            {
+                if (member instanceof Integer)
                 {
-                    if (f2 == null)
+                    abbreviation = place(abbreviation, free, ((Integer) member).intValue() ^ Integer.MIN_VALUE, 4);
+                    free = Math.max(free - 32, 0);
+                }
+                else if (member instanceof Long)
+                {
+                    abbreviation = place(abbreviation, free, ((Long) member).longValue() ^ Long.MIN_VALUE, 8);
+                    free = 0;
+                }
+                else if (member instanceof Double)
+                {
+                    abbreviation = place(abbreviation, free, Keys.toSortable(((Double) member).doubleValue()), 8);
+                    free = 0;
+                }
+                else
+                {
+                    break;
+                }
+            }
+            else if (member == null)
+            {
+                abbreviation = place(abbreviation, free, Keys.NULL, 1);
+                free -= 8;
+            }
+            else if (member instanceof String)
+            {
+                abbreviation = place(abbreviation, free, Keys.STRING, 1);
+                free -= 8;
+                String string = (String) member;
+                for (int j = 0, stop = string.length(); j < stop && free != 0; j++)
+                {
+                    char ch = string.charAt(j);
+                    long bytes;
+                    int width;
+                    if (ch == 0)
+                    {
+                        bytes = 0xFF;
+                        width = 2;
+                    }
+                    else if (ch < 0x80)
+                    {
+                        bytes = ch;
+                        width = 1;
+                    }
+                    else if (ch < 0x800)
+                    {
+                        bytes = ((0xC0 | (ch >> 6)) << 8) | (0x80 | (ch & 0x3F));
+                        width = 2;
+                    }
+                    else
                     {
-                        return compareRest.comparable(r1).compareTo(r2);
+                        bytes = ((0xE0 | (ch >> 12)) << 16) | ((0x80 | ((ch >> 6) & 0x3F)) << 8) | (0x80 | (ch & 0x3F));
+                        width = 3;
                     }
-                    return -1;
+                    abbreviation = place(abbreviation, free, bytes, width);
+                    free = Math.max(free - width * 8, 0);
                 }
-                else if (f2 == null)
+                if (free != 0)
                 {
-                    return 1;
+                    // The terminating zero byte is already in place.
+                    free -= 8;
                 }
-                int compare = f1.compareTo(v2.get());
-                if (compare == 0)
+            }
+            else
+            {
+                byte type;
+                long bytes;
+                int width;
+                if (member instanceof Integer)
                 {
-                    return compareRest.comparable(r1).compareTo(r2);
+                    type = Keys.INTEGER;
+                    bytes = ((Integer) member).intValue() ^ Integer.MIN_VALUE;
+                    width = 4;
                 }
-                return compare;
+                else if (member instanceof Long)
+                {
+                    type = Keys.LONG;
+                    bytes = ((Long) member).longValue() ^ Long.MIN_VALUE;
+                    width = 8;
+                }
+                else if (member instanceof Double)
+                {
+                    type = Keys.DOUBLE;
+                    bytes = Keys.toSortable(((Double) member).doubleValue());
+                    width = 8;
+                }
+                else if (member instanceof Float)
+                {
+                    type = Keys.FLOAT;
+                    bytes = Keys.toSortable(((Float) member).floatValue());
+                    width = 4;
+                }
+                else if (member instanceof Short)
+                {
+                    type = Keys.SHORT;
+                    bytes = ((Short) member).shortValue() ^ Short.MIN_VALUE;
+                    width = 2;
+                }
+                else if (member instanceof Character)
+                {
+                    type = Keys.CHARACTER;
+                    bytes = ((Character) member).charValue();
+                    width = 2;
+                }
+                else if (member instanceof Byte)
+                {
+                    type = Keys.BYTE;
+                    bytes = ((Byte) member).byteValue() ^ Byte.MIN_VALUE;
+                    width = 1;
+                }
+                else
+                {
+                    type = Keys.BOOLEAN;
+                    bytes = ((Boolean) member).booleanValue() ? 1 : 0;
+                    width = 1;
+                }
+                abbreviation = place(abbreviation, free, type, 1);
+                free -= 8;
+                abbreviation = place(abbreviation, free, bytes, width);
+                free = Math.max(free - width * 8, 0);
             }
-        };
+            if (i + 1 < plan.length)
+            {
+                t = (Tuple<?, ?>) Tuples.rest(t);
+            }
+        }
+        return abbreviation ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Place the given number of low order bytes of the given value in the
+     * abbreviation after the bytes already placed, dropping the bytes that do
+     * not fit.
+     * 
+     * @param abbreviation
+     *            The abbreviation.
+     * @param free
+     *            The number of bits not yet placed in the abbreviation.
+     * @param bytes
+     *            The bytes to place in the low order bytes of a long.
+     * @param width
+     *            The number of bytes to place.
+     * @return The abbreviation with the bytes placed.
+     */
+    private static long place(long abbreviation, int free, long bytes, int width)
+    {
+        if (free == 0)
+        {
+            return abbreviation;
+        }
+        int bits = width * 8;
+        long value = bits == 64 ? bytes : bytes & ((1L << bits) - 1);
+        if (bits <= free)
+        {
+            return abbreviation | (value << (free - bits));
+        }
+        return abbreviation | (value >>> (bits - free));
+    }
+
+    /**
+     * Determine whether this step compares members as non-null primitives in
+     * their natural order, so that a null member is an error rather than
+     * placed by the null placement of the step.
+     * 
+     * @return True if members are compared as non-null primitives.
+     */
+    boolean primitive()
+    {
+        return false;
+    }
+
+    /**
+     * Compare two tuple members according to the direction and null placement
+     * of this step.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         member is ordered before, the same as, or after the right member.
+     */
+    @SuppressWarnings("unchecked")
+    int compareMember(Object left, Object right)
+    {
+        if (left == null)
+        {
+            return right == null ? 0 : nullsLast ? 1 : -1;
+        }
+        else if (right == null)
+        {
+            return nullsLast ? -1 : 1;
+        }
+        else if (descending)
+        {
+            return ((First) right).compareTo((First) left);
+        }
+        return ((First) left).compareTo((First) right);
     }
 }
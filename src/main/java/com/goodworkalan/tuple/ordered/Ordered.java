@@ -23,12 +23,30 @@ import com.mallardsoft.tuple.Tuple;
  */
 public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
 {
+    /**
+     * The shared tuple comparisons indexed by arity. The comparisons are
+     * stateless, so a single chain serves every tuple of a given arity.
+     */
+    private final static Order<?, ?>[] CHAINS = chains(10);
+
     /** The object to order. */
     private final T tuple;
     
-    /** The comparable that orders other objects in relation to this object. */
+    /**
+     * The comparable that orders other objects in relation to this object, or
+     * null if the object is ordered by a shared tuple comparison.
+     */
     private final Comparable<? super T> comparable;
 
+    /**
+     * The shared tuple comparison that orders other objects in relation to
+     * this object, or null if the object is ordered by a comparable.
+     */
+    private final ComparableServer<? super T> order;
+
+    /** The cached hash code of the tuple members, or zero if not calculated. */
+    private int hashCode;
+
     /**
      * Create a container that maps the given object to the given strategy for
      * ordering other objects in relation to the object.
@@ -42,6 +60,62 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
     {
         this.tuple = object;
         this.comparable = comparable;
+        this.order = null;
+    }
+
+    /**
+     * Create a container that maps the given object to the given shared
+     * strategy for ordering other objects in relation to the object.
+     * 
+     * @param object
+     *            The object.
+     * @param order
+     *            A shared comparison for objects of the type.
+     */
+    Ordered(T object, ComparableServer<? super T> order)
+    {
+        this.tuple = object;
+        this.comparable = null;
+        this.order = order;
+    }
+
+    /**
+     * Build the shared tuple comparisons for tuples of one member up to tuples
+     * of the given number of members.
+     * 
+     * @param arity
+     *            The largest tuple arity.
+     * @return An array of tuple comparisons indexed by arity.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Order<?, ?>[] chains(int arity)
+    {
+        Order<?, ?>[] chains = new Order<?, ?>[arity + 1];
+        Order order = Order.last();
+        chains[1] = order;
+        for (int i = 2; i <= arity; i++)
+        {
+            order = order.prepend();
+            chains[i] = order;
+        }
+        return chains;
+    }
+
+    /**
+     * Get the shared tuple comparison for tuples of the given arity.
+     * 
+     * @param <First>
+     *            The type of the first tuple member.
+     * @param <Rest>
+     *            The type of the remainder of the tuple.
+     * @param arity
+     *            The tuple arity.
+     * @return The shared tuple comparison.
+     */
+    @SuppressWarnings("unchecked")
+    static <First extends Comparable<First>, Rest> Order<First, Rest> chain(int arity)
+    {
+        return (Order<First, Rest>) CHAINS[arity];
     }
     
     /**
@@ -62,9 +136,154 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
      */
     public int compareTo(Ordered<T> o)
     {
+        if (o instanceof PrefixBound<?>)
+        {
+            return -o.compareTo(this);
+        }
+        if (order != null)
+        {
+            return order.compare(tuple, o.tuple);
+        }
         return comparable.compareTo(o.getTuple());
     }
 
+    /**
+     * Determine whether the given object is an ordered tuple of the same tuple
+     * type whose members are equal to the members of this ordered tuple.
+     * Members are compared with their <code>equals</code> methods, so that
+     * equality is consistent with the hash code and never throws an exception
+     * for members of different types. Equality is consistent with the ordering
+     * when the <code>compareTo</code> methods of the tuple members are
+     * consistent with their <code>equals</code> methods.
+     * 
+     * @param object
+     *            The object to compare.
+     * @return True if the object is an equal ordered tuple.
+     */
+    public boolean equals(Object object)
+    {
+        if (object == this)
+        {
+            return true;
+        }
+        if (object instanceof Ordered<?> && !(object instanceof PrefixBound<?>))
+        {
+            Ordered<?> other = (Ordered<?>) object;
+            if (tuple.getClass() != other.tuple.getClass())
+            {
+                return false;
+            }
+            Object left = tuple;
+            Object right = other.tuple;
+            while (left instanceof Tuple<?, ?> && right instanceof Tuple<?, ?>)
+            {
+                Object l = Tuples.first((Tuple<?, ?>) left);
+                Object r = Tuples.first((Tuple<?, ?>) right);
+                if (l == null ? r != null : !l.equals(r))
+                {
+                    return false;
+                }
+                left = Tuples.rest((Tuple<?, ?>) left);
+                right = Tuples.rest((Tuple<?, ?>) right);
+            }
+            return !(left instanceof Tuple<?, ?>) && !(right instanceof Tuple<?, ?>);
+        }
+        return false;
+    }
+
+    /**
+     * Get a hash code derived from the hash codes of the tuple members. The
+     * hash code is calculated the first time it is requested and cached.
+     * 
+     * @return The hash code.
+     */
+    public int hashCode()
+    {
+        int hash = hashCode;
+        if (hash == 0)
+        {
+            Object rest = tuple;
+            while (rest instanceof Tuple<?, ?>)
+            {
+                Tuple<?, ?> remaining = (Tuple<?, ?>) rest;
+                Object member = Tuples.first(remaining);
+                hash = 31 * hash + (member == null ? 0 : member.hashCode());
+                rest = Tuples.rest(remaining);
+            }
+            hashCode = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Create an ordered tuple that will compare the given tuple against other
+     * tuples of the same type using the given tuple comparison. The tuple
+     * comparison is shared, so only the ordered tuple is allocated.
+     * 
+     * @param <First>
+     *            The type of the first tuple member.
+     * @param <Rest>
+     *            The type of the remainder of the tuple.
+     * @param <T>
+     *            The type of tuple.
+     * @param tuple
+     *            The tuple.
+     * @param order
+     *            The tuple comparison.
+     * @return An ordered tuple from the given tuple.
+     */
+    public static <First extends Comparable<First>, Rest, T extends Tuple<First, Rest>> Ordered<T> order(T tuple, Order<First, Rest> order)
+    {
+        return new Ordered<T>(tuple, order);
+    }
+
+    /**
+     * Create an ordered tuple that caches an abbreviated key of the leading
+     * members of the given tuple, so that comparisons with other abbreviated
+     * ordered tuples are decided by a single primitive comparison unless the
+     * leading members tie. The tuple is ordered ascending with nulls first,
+     * the same as the <code>order</code> method for its arity.
+     * <p>
+     * The abbreviated key is the first eight bytes of the binary key described
+     * by {@link Keys}, so it is effective when the leading members are
+     * numbers or strings that differ in their first few characters.
+     * 
+     * @param <T>
+     *            The type of tuple.
+     * @param tuple
+     *            The tuple.
+     * @return An abbreviated ordered tuple.
+     */
+    public static <T extends Tuple<?, ?>> Ordered<T> abbreviate(T tuple)
+    {
+        return new AbbreviatedOrdered<T>(tuple, CHAINS[Tuples.arity(tuple)]);
+    }
+
+    /**
+     * Create an ordered tuple that caches an abbreviated key of the leading
+     * members of the given tuple and compares tuples using the given tuple
+     * comparison. Leading members are abbreviated up to the first descending
+     * or nulls last step. Members of primitive steps, created with methods
+     * such as {@link Order#prependLong()}, are abbreviated without a type
+     * byte, so a leading <code>long</code> uses all eight bytes.
+     * 
+     * @param <First>
+     *            The type of the first tuple member.
+     * @param <Rest>
+     *            The type of the remainder of the tuple.
+     * @param <T>
+     *            The type of tuple.
+     * @param tuple
+     *            The tuple.
+     * @param order
+     *            The tuple comparison.
+     * @return An abbreviated ordered tuple.
+     */
+    public static <First extends Comparable<First>, Rest, T extends Tuple<First, Rest>> Ordered<T> abbreviate(T tuple, Order<First, Rest> order)
+    {
+        return new AbbreviatedOrdered<T>(tuple, order);
+    }
+
     /**
      * Create an ordered tuple that will compare the given <code>Single</code>
      * tuple against other <code>Single</code> tuples.
@@ -77,8 +296,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
      */
     public static <A extends Comparable<A>> Ordered<Single<A>> order(Single<A> single)
     {
-        Order<A, End> order = Order.<A>last();
-        return new Ordered<Single<A>>(single, order.comparable(single));
+        Order<A, End> order = chain(1);
+        return new Ordered<Single<A>>(single, order);
     }
 
     /**
@@ -95,8 +314,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
      */
     public static <A extends Comparable<A>, B extends Comparable<B>> Ordered<Pair<A, B>> order(Pair<A, B> pair)
     {
-        Order<A, Tuple<B, End>> order = Order.<B>last().<A>prepend();
-        return new Ordered<Pair<A, B>>(pair, order.comparable(pair));
+        Order<A, Tuple<B, End>> order = chain(2);
+        return new Ordered<Pair<A, B>>(pair, order);
     }
     
     /**
@@ -119,8 +338,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
         C extends Comparable<C>
     > Ordered<Triple<A, B, C>> order(Triple<A, B, C> triple)
     {
-        Order<A, Tuple<B, Tuple<C, End>>> order = Order.<C>last().<B>prepend().<A>prepend();
-        return new Ordered<Triple<A, B, C>>(triple, order.comparable(triple));
+        Order<A, Tuple<B, Tuple<C, End>>> order = chain(3);
+        return new Ordered<Triple<A, B, C>>(triple, order);
     }
 
     /**
@@ -146,8 +365,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
         D extends Comparable<D>
     > Ordered<Quadruple<A, B, C, D>> order(Quadruple<A, B, C, D> quadruple)
     {
-        Order<A, Tuple<B, Tuple<C, Tuple<D, End>>>> order = Order.<D>last().<C>prepend().<B>prepend().<A>prepend();
-        return new Ordered<Quadruple<A, B, C, D>>(quadruple, order.comparable(quadruple));
+        Order<A, Tuple<B, Tuple<C, Tuple<D, End>>>> order = chain(4);
+        return new Ordered<Quadruple<A, B, C, D>>(quadruple, order);
     }
 
     /**
@@ -176,8 +395,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
         E extends Comparable<E>
     > Ordered<Quintuple<A, B, C, D, E>> order(Quintuple<A, B, C, D, E> quintuple)
     {
-        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, End>>>>> order = Order.<E>last().<D>prepend().<C>prepend().<B>prepend().<A>prepend();
-        return new Ordered<Quintuple<A, B, C, D, E>>(quintuple, order.comparable(quintuple));
+        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, End>>>>> order = chain(5);
+        return new Ordered<Quintuple<A, B, C, D, E>>(quintuple, order);
     }
 
     /**
@@ -209,8 +428,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
         F extends Comparable<F>
     > Ordered<Sextuple<A, B, C, D, E, F>> order(Sextuple<A, B, C, D, E, F> sextuple)
     {
-        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, End>>>>>> order = Order.<F>last().<E>prepend().<D>prepend().<C>prepend().<B>prepend().<A>prepend();
-        return new Ordered<Sextuple<A, B, C, D, E, F>>(sextuple, order.comparable(sextuple));
+        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, End>>>>>> order = chain(6);
+        return new Ordered<Sextuple<A, B, C, D, E, F>>(sextuple, order);
     }
 
     /**
@@ -245,8 +464,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
         G extends Comparable<G>
     > Ordered<Septuple<A, B, C, D, E, F, G>> order(Septuple<A, B, C, D, E, F, G> septuple)
     {
-        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, Tuple<G, End>>>>>>> order = Order.<G>last().<F>prepend().<E>prepend().<D>prepend().<C>prepend().<B>prepend().<A>prepend();
-        return new Ordered<Septuple<A, B, C, D, E, F, G>>(septuple, order.comparable(septuple));
+        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, Tuple<G, End>>>>>>> order = chain(7);
+        return new Ordered<Septuple<A, B, C, D, E, F, G>>(septuple, order);
     }
 
     /**
@@ -284,8 +503,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
         H extends Comparable<H>
     > Ordered<Octuple<A, B, C, D, E, F, G, H>> order(Octuple<A, B, C, D, E, F, G, H> octuple)
     {
-        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, Tuple<G, Tuple<H, End>>>>>>>> order = Order.<H>last().<G>prepend().<F>prepend().<E>prepend().<D>prepend().<C>prepend().<B>prepend().<A>prepend();
-        return new Ordered<Octuple<A, B, C, D, E, F, G, H>>(octuple, order.comparable(octuple));
+        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, Tuple<G, Tuple<H, End>>>>>>>> order = chain(8);
+        return new Ordered<Octuple<A, B, C, D, E, F, G, H>>(octuple, order);
     }
 
     /**
@@ -326,8 +545,8 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
         I extends Comparable<I>
     > Ordered<Nonuple<A, B, C, D, E, F, G, H, I>> order(Nonuple<A, B, C, D, E, F, G, H, I> nonuple)
     {
-        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, Tuple<G, Tuple<H, Tuple<I, End>>>>>>>>> order = Order.<I>last().<H>prepend().<G>prepend().<F>prepend().<E>prepend().<D>prepend().<C>prepend().<B>prepend().<A>prepend();
-        return new Ordered<Nonuple<A, B, C, D, E, F, G, H, I>>(nonuple, order.comparable(nonuple));
+        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, Tuple<G, Tuple<H, Tuple<I, End>>>>>>>>> order = chain(9);
+        return new Ordered<Nonuple<A, B, C, D, E, F, G, H, I>>(nonuple, order);
     }
     
     /**
@@ -371,7 +590,7 @@ public class Ordered<T extends Tuple<?, ?>> implements Comparable<Ordered<T>>
         J extends Comparable<J>
     > Ordered<Decuple<A, B, C, D, E, F, G, H, I, J>> order(Decuple<A, B, C, D, E, F, G, H, I, J> decuple)
     {
-        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, Tuple<G, Tuple<H, Tuple<I, Tuple<J, End>>>>>>>>>> order = Order.<J>last().<I>prepend().<H>prepend().<G>prepend().<F>prepend().<E>prepend().<D>prepend().<C>prepend().<B>prepend().<A>prepend();
-        return new Ordered<Decuple<A, B, C, D, E, F, G, H, I, J>>(decuple, order.comparable(decuple));
+        Order<A, Tuple<B, Tuple<C, Tuple<D, Tuple<E, Tuple<F, Tuple<G, Tuple<H, Tuple<I, Tuple<J, End>>>>>>>>>> order = chain(10);
+        return new Ordered<Decuple<A, B, C, D, E, F, G, H, I, J>>(decuple, order);
     }
 }
@@ -0,0 +1,513 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * A stable parallel merge sort for large arrays of tuples or ordered tuples
+ * that runs in a fork/join pool.
+ * <p>
+ * Ranges smaller than the threshold are sorted with the stable sequential
+ * sort of <code>Arrays.sort</code>. Larger ranges are split in half, the halves
+ * are sorted in parallel and then merged in parallel, alternating between the
+ * array and a scratch array of the same length so that no range is copied
+ * back after a merge. Because every step is stable, the result is identical to
+ * a sequential stable sort with the same comparator.
+ * <p>
+ * A sort can optionally precompute the binary key of each tuple with
+ * {@link Keys} and compare the keys as unsigned bytes instead of walking the
+ * tuple comparison, which gives the order of {@link Ordered} tuples for the
+ * member types that binary keys support.
+ *
+ * @author Alan Gutierrez
+ */
+public class ParallelSort
+{
+    /** The default size below which a range is sorted sequentially. */
+    public final static int DEFAULT_THRESHOLD = 8192;
+
+    /** The pool in which to run the sort. */
+    private final ForkJoinPool pool;
+
+    /** The size below which a range is sorted or merged sequentially. */
+    private final int threshold;
+
+    /**
+     * Create a parallel sort that runs in the common fork/join pool and uses
+     * the default sequential threshold.
+     */
+    public ParallelSort()
+    {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Create a parallel sort that runs in the given fork/join pool and sorts
+     * ranges smaller than the given threshold sequentially. The pool is owned
+     * by the caller, who is responsible for shutting it down.
+     *
+     * @param pool
+     *            The fork/join pool.
+     * @param threshold
+     *            The size below which a range is sorted or merged
+     *            sequentially.
+     * @exception IllegalArgumentException
+     *                If the threshold is less than one.
+     */
+    public ParallelSort(ForkJoinPool pool, int threshold)
+    {
+        if (threshold < 1)
+        {
+            throw new IllegalArgumentException("Threshold must be at least one.");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Sort the given array of comparable objects, such as ordered tuples, into
+     * their natural order.
+     *
+     * @param <T>
+     *            The type of object to sort.
+     * @param array
+     *            The array to sort.
+     */
+    public <T extends Comparable<? super T>> void sort(T[] array)
+    {
+        sort(array, new Comparator<T>()
+        {
+            public int compare(T left, T right)
+            {
+                return left.compareTo(right);
+            }
+        });
+    }
+
+    /**
+     * Sort the given array with the given comparator, such as a
+     * {@link TupleComparator}.
+     *
+     * @param <T>
+     *            The type of object to sort.
+     * @param array
+     *            The array to sort.
+     * @param comparator
+     *            The comparator.
+     */
+    public <T> void sort(T[] array, Comparator<? super T> comparator)
+    {
+        if (array.length <= threshold)
+        {
+            Arrays.sort(array, comparator);
+        }
+        else
+        {
+            T[] scratch = Arrays.copyOf(array, array.length);
+            pool.invoke(new Sort<T>(array, scratch, 0, array.length, false, comparator, threshold));
+        }
+    }
+
+    /**
+     * Sort the given array of tuples into the order of {@link Ordered} tuples
+     * by first encoding each tuple as a binary key and then sorting the binary
+     * keys.
+     *
+     * @param <T>
+     *            The type of tuple to sort.
+     * @param tuples
+     *            The tuples to sort.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded in a binary key.
+     */
+    public <T extends Tuple<?, ?>> void sortByKeys(T[] tuples)
+    {
+        final Keyed[] keyed = new Keyed[tuples.length];
+        pool.invoke(new Encode(tuples, keyed, 0, tuples.length, threshold));
+        sort(keyed, new Comparator<Keyed>()
+        {
+            public int compare(Keyed left, Keyed right)
+            {
+                return Keys.compare(left.key, right.key);
+            }
+        });
+        for (int i = 0; i < keyed.length; i++)
+        {
+            @SuppressWarnings("unchecked")
+            T tuple = (T) keyed[i].tuple;
+            tuples[i] = tuple;
+        }
+    }
+
+    /**
+     * A tuple paired with its binary key.
+     */
+    private final static class Keyed
+    {
+        /** The binary key. */
+        public final byte[] key;
+
+        /** The tuple. */
+        public final Object tuple;
+
+        /**
+         * Create a tuple paired with its binary key.
+         *
+         * @param key
+         *            The binary key.
+         * @param tuple
+         *            The tuple.
+         */
+        public Keyed(byte[] key, Object tuple)
+        {
+            this.key = key;
+            this.tuple = tuple;
+        }
+    }
+
+    /**
+     * A task that encodes a range of tuples as binary keys.
+     */
+    private final static class Encode extends RecursiveAction
+    {
+        /** The serial version id. */
+        private static final long serialVersionUID = 1L;
+
+        /** The tuples. */
+        private final Tuple<?, ?>[] tuples;
+
+        /** The array of keyed tuples to fill. */
+        private final Keyed[] keyed;
+
+        /** The start of the range. */
+        private final int lo;
+
+        /** The end of the range. */
+        private final int hi;
+
+        /** The size below which a range is encoded sequentially. */
+        private final int threshold;
+
+        /**
+         * Create a task that encodes a range of tuples.
+         *
+         * @param tuples
+         *            The tuples.
+         * @param keyed
+         *            The array of keyed tuples to fill.
+         * @param lo
+         *            The start of the range.
+         * @param hi
+         *            The end of the range.
+         * @param threshold
+         *            The size below which a range is encoded sequentially.
+         */
+        public Encode(Tuple<?, ?>[] tuples, Keyed[] keyed, int lo, int hi, int threshold)
+        {
+            this.tuples = tuples;
+            this.keyed = keyed;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        /** Encode the range of tuples. */
+        protected void compute()
+        {
+            if (hi - lo <= threshold)
+            {
+                for (int i = lo; i < hi; i++)
+                {
+                    keyed[i] = new Keyed(Keys.encode(tuples[i]), tuples[i]);
+                }
+            }
+            else
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Encode(tuples, keyed, lo, mid, threshold), new Encode(tuples, keyed, mid, hi, threshold));
+            }
+        }
+    }
+
+    /**
+     * A task that sorts a range of an array, leaving the sorted range in
+     * either the array or the scratch array.
+     *
+     * @param <T>
+     *            The type of object to sort.
+     */
+    private final static class Sort<T> extends RecursiveAction
+    {
+        /** The serial version id. */
+        private static final long serialVersionUID = 1L;
+
+        /** The array that holds the unsorted objects. */
+        private final T[] array;
+
+        /** The scratch array, a copy of the array. */
+        private final T[] scratch;
+
+        /** The start of the range. */
+        private final int lo;
+
+        /** The end of the range. */
+        private final int hi;
+
+        /** Whether to leave the sorted range in the scratch array. */
+        private final boolean intoScratch;
+
+        /** The comparator. */
+        private final Comparator<? super T> comparator;
+
+        /** The size below which a range is sorted sequentially. */
+        private final int threshold;
+
+        /**
+         * Create a task that sorts a range of an array.
+         *
+         * @param array
+         *            The array that holds the unsorted objects.
+         * @param scratch
+         *            The scratch array, a copy of the array.
+         * @param lo
+         *            The start of the range.
+         * @param hi
+         *            The end of the range.
+         * @param intoScratch
+         *            Whether to leave the sorted range in the scratch array.
+         * @param comparator
+         *            The comparator.
+         * @param threshold
+         *            The size below which a range is sorted sequentially.
+         */
+        public Sort(T[] array, T[] scratch, int lo, int hi, boolean intoScratch, Comparator<? super T> comparator, int threshold)
+        {
+            this.array = array;
+            this.scratch = scratch;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoScratch = intoScratch;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+
+        /** Sort the range. */
+        protected void compute()
+        {
+            if (hi - lo <= threshold)
+            {
+                T[] target = intoScratch ? scratch : array;
+                Arrays.sort(target, lo, hi, comparator);
+            }
+            else
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Sort<T>(array, scratch, lo, mid, !intoScratch, comparator, threshold),
+                          new Sort<T>(array, scratch, mid, hi, !intoScratch, comparator, threshold));
+                T[] source = intoScratch ? array : scratch;
+                T[] target = intoScratch ? scratch : array;
+                new Merge<T>(source, lo, mid, mid, hi, target, lo, comparator, threshold).compute();
+            }
+        }
+    }
+
+    /**
+     * A task that merges two adjacent sorted runs into a target array,
+     * preferring the left run when elements are equal.
+     *
+     * @param <T>
+     *            The type of object to merge.
+     */
+    private final static class Merge<T> extends RecursiveAction
+    {
+        /** The serial version id. */
+        private static final long serialVersionUID = 1L;
+
+        /** The array that holds the runs. */
+        private final T[] source;
+
+        /** The start of the left run. */
+        private final int leftLo;
+
+        /** The end of the left run. */
+        private final int leftHi;
+
+        /** The start of the right run. */
+        private final int rightLo;
+
+        /** The end of the right run. */
+        private final int rightHi;
+
+        /** The target array. */
+        private final T[] target;
+
+        /** The position in the target array of the first merged element. */
+        private final int to;
+
+        /** The comparator. */
+        private final Comparator<? super T> comparator;
+
+        /** The size below which runs are merged sequentially. */
+        private final int threshold;
+
+        /**
+         * Create a task that merges two sorted runs.
+         *
+         * @param source
+         *            The array that holds the runs.
+         * @param leftLo
+         *            The start of the left run.
+         * @param leftHi
+         *            The end of the left run.
+         * @param rightLo
+         *            The start of the right run.
+         * @param rightHi
+         *            The end of the right run.
+         * @param target
+         *            The target array.
+         * @param to
+         *            The position in the target array of the first merged
+         *            element.
+         * @param comparator
+         *            The comparator.
+         * @param threshold
+         *            The size below which runs are merged sequentially.
+         */
+        public Merge(T[] source, int leftLo, int leftHi, int rightLo, int rightHi, T[] target, int to, Comparator<? super T> comparator, int threshold)
+        {
+            this.source = source;
+            this.leftLo = leftLo;
+            this.leftHi = leftHi;
+            this.rightLo = rightLo;
+            this.rightHi = rightHi;
+            this.target = target;
+            this.to = to;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Merge the runs, splitting the larger run at its midpoint and the
+         * smaller run at the matching position when the runs are large.
+         */
+        protected void compute()
+        {
+            int leftSize = leftHi - leftLo;
+            int rightSize = rightHi - rightLo;
+            if (leftSize + rightSize <= threshold || leftSize == 0 || rightSize == 0)
+            {
+                merge();
+            }
+            else if (leftSize >= rightSize)
+            {
+                int leftMid = (leftLo + leftHi) >>> 1;
+                int rightMid = lowerBound(source[leftMid], rightLo, rightHi);
+                split(leftMid, rightMid);
+            }
+            else
+            {
+                int rightMid = (rightLo + rightHi) >>> 1;
+                int leftMid = upperBound(source[rightMid], leftLo, leftHi);
+                split(leftMid, rightMid);
+            }
+        }
+
+        /**
+         * Merge the runs in two parallel halves split at the given positions.
+         *
+         * @param leftMid
+         *            The split position in the left run.
+         * @param rightMid
+         *            The split position in the right run.
+         */
+        private void split(int leftMid, int rightMid)
+        {
+            int mid = to + (leftMid - leftLo) + (rightMid - rightLo);
+            invokeAll(new Merge<T>(source, leftLo, leftMid, rightLo, rightMid, target, to, comparator, threshold),
+                      new Merge<T>(source, leftMid, leftHi, rightMid, rightHi, target, mid, comparator, threshold));
+        }
+
+        /**
+         * Find the first position in the given range of the source array whose
+         * element is not less than the given element.
+         *
+         * @param element
+         *            The element.
+         * @param lo
+         *            The start of the range.
+         * @param hi
+         *            The end of the range.
+         * @return The lower bound of the element.
+         */
+        private int lowerBound(T element, int lo, int hi)
+        {
+            while (lo < hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (comparator.compare(source[mid], element) < 0)
+                {
+                    lo = mid + 1;
+                }
+                else
+                {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Find the first position in the given range of the source array whose
+         * element is greater than the given element.
+         *
+         * @param element
+         *            The element.
+         * @param lo
+         *            The start of the range.
+         * @param hi
+         *            The end of the range.
+         * @return The upper bound of the element.
+         */
+        private int upperBound(T element, int lo, int hi)
+        {
+            while (lo < hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (comparator.compare(source[mid], element) <= 0)
+                {
+                    lo = mid + 1;
+                }
+                else
+                {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /** Merge the runs sequentially. */
+        private void merge()
+        {
+            int l = leftLo;
+            int r = rightLo;
+            int t = to;
+            while (l < leftHi && r < rightHi)
+            {
+                if (comparator.compare(source[r], source[l]) < 0)
+                {
+                    target[t++] = source[r++];
+                }
+                else
+                {
+                    target[t++] = source[l++];
+                }
+            }
+            System.arraycopy(source, l, target, t, leftHi - l);
+            System.arraycopy(source, r, target, t + leftHi - l, rightHi - r);
+        }
+    }
+}
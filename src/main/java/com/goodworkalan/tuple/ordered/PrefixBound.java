@@ -0,0 +1,118 @@
+package com.goodworkalan.tuple.ordered;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * An ordered tuple that stands in for the least or greatest of the tuples that
+ * begin with a prefix. A prefix bound is used as the end point of a range in a
+ * sorted set or map of tuples so that every tuple beginning with the prefix
+ * falls between the lower and the upper bound.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple in the sorted set or map.
+ */
+final class PrefixBound<T extends Tuple<?, ?>> extends Ordered<T>
+{
+    /** The prefix. */
+    private final Tuple<?, ?> prefix;
+
+    /** The tuple comparison used to compare tuples against the prefix. */
+    private final Order<?, ?> order;
+
+    /**
+     * Negative one if this bound is before all the tuples that begin with the
+     * prefix, positive one if this bound is after them.
+     */
+    private final int side;
+
+    /**
+     * Create a prefix bound.
+     * 
+     * @param prefix
+     *            The prefix.
+     * @param order
+     *            The tuple comparison used to compare tuples against the
+     *            prefix.
+     * @param upper
+     *            If true, the bound is after all of the tuples that begin with
+     *            the prefix, otherwise it is before them.
+     */
+    public PrefixBound(Tuple<?, ?> prefix, Order<?, ?> order, boolean upper)
+    {
+        super(null, (ComparableServer<? super T>) null);
+        this.prefix = prefix;
+        this.order = order;
+        this.side = upper ? 1 : -1;
+    }
+
+    /**
+     * Compare this bound to the given ordered tuple or bound.
+     * 
+     * @param o
+     *            An ordered tuple or a prefix bound.
+     * @return Negative one if this bound is before the ordered tuple, positive
+     *         one if it is after.
+     */
+    public int compareTo(Ordered<T> o)
+    {
+        return compareToObject(o);
+    }
+
+    /**
+     * Compare this bound to the given tuple, ordered tuple or bound.
+     * <p>
+     * Two bounds are compared by the members their prefixes share. If those
+     * are equal but one prefix is shorter, the range of the shorter prefix
+     * contains the range of the longer one, so the bound of the shorter
+     * prefix is outside the bound of the longer prefix.
+     * 
+     * @param other
+     *            A tuple, an ordered tuple or a prefix bound.
+     * @return Negative one if this bound is before the other object, zero if
+     *         the other object is an identical bound, positive one if this
+     *         bound is after the other object.
+     */
+    public int compareToObject(Object other)
+    {
+        if (other instanceof PrefixBound<?>)
+        {
+            PrefixBound<?> bound = (PrefixBound<?>) other;
+            int compare = order.comparePrefixes(prefix, bound.prefix);
+            if (compare == 0)
+            {
+                int arity = Tuples.arity(prefix);
+                int otherArity = Tuples.arity(bound.prefix);
+                compare = arity < otherArity ? side : arity > otherArity ? -bound.side : side - bound.side;
+            }
+            return compare < 0 ? -1 : compare > 0 ? 1 : 0;
+        }
+        Tuple<?, ?> tuple = (Tuple<?, ?>) (other instanceof Ordered<?> ? ((Ordered<?>) other).getTuple() : other);
+        int compare = order.comparePrefixes(tuple, prefix);
+        return compare < 0 ? 1 : compare > 0 ? -1 : side;
+    }
+
+    /**
+     * Determine whether the given object is this bound. Bounds are only equal
+     * to themselves.
+     * 
+     * @param object
+     *            The object to compare.
+     * @return True if the object is this bound.
+     */
+    public boolean equals(Object object)
+    {
+        return object == this;
+    }
+
+    /**
+     * Get the identity hash code of this bound.
+     * 
+     * @return The identity hash code.
+     */
+    public int hashCode()
+    {
+        return System.identityHashCode(this);
+    }
+}
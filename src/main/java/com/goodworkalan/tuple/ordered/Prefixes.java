@@ -0,0 +1,162 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Comparator;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Static methods that create views of the tuples in a sorted set or map that
+ * begin with a given prefix.
+ * <p>
+ * The views are bounded by prefix bounds that sort before and after every tuple
+ * that begins with the prefix, so no sentinel tuples need to be created and a
+ * range scan costs a single logarithmic seek followed by a walk of the
+ * matching tuples. The sorted set or map must contain {@link Ordered} tuples
+ * ordered by their natural order or tuples ordered by a
+ * {@link TupleComparator}.
+ *
+ * @author Alan Gutierrez
+ */
+public final class Prefixes
+{
+    /** Cannot be instantiated. */
+    private Prefixes()
+    {
+    }
+
+    /**
+     * Get a view of the elements of the given set that begin with the given
+     * prefix, comparing members with the tuple comparison of the set's tuple
+     * comparator, or ascending with nulls first if the set contains
+     * {@link Ordered} tuples.
+     *
+     * @param <E>
+     *            The type of element in the set.
+     * @param set
+     *            The sorted set.
+     * @param prefix
+     *            The prefix.
+     * @return A view of the elements of the set that begin with the prefix.
+     * @exception IllegalArgumentException
+     *                If the set is ordered by a comparator that is not a tuple
+     *                comparator.
+     */
+    public static <E> NavigableSet<E> subSet(NavigableSet<E> set, Tuple<?, ?> prefix)
+    {
+        return subSet(set, prefix, getOrder(set.comparator(), prefix));
+    }
+
+    /**
+     * Get a view of the elements of the given set that begin with the given
+     * prefix, comparing members with the given tuple comparison.
+     *
+     * @param <E>
+     *            The type of element in the set.
+     * @param set
+     *            The sorted set.
+     * @param prefix
+     *            The prefix.
+     * @param order
+     *            The tuple comparison used to order the set.
+     * @return A view of the elements of the set that begin with the prefix.
+     */
+    public static <E> NavigableSet<E> subSet(NavigableSet<E> set, Tuple<?, ?> prefix, Order<?, ?> order)
+    {
+        return set.subSet(Prefixes.<E>bound(prefix, order, false), true, Prefixes.<E>bound(prefix, order, true), true);
+    }
+
+    /**
+     * Get a view of the mappings of the given map whose keys begin with the
+     * given prefix, comparing members with the tuple comparison of the map's
+     * tuple comparator, or ascending with nulls first if the map is keyed by
+     * {@link Ordered} tuples.
+     *
+     * @param <K>
+     *            The type of key in the map.
+     * @param <V>
+     *            The type of value in the map.
+     * @param map
+     *            The sorted map.
+     * @param prefix
+     *            The prefix.
+     * @return A view of the mappings of the map whose keys begin with the
+     *         prefix.
+     * @exception IllegalArgumentException
+     *                If the map is ordered by a comparator that is not a tuple
+     *                comparator.
+     */
+    public static <K, V> NavigableMap<K, V> subMap(NavigableMap<K, V> map, Tuple<?, ?> prefix)
+    {
+        return subMap(map, prefix, getOrder(map.comparator(), prefix));
+    }
+
+    /**
+     * Get a view of the mappings of the given map whose keys begin with the
+     * given prefix, comparing members with the given tuple comparison.
+     *
+     * @param <K>
+     *            The type of key in the map.
+     * @param <V>
+     *            The type of value in the map.
+     * @param map
+     *            The sorted map.
+     * @param prefix
+     *            The prefix.
+     * @param order
+     *            The tuple comparison used to order the map.
+     * @return A view of the mappings of the map whose keys begin with the
+     *         prefix.
+     */
+    public static <K, V> NavigableMap<K, V> subMap(NavigableMap<K, V> map, Tuple<?, ?> prefix, Order<?, ?> order)
+    {
+        return map.subMap(Prefixes.<K>bound(prefix, order, false), true, Prefixes.<K>bound(prefix, order, true), true);
+    }
+
+    /**
+     * Get the tuple comparison to use to compare tuples against a prefix in a
+     * collection ordered by the given comparator.
+     *
+     * @param comparator
+     *            The comparator of the collection or null for natural order.
+     * @param prefix
+     *            The prefix.
+     * @return The tuple comparison.
+     * @exception IllegalArgumentException
+     *                If the comparator is not a tuple comparator.
+     */
+    private static Order<?, ?> getOrder(Comparator<?> comparator, Tuple<?, ?> prefix)
+    {
+        if (comparator == null)
+        {
+            return Ordered.chain(Tuples.arity(prefix));
+        }
+        if (comparator instanceof TupleComparator<?>)
+        {
+            return ((TupleComparator<?>) comparator).getOrder();
+        }
+        throw new IllegalArgumentException("Collection must be ordered by a tuple comparator.");
+    }
+
+    /**
+     * Create a prefix bound that can take the place of an element of a
+     * collection of ordered tuples or of tuples ordered by a tuple comparator.
+     *
+     * @param <E>
+     *            The type of element in the collection.
+     * @param prefix
+     *            The prefix.
+     * @param order
+     *            The tuple comparison used to order the collection.
+     * @param upper
+     *            If true, the bound is after all of the tuples that begin with
+     *            the prefix, otherwise it is before them.
+     * @return A prefix bound.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> E bound(Tuple<?, ?> prefix, Order<?, ?> order, boolean upper)
+    {
+        return (E) new PrefixBound<Tuple<?, ?>>(prefix, order, upper);
+    }
+}
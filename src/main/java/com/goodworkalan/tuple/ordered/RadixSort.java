@@ -0,0 +1,452 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * A stable least significant digit radix sort of tuples by their binary keys
+ * that orders tuples the same as {@link Ordered} tuples.
+ * <p>
+ * When every member of every tuple is a non-null number, character or
+ * boolean, or a dictionary code from a {@link StringDictionary}, the binary
+ * keys from {@link Keys} all have the same width and are written into a
+ * single byte array. The tuples are then sorted with one counting pass per
+ * key byte, from the last byte to the first, skipping bytes that are the same
+ * in every key, such as the type tags and the high bytes of small numbers.
+ * The sort examines each byte a fixed number of times instead of walking the
+ * tuple comparison <em>O(n log n)</em> times.
+ * <p>
+ * Tuples with strings, nulls or other members that do not have fixed-width
+ * keys, and arrays too small to benefit, are sorted with a stable comparison
+ * sort in the same order, so the result is always the order of ordered
+ * tuples, with equal tuples in their original order.
+ * <p>
+ * A radix sort created with a fork/join pool encodes keys and performs each
+ * counting pass in parallel, dividing the array into one chunk per thread.
+ *
+ * @author Alan Gutierrez
+ */
+public class RadixSort
+{
+    /** The default size below which a comparison sort is used. */
+    public final static int DEFAULT_THRESHOLD = 256;
+
+    /** The default size of a chunk processed by one task. */
+    public final static int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    /** The pool in which to run a parallel sort or null to sort sequentially. */
+    private final ForkJoinPool pool;
+
+    /** The size below which a comparison sort is used. */
+    private final int threshold;
+
+    /** The size of a chunk processed by one task. */
+    private final int chunkSize;
+
+    /**
+     * Create a sequential radix sort.
+     */
+    public RadixSort()
+    {
+        this(null, DEFAULT_THRESHOLD, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a parallel radix sort that runs in the given fork/join pool.
+     *
+     * @param pool
+     *            The fork/join pool.
+     */
+    public RadixSort(ForkJoinPool pool)
+    {
+        this(pool, DEFAULT_THRESHOLD, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a radix sort.
+     *
+     * @param pool
+     *            The fork/join pool or null to sort sequentially.
+     * @param threshold
+     *            The size below which a comparison sort is used.
+     * @param chunkSize
+     *            The size of a chunk processed by one task.
+     * @exception IllegalArgumentException
+     *                If the chunk size is less than one.
+     */
+    public RadixSort(ForkJoinPool pool, int threshold, int chunkSize)
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Chunk size must be at least one.");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Determine whether the members of the given tuple all have fixed-width
+     * binary keys.
+     *
+     * @param tuple
+     *            The tuple.
+     * @return True if every member has a fixed-width binary key.
+     */
+    static boolean fixed(Tuple<?, ?> tuple)
+    {
+        Object rest = tuple;
+        while (rest instanceof Tuple<?, ?>)
+        {
+            Object member = Tuples.first((Tuple<?, ?>) rest);
+            if (member == null || member instanceof String || !Keys.encodable(member))
+            {
+                return false;
+            }
+            rest = Tuples.rest((Tuple<?, ?>) rest);
+        }
+        return true;
+    }
+
+    /**
+     * Sort the given tuples into the order of ordered tuples.
+     *
+     * @param <T>
+     *            The type of tuple to sort.
+     * @param tuples
+     *            The tuples to sort.
+     */
+    public <T extends Tuple<?, ?>> void sort(T[] tuples)
+    {
+        int length = tuples.length;
+        if (length < 2)
+        {
+            return;
+        }
+        if (length < threshold || !fixed(tuples[0]))
+        {
+            fallback(tuples);
+            return;
+        }
+        int width = Keys.length(tuples[0]);
+        if ((long) length * width > Integer.MAX_VALUE - 8)
+        {
+            fallback(tuples);
+            return;
+        }
+        int chunks = pool == null ? 1 : (int) Math.min((length + (long) chunkSize - 1) / chunkSize, pool.getParallelism() * 4);
+        int[] bounds = new int[chunks + 1];
+        for (int i = 0; i <= chunks; i++)
+        {
+            bounds[i] = (int) ((long) length * i / chunks);
+        }
+        byte[] keys = new byte[length * width];
+        boolean[] failed = new boolean[chunks];
+        run(new Encode(tuples, keys, width, bounds, failed, 0, chunks));
+        for (boolean failure : failed)
+        {
+            if (failure)
+            {
+                fallback(tuples);
+                return;
+            }
+        }
+        int[] from = new int[length];
+        for (int i = 0; i < length; i++)
+        {
+            from[i] = i;
+        }
+        int[] to = new int[length];
+        int[][] counts = new int[chunks][256];
+        for (int position = width - 1; position >= 0; position--)
+        {
+            run(new Pass(keys, width, position, from, to, bounds, counts, false, 0, chunks));
+            if (offsets(counts, length))
+            {
+                run(new Pass(keys, width, position, from, to, bounds, counts, true, 0, chunks));
+                int[] swap = from;
+                from = to;
+                to = swap;
+            }
+        }
+        Object[] copy = tuples.clone();
+        for (int i = 0; i < length; i++)
+        {
+            @SuppressWarnings("unchecked")
+            T tuple = (T) copy[from[i]];
+            tuples[i] = tuple;
+        }
+    }
+
+    /**
+     * Convert the per chunk counts of each byte value into the offset at which
+     * each chunk writes its first index with each byte value, so that chunks
+     * are written in order and the pass is stable.
+     *
+     * @param counts
+     *            The count of each byte value in each chunk.
+     * @param length
+     *            The number of tuples.
+     * @return False if every key has the same byte value, so that the pass
+     *         would not change the order.
+     */
+    private static boolean offsets(int[][] counts, int length)
+    {
+        int offset = 0;
+        for (int b = 0; b < 256; b++)
+        {
+            int total = 0;
+            for (int[] count : counts)
+            {
+                total += count[b];
+            }
+            if (total == length)
+            {
+                return false;
+            }
+            for (int[] count : counts)
+            {
+                int next = offset + count[b];
+                count[b] = offset;
+                offset = next;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Run the given task in the pool, or in this thread if there is no pool.
+     *
+     * @param task
+     *            The task.
+     */
+    private void run(RecursiveAction task)
+    {
+        if (pool == null)
+        {
+            task.invoke();
+        }
+        else
+        {
+            pool.invoke(task);
+        }
+    }
+
+    /**
+     * Sort the given tuples with a stable comparison sort in the order of
+     * ordered tuples.
+     *
+     * @param <T>
+     *            The type of tuple to sort.
+     * @param tuples
+     *            The tuples to sort.
+     */
+    private <T extends Tuple<?, ?>> void fallback(T[] tuples)
+    {
+        TupleComparator<T> comparator = new TupleComparator<T>(Ordered.chain(Tuples.arity(tuples[0])));
+        if (pool == null)
+        {
+            Arrays.sort(tuples, comparator);
+        }
+        else
+        {
+            new ParallelSort(pool, ParallelSort.DEFAULT_THRESHOLD).sort(tuples, comparator);
+        }
+    }
+
+    /**
+     * A task that encodes the binary keys of a range of chunks of tuples into
+     * a single byte array, noting any chunk with a tuple whose key is not the
+     * fixed width.
+     */
+    private final static class Encode extends RecursiveAction
+    {
+        /** The serial version id. */
+        private static final long serialVersionUID = 1L;
+
+        /** The tuples. */
+        private final Tuple<?, ?>[] tuples;
+
+        /** The binary keys. */
+        private final byte[] keys;
+
+        /** The width of a binary key. */
+        private final int width;
+
+        /** The index of the first tuple of each chunk. */
+        private final int[] bounds;
+
+        /** Whether each chunk has a tuple whose key is not the fixed width. */
+        private final boolean[] failed;
+
+        /** The first chunk. */
+        private final int first;
+
+        /** The chunk after the last chunk. */
+        private final int last;
+
+        /**
+         * Create a task that encodes a range of chunks.
+         *
+         * @param tuples
+         *            The tuples.
+         * @param keys
+         *            The binary keys.
+         * @param width
+         *            The width of a binary key.
+         * @param bounds
+         *            The index of the first tuple of each chunk.
+         * @param failed
+         *            Whether each chunk has a tuple whose key is not the
+         *            fixed width.
+         * @param first
+         *            The first chunk.
+         * @param last
+         *            The chunk after the last chunk.
+         */
+        public Encode(Tuple<?, ?>[] tuples, byte[] keys, int width, int[] bounds, boolean[] failed, int first, int last)
+        {
+            this.tuples = tuples;
+            this.keys = keys;
+            this.width = width;
+            this.bounds = bounds;
+            this.failed = failed;
+            this.first = first;
+            this.last = last;
+        }
+
+        /** Encode the range of chunks. */
+        protected void compute()
+        {
+            if (last - first > 1)
+            {
+                int mid = (first + last) >>> 1;
+                invokeAll(new Encode(tuples, keys, width, bounds, failed, first, mid), new Encode(tuples, keys, width, bounds, failed, mid, last));
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(keys);
+            for (int i = bounds[first]; i < bounds[last]; i++)
+            {
+                if (!fixed(tuples[i]) || Keys.length(tuples[i]) != width)
+                {
+                    failed[first] = true;
+                    return;
+                }
+                buffer.limit(i * width + width).position(i * width);
+                Keys.encode(tuples[i], buffer);
+            }
+        }
+    }
+
+    /**
+     * A task that performs one half of a counting pass over a range of chunks,
+     * either counting the byte values at a key position or moving indexes to
+     * their offsets.
+     */
+    private final static class Pass extends RecursiveAction
+    {
+        /** The serial version id. */
+        private static final long serialVersionUID = 1L;
+
+        /** The binary keys. */
+        private final byte[] keys;
+
+        /** The width of a binary key. */
+        private final int width;
+
+        /** The key position. */
+        private final int position;
+
+        /** The tuple indexes in their current order. */
+        private final int[] from;
+
+        /** The tuple indexes in their order after the pass. */
+        private final int[] to;
+
+        /** The index of the first tuple of each chunk. */
+        private final int[] bounds;
+
+        /** The counts or offsets of each byte value for each chunk. */
+        private final int[][] counts;
+
+        /** Whether to move indexes rather than count byte values. */
+        private final boolean scatter;
+
+        /** The first chunk. */
+        private final int first;
+
+        /** The chunk after the last chunk. */
+        private final int last;
+
+        /**
+         * Create a task that performs one half of a counting pass.
+         *
+         * @param keys
+         *            The binary keys.
+         * @param width
+         *            The width of a binary key.
+         * @param position
+         *            The key position.
+         * @param from
+         *            The tuple indexes in their current order.
+         * @param to
+         *            The tuple indexes in their order after the pass.
+         * @param bounds
+         *            The index of the first tuple of each chunk.
+         * @param counts
+         *            The counts or offsets of each byte value for each chunk.
+         * @param scatter
+         *            Whether to move indexes rather than count byte values.
+         * @param first
+         *            The first chunk.
+         * @param last
+         *            The chunk after the last chunk.
+         */
+        public Pass(byte[] keys, int width, int position, int[] from, int[] to, int[] bounds, int[][] counts, boolean scatter, int first, int last)
+        {
+            this.keys = keys;
+            this.width = width;
+            this.position = position;
+            this.from = from;
+            this.to = to;
+            this.bounds = bounds;
+            this.counts = counts;
+            this.scatter = scatter;
+            this.first = first;
+            this.last = last;
+        }
+
+        /** Count or move the range of chunks. */
+        protected void compute()
+        {
+            if (last - first > 1)
+            {
+                int mid = (first + last) >>> 1;
+                invokeAll(new Pass(keys, width, position, from, to, bounds, counts, scatter, first, mid), new Pass(keys, width, position, from, to, bounds, counts, scatter, mid, last));
+                return;
+            }
+            int[] count = counts[first];
+            int hi = bounds[last];
+            if (scatter)
+            {
+                for (int i = bounds[first]; i < hi; i++)
+                {
+                    int index = from[i];
+                    to[count[keys[index * width + position] & 0xFF]++] = index;
+                }
+            }
+            else
+            {
+                Arrays.fill(count, 0);
+                for (int i = bounds[first]; i < hi; i++)
+                {
+                    count[keys[from[i] * width + position] & 0xFF]++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes objects to one of a number of partitions that cover consecutive
+ * ranges of an order, such as the order of a {@link TupleComparator}, so that
+ * sorting each partition and concatenating the partitions in order sorts the
+ * whole.
+ * <p>
+ * A partitioner with <em>n</em> partitions has <em>n - 1</em> split objects in
+ * ascending order. Partition <em>i</em> receives the objects that are ordered
+ * the same as or after split <em>i - 1</em> and before split <em>i</em>, so
+ * objects that are ordered the same always go to the same partition. An
+ * object is routed by a binary search of the splits. A partitioner sampled
+ * from an empty input has no splits, so it routes every object to the first
+ * partition and leaves the others empty.
+ * <p>
+ * The splits are usually chosen by {@link #sample(Iterator, int, int,
+ * Comparator) sampling} the input, taking evenly spaced objects from the
+ * sorted sample, so that partitions are balanced even when the input is
+ * skewed. A value ordered the same as a large fraction of the input cannot be
+ * divided, so it fills one partition and may leave neighbouring partitions
+ * empty.
+ * <p>
+ * The partitioner counts the objects routed to each partition with striped
+ * counters, so it can be shared by threads and the counts can be read to
+ * measure the balance of the partitions.
+ *
+ * @author Alan Gutierrez
+ *
+ * @param <T>
+ *            The type of object partitioned.
+ */
+public class RangePartitioner<T>
+{
+    /** The split objects in ascending order. */
+    private final Object[] splits;
+
+    /** The comparator that orders the objects. */
+    private final Comparator<? super T> comparator;
+
+    /** The number of objects routed to each partition. */
+    private final LongAdder[] counts;
+
+    /**
+     * Create a partitioner with the given split objects.
+     *
+     * @param splits
+     *            The split objects in ascending order, one less than the
+     *            number of partitions.
+     * @param comparator
+     *            The comparator that orders the objects.
+     * @exception IllegalArgumentException
+     *                If the splits are not in ascending order.
+     */
+    public RangePartitioner(List<? extends T> splits, Comparator<? super T> comparator)
+    {
+        for (int i = 1; i < splits.size(); i++)
+        {
+            if (comparator.compare(splits.get(i - 1), splits.get(i)) > 0)
+            {
+                throw new IllegalArgumentException("Splits must be in ascending order.");
+            }
+        }
+        this.splits = splits.toArray();
+        this.comparator = comparator;
+        this.counts = counters(this.splits.length + 1);
+    }
+
+    /**
+     * Create a partitioner with no splits that reports the given number of
+     * partitions, routing every object to the first partition and leaving the
+     * rest empty.
+     *
+     * @param partitions
+     *            The number of partitions.
+     * @param comparator
+     *            The comparator that orders the objects.
+     */
+    private RangePartitioner(int partitions, Comparator<? super T> comparator)
+    {
+        this.splits = new Object[0];
+        this.comparator = comparator;
+        this.counts = counters(partitions);
+    }
+
+    /**
+     * Create the given number of partition counters.
+     *
+     * @param partitions
+     *            The number of partitions.
+     * @return An array of counters.
+     */
+    private static LongAdder[] counters(int partitions)
+    {
+        LongAdder[] counts = new LongAdder[partitions];
+        for (int i = 0; i < counts.length; i++)
+        {
+            counts[i] = new LongAdder();
+        }
+        return counts;
+    }
+
+    /**
+     * Create a partitioner whose splits are evenly spaced in the sorted
+     * sample of the given reservoir. If the sample is empty there is nothing
+     * to split on, so every object is routed to the first partition and the
+     * other partitions stay empty.
+     *
+     * @param <T>
+     *            The type of object partitioned.
+     * @param reservoir
+     *            The sample of the input.
+     * @param partitions
+     *            The number of partitions.
+     * @param comparator
+     *            The comparator that orders the objects.
+     * @return A partitioner.
+     * @exception IllegalArgumentException
+     *                If the number of partitions is less than one.
+     */
+    public static <T> RangePartitioner<T> of(Reservoir<? extends T> reservoir, int partitions, Comparator<? super T> comparator)
+    {
+        if (partitions < 1)
+        {
+            throw new IllegalArgumentException("Partitions must be at least one.");
+        }
+        List<T> sample = new ArrayList<T>(reservoir.toList());
+        if (sample.isEmpty())
+        {
+            return new RangePartitioner<T>(partitions, comparator);
+        }
+        Collections.sort(sample, comparator);
+        List<T> splits = new ArrayList<T>();
+        for (int i = 1; i < partitions; i++)
+        {
+            splits.add(sample.get((int) ((long) sample.size() * i / partitions)));
+        }
+        return new RangePartitioner<T>(splits, comparator);
+    }
+
+    /**
+     * Create a partitioner by reading the given input into a reservoir sample
+     * of the given size and choosing splits evenly spaced in the sorted
+     * sample. The input is read to the end.
+     *
+     * @param <T>
+     *            The type of object partitioned.
+     * @param input
+     *            The input.
+     * @param partitions
+     *            The number of partitions.
+     * @param sampleSize
+     *            The maximum number of objects sampled.
+     * @param comparator
+     *            The comparator that orders the objects.
+     * @return A partitioner.
+     * @exception IllegalArgumentException
+     *                If the number of partitions or the sample size is less
+     *                than one.
+     */
+    public static <T> RangePartitioner<T> sample(Iterator<? extends T> input, int partitions, int sampleSize, Comparator<? super T> comparator)
+    {
+        Reservoir<T> reservoir = new Reservoir<T>(sampleSize, new Random());
+        while (input.hasNext())
+        {
+            reservoir.add(input.next());
+        }
+        return of(reservoir, partitions, comparator);
+    }
+
+    /**
+     * Get the number of partitions, which is the number requested when the
+     * splits were sampled, even if the sample was empty.
+     *
+     * @return The number of partitions.
+     */
+    public int getPartitionCount()
+    {
+        return counts.length;
+    }
+
+    /**
+     * Get the split objects in ascending order.
+     *
+     * @return A new list of the split objects.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getSplits()
+    {
+        List<T> list = new ArrayList<T>();
+        for (Object split : splits)
+        {
+            list.add((T) split);
+        }
+        return list;
+    }
+
+    /**
+     * Get the partition of the given object and count it.
+     *
+     * @param object
+     *            The object.
+     * @return The index of the partition.
+     */
+    public int partition(T object)
+    {
+        int partition = find(object);
+        counts[partition].increment();
+        return partition;
+    }
+
+    /**
+     * Get the partition of the given object without counting it.
+     *
+     * @param object
+     *            The object.
+     * @return The index of the partition, which is the number of splits that
+     *         are ordered the same as or before the object.
+     */
+    @SuppressWarnings("unchecked")
+    public int find(T object)
+    {
+        int low = 0;
+        int high = splits.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare((T) splits[mid], object) <= 0)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the number of objects routed to each partition.
+     *
+     * @return A new array of the number of objects in each partition.
+     */
+    public long[] getPartitionSizes()
+    {
+        long[] sizes = new long[counts.length];
+        for (int i = 0; i < counts.length; i++)
+        {
+            sizes[i] = counts[i].sum();
+        }
+        return sizes;
+    }
+
+    /**
+     * Get the size of the largest partition divided by the mean partition
+     * size, which is one when the partitions are perfectly balanced.
+     *
+     * @return The imbalance of the partitions or zero if no objects have been
+     *         routed.
+     */
+    public double getImbalance()
+    {
+        long total = 0;
+        long largest = 0;
+        for (long size : getPartitionSizes())
+        {
+            total += size;
+            largest = Math.max(largest, size);
+        }
+        return total == 0 ? 0 : (double) largest * counts.length / total;
+    }
+
+    /**
+     * Reset the partition counts to zero.
+     */
+    public void reset()
+    {
+        for (LongAdder count : counts)
+        {
+            count.reset();
+        }
+    }
+}
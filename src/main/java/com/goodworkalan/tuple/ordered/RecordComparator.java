@@ -0,0 +1,175 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+
+/**
+ * A comparator of serialized records written by {@link Records} that orders
+ * them the same as a {@link TupleComparator} orders the tuples they were
+ * serialized from, without deserializing them.
+ * <p>
+ * Each record starts at the position of its buffer. A comparison uses the
+ * offset table of each record to find the next member, reads the member in
+ * place with absolute gets and stops at the first member that differs, so
+ * members after the first difference are never read and a comparison
+ * allocates nothing. Records packed into one array can be compared by moving
+ * the positions of two buffers that wrap the array, and only the records that
+ * are needed as tuples are decoded with {@link Records#decode(ByteBuffer)}.
+ * <p>
+ * Members are compared as their boxed types compare themselves, with the
+ * direction and null placement of each step of the order. Members of
+ * different types in the same position cannot be compared.
+ *
+ * @author Alan Gutierrez
+ */
+public class RecordComparator implements Comparator<ByteBuffer>
+{
+    /** The steps of the order. */
+    private final Order<?, ?>[] plan;
+
+    /**
+     * Create a record comparator in the order of ordered tuples of the given
+     * number of members.
+     *
+     * @param arity
+     *            The number of members.
+     */
+    public RecordComparator(int arity)
+    {
+        this(Ordered.chain(arity));
+    }
+
+    /**
+     * Create a record comparator in the order of the given tuple comparator.
+     *
+     * @param comparator
+     *            The tuple comparator.
+     */
+    public RecordComparator(TupleComparator<?> comparator)
+    {
+        this(comparator.getOrder());
+    }
+
+    /**
+     * Create a record comparator in the order of the given comparison.
+     *
+     * @param order
+     *            The comparison.
+     */
+    private RecordComparator(Order<?, ?> order)
+    {
+        this.plan = order.plan;
+    }
+
+    /**
+     * Compare the records at the positions of the given buffers. The positions
+     * are not changed.
+     *
+     * @param left
+     *            The buffer positioned at the left record.
+     * @param right
+     *            The buffer positioned at the right record.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         record is ordered before, the same as, or after the right
+     *         record.
+     * @exception ClassCastException
+     *                If members in the same position have different types.
+     */
+    public int compare(ByteBuffer left, ByteBuffer right)
+    {
+        int l = left.position();
+        int r = right.position();
+        for (int i = 0; i < plan.length; i++)
+        {
+            int compare = compareMember(plan[i], left, l + Records.start(left, l, i), l + Records.end(left, l, i), right, r + Records.start(right, r, i), r + Records.end(right, r, i));
+            if (compare != 0)
+            {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Compare a member of the left record with a member of the right record.
+     *
+     * @param step
+     *            The step that orders the member.
+     * @param left
+     *            The left buffer.
+     * @param l
+     *            The offset of the type byte of the left member.
+     * @param lEnd
+     *            The offset of the end of the left member.
+     * @param right
+     *            The right buffer.
+     * @param r
+     *            The offset of the type byte of the right member.
+     * @param rEnd
+     *            The offset of the end of the right member.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         member is ordered before, the same as, or after the right member.
+     * @exception ClassCastException
+     *                If the members have different types.
+     */
+    private static int compareMember(Order<?, ?> step, ByteBuffer left, int l, int lEnd, ByteBuffer right, int r, int rEnd)
+    {
+        byte type = left.get(l);
+        byte rightType = right.get(r);
+        if (type == Keys.NULL)
+        {
+            return rightType == Keys.NULL ? 0 : step.nullsLast ? 1 : -1;
+        }
+        else if (rightType == Keys.NULL)
+        {
+            return step.nullsLast ? -1 : 1;
+        }
+        else if (type != rightType)
+        {
+            throw new ClassCastException("Cannot compare record members of type " + type + " and " + rightType + ".");
+        }
+        int compare;
+        switch (type)
+        {
+        case Keys.STRING:
+            compare = 0;
+            int length = Math.min(lEnd - l, rEnd - r);
+            for (int i = 1; i < length && compare == 0; i += 2)
+            {
+                compare = left.getChar(l + i) - right.getChar(r + i);
+            }
+            if (compare == 0)
+            {
+                compare = (lEnd - l) - (rEnd - r);
+            }
+            break;
+        case Keys.INTEGER:
+            compare = Integer.compare(left.getInt(l + 1), right.getInt(r + 1));
+            break;
+        case Keys.LONG:
+            compare = Long.compare(left.getLong(l + 1), right.getLong(r + 1));
+            break;
+        case Keys.DOUBLE:
+            compare = Double.compare(left.getDouble(l + 1), right.getDouble(r + 1));
+            break;
+        case Keys.FLOAT:
+            compare = Float.compare(left.getFloat(l + 1), right.getFloat(r + 1));
+            break;
+        case Keys.SHORT:
+            compare = left.getShort(l + 1) - right.getShort(r + 1);
+            break;
+        case Keys.CHARACTER:
+            compare = left.getChar(l + 1) - right.getChar(r + 1);
+            break;
+        case Keys.BYTE:
+            compare = left.get(l + 1) - right.get(r + 1);
+            break;
+        case Keys.BOOLEAN:
+            compare = left.get(l + 1) - right.get(r + 1);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown record member type " + type + ".");
+        }
+        return step.descending ? -compare : compare;
+    }
+}
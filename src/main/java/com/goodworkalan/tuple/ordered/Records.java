@@ -0,0 +1,346 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.nio.ByteBuffer;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Static methods that serialize tuples as records that can be compared by a
+ * {@link RecordComparator} without being deserialized, and that deserialize
+ * a whole record or a single member of a record.
+ * <p>
+ * A record begins with a byte that is the number of members, followed by a
+ * table of one big-endian integer for each member that is the offset from the
+ * start of the record of the end of the member. The members follow the table,
+ * each written as the same type byte used by {@link Keys} followed by the
+ * value. Numbers are written big-endian at their natural width, booleans as a
+ * single byte and strings as their UTF-16 code units, two bytes each, whose
+ * count follows from the offset table. A null member is a lone type byte. The
+ * offset table lets a comparison or a lookup go directly to any member, and
+ * the end of the last member is the length of the record.
+ * <p>
+ * Tuple members may be the same types as those of {@link Keys}.
+ *
+ * @author Alan Gutierrez
+ */
+public final class Records
+{
+    /** The largest number of members in a record. */
+    private final static int MAXIMUM_ARITY = 10;
+
+    /** Cannot be instantiated. */
+    private Records()
+    {
+    }
+
+    /**
+     * Get the length in bytes of the encoded value of the given member,
+     * including its type byte.
+     *
+     * @param member
+     *            The tuple member.
+     * @return The length of the encoded member.
+     * @exception IllegalArgumentException
+     *                If the tuple member cannot be encoded.
+     */
+    private static int length(Object member)
+    {
+        if (member instanceof String)
+        {
+            return 1 + ((String) member).length() * 2;
+        }
+        return Keys.length(member);
+    }
+
+    /**
+     * Get the length in bytes of the record of the given tuple.
+     *
+     * @param tuple
+     *            The tuple.
+     * @return The length of the record.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded.
+     */
+    public static int length(Tuple<?, ?> tuple)
+    {
+        int length = 1;
+        Object rest = tuple;
+        while (rest instanceof Tuple<?, ?>)
+        {
+            length += 4 + length(Tuples.first((Tuple<?, ?>) rest));
+            rest = Tuples.rest((Tuple<?, ?>) rest);
+        }
+        return length;
+    }
+
+    /**
+     * Serialize the given tuple as a record.
+     *
+     * @param tuple
+     *            The tuple.
+     * @return The record.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded.
+     */
+    public static byte[] encode(Tuple<?, ?> tuple)
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length(tuple));
+        encode(tuple, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Write the record of the given tuple to the given buffer at its position,
+     * advancing the position past the record.
+     *
+     * @param tuple
+     *            The tuple.
+     * @param buffer
+     *            The buffer.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded.
+     * @exception java.nio.BufferOverflowException
+     *                If the buffer does not have room for the record.
+     */
+    public static void encode(Tuple<?, ?> tuple, ByteBuffer buffer)
+    {
+        int arity = Tuples.arity(tuple);
+        if (arity > MAXIMUM_ARITY)
+        {
+            throw new IllegalArgumentException("Cannot encode a tuple of more than " + MAXIMUM_ARITY + " members.");
+        }
+        buffer.put((byte) arity);
+        int end = 1 + arity * 4;
+        Object rest = tuple;
+        for (int i = 0; i < arity; i++)
+        {
+            end += length(Tuples.first((Tuple<?, ?>) rest));
+            buffer.putInt(end);
+            rest = Tuples.rest((Tuple<?, ?>) rest);
+        }
+        rest = tuple;
+        for (int i = 0; i < arity; i++)
+        {
+            encode(Tuples.first((Tuple<?, ?>) rest), buffer);
+            rest = Tuples.rest((Tuple<?, ?>) rest);
+        }
+    }
+
+    /**
+     * Write the type byte and value of the given member to the given buffer.
+     *
+     * @param member
+     *            The tuple member.
+     * @param buffer
+     *            The buffer.
+     * @exception IllegalArgumentException
+     *                If the tuple member cannot be encoded.
+     */
+    private static void encode(Object member, ByteBuffer buffer)
+    {
+        if (member == null)
+        {
+            buffer.put(Keys.NULL);
+        }
+        else if (member instanceof String)
+        {
+            buffer.put(Keys.STRING);
+            String string = (String) member;
+            for (int i = 0, stop = string.length(); i < stop; i++)
+            {
+                buffer.putChar(string.charAt(i));
+            }
+        }
+        else if (member instanceof Integer)
+        {
+            buffer.put(Keys.INTEGER).putInt(((Integer) member).intValue());
+        }
+        else if (member instanceof Long)
+        {
+            buffer.put(Keys.LONG).putLong(((Long) member).longValue());
+        }
+        else if (member instanceof Double)
+        {
+            buffer.put(Keys.DOUBLE).putDouble(((Double) member).doubleValue());
+        }
+        else if (member instanceof Float)
+        {
+            buffer.put(Keys.FLOAT).putFloat(((Float) member).floatValue());
+        }
+        else if (member instanceof Short)
+        {
+            buffer.put(Keys.SHORT).putShort(((Short) member).shortValue());
+        }
+        else if (member instanceof Character)
+        {
+            buffer.put(Keys.CHARACTER).putChar(((Character) member).charValue());
+        }
+        else if (member instanceof Byte)
+        {
+            buffer.put(Keys.BYTE).put(((Byte) member).byteValue());
+        }
+        else if (member instanceof Boolean)
+        {
+            buffer.put(Keys.BOOLEAN).put(((Boolean) member).booleanValue() ? (byte) 1 : (byte) 0);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Cannot encode a " + member.getClass().getName() + " in a record.");
+        }
+    }
+
+    /**
+     * Get the number of members of the record at the position of the given
+     * buffer.
+     *
+     * @param record
+     *            The buffer positioned at the start of the record.
+     * @return The number of members.
+     */
+    public static int arity(ByteBuffer record)
+    {
+        return record.get(record.position());
+    }
+
+    /**
+     * Get the length of the record at the position of the given buffer.
+     *
+     * @param record
+     *            The buffer positioned at the start of the record.
+     * @return The length of the record in bytes.
+     */
+    public static int recordLength(ByteBuffer record)
+    {
+        int start = record.position();
+        return end(record, start, record.get(start) - 1);
+    }
+
+    /**
+     * Get the offset from the start of the record of the type byte of the
+     * given member.
+     *
+     * @param record
+     *            The buffer.
+     * @param start
+     *            The offset of the record in the buffer.
+     * @param index
+     *            The index of the member.
+     * @return The offset of the member from the start of the record.
+     */
+    static int start(ByteBuffer record, int start, int index)
+    {
+        return index == 0 ? 1 + record.get(start) * 4 : record.getInt(start + 1 + (index - 1) * 4);
+    }
+
+    /**
+     * Get the offset from the start of the record of the end of the given
+     * member.
+     *
+     * @param record
+     *            The buffer.
+     * @param start
+     *            The offset of the record in the buffer.
+     * @param index
+     *            The index of the member.
+     * @return The offset of the end of the member from the start of the
+     *         record.
+     */
+    static int end(ByteBuffer record, int start, int index)
+    {
+        return index < 0 ? 1 : record.getInt(start + 1 + index * 4);
+    }
+
+    /**
+     * Deserialize a single member of the record at the position of the given
+     * buffer without reading the other members. The position is not changed.
+     *
+     * @param record
+     *            The buffer positioned at the start of the record.
+     * @param index
+     *            The index of the member.
+     * @return The member.
+     * @exception IndexOutOfBoundsException
+     *                If the record does not have a member at the index.
+     * @exception IllegalArgumentException
+     *                If the record is malformed.
+     */
+    public static Object member(ByteBuffer record, int index)
+    {
+        int start = record.position();
+        if (index < 0 || index >= record.get(start))
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Arity: " + record.get(start));
+        }
+        int offset = start + start(record, start, index);
+        int end = start + end(record, start, index);
+        byte type = record.get(offset++);
+        switch (type)
+        {
+        case Keys.NULL:
+            return null;
+        case Keys.STRING:
+            char[] characters = new char[(end - offset) / 2];
+            for (int i = 0; i < characters.length; i++)
+            {
+                characters[i] = record.getChar(offset + i * 2);
+            }
+            return new String(characters);
+        case Keys.INTEGER:
+            return Integer.valueOf(record.getInt(offset));
+        case Keys.LONG:
+            return Long.valueOf(record.getLong(offset));
+        case Keys.DOUBLE:
+            return Double.valueOf(record.getDouble(offset));
+        case Keys.FLOAT:
+            return Float.valueOf(record.getFloat(offset));
+        case Keys.SHORT:
+            return Short.valueOf(record.getShort(offset));
+        case Keys.CHARACTER:
+            return Character.valueOf(record.getChar(offset));
+        case Keys.BYTE:
+            return Byte.valueOf(record.get(offset));
+        case Keys.BOOLEAN:
+            return record.get(offset) == 0 ? Boolean.FALSE : Boolean.TRUE;
+        }
+        throw new IllegalArgumentException("Unknown record member type " + type + ".");
+    }
+
+    /**
+     * Deserialize the record at the position of the given buffer into a
+     * tuple. The position is not changed.
+     *
+     * @param record
+     *            The buffer positioned at the start of the record.
+     * @return A tuple of the arity of the record.
+     * @exception IllegalArgumentException
+     *                If the record is malformed.
+     */
+    public static Tuple<?, ?> decode(ByteBuffer record)
+    {
+        int arity = arity(record);
+        if (arity < 1 || arity > MAXIMUM_ARITY)
+        {
+            throw new IllegalArgumentException("Record has " + arity + " members.");
+        }
+        Object[] members = new Object[arity];
+        for (int i = 0; i < arity; i++)
+        {
+            members[i] = member(record, i);
+        }
+        return Keys.tuple(members, arity);
+    }
+
+    /**
+     * Deserialize the given record into a tuple.
+     *
+     * @param record
+     *            The record.
+     * @return A tuple of the arity of the record.
+     * @exception IllegalArgumentException
+     *                If the record is malformed.
+     */
+    public static Tuple<?, ?> decode(byte[] record)
+    {
+        return decode(ByteBuffer.wrap(record));
+    }
+}
@@ -0,0 +1,34 @@
+package com.goodworkalan.tuple.ordered;
+
+/**
+ * Folds the tuples of a group into an aggregate.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple.
+ * @param <A>
+ *            The type of aggregate.
+ */
+public interface Reducer<T, A>
+{
+    /**
+     * Create the aggregate of a group from the first tuple of the group.
+     * 
+     * @param tuple
+     *            The first tuple of the group.
+     * @return The aggregate of the group.
+     */
+    public A start(T tuple);
+
+    /**
+     * Fold the next tuple of a group into the aggregate of the group.
+     * 
+     * @param aggregate
+     *            The aggregate of the group.
+     * @param tuple
+     *            The next tuple of the group.
+     * @return The aggregate of the group, which may be the given aggregate.
+     */
+    public A reduce(A aggregate, T tuple);
+}
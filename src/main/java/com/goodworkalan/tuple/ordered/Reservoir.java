@@ -0,0 +1,112 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A uniform random sample of a bounded number of the objects offered, chosen
+ * by reservoir sampling.
+ * <p>
+ * The first bound number of objects fill the reservoir. After that the
+ * <em>n</em>th object offered replaces a random member of the reservoir with
+ * probability <em>bound / n</em>, so every object offered has the same chance
+ * of being in the sample, and a stream of unknown length is sampled in one
+ * pass in <em>O(bound)</em> memory.
+ *
+ * @author Alan Gutierrez
+ *
+ * @param <T>
+ *            The type of object sampled.
+ */
+public class Reservoir<T>
+{
+    /** The source of randomness. */
+    private final Random random;
+
+    /** The sample. */
+    private final Object[] sample;
+
+    /** The number of objects offered. */
+    private long seen;
+
+    /**
+     * Create a reservoir of at most the given number of objects.
+     *
+     * @param bound
+     *            The maximum number of objects sampled.
+     * @param random
+     *            The source of randomness.
+     * @exception IllegalArgumentException
+     *                If the bound is less than one.
+     */
+    public Reservoir(int bound, Random random)
+    {
+        if (bound < 1)
+        {
+            throw new IllegalArgumentException("Bound must be at least one.");
+        }
+        this.random = random;
+        this.sample = new Object[bound];
+    }
+
+    /**
+     * Offer an object to the sample.
+     *
+     * @param object
+     *            The object.
+     */
+    public void add(T object)
+    {
+        long n = seen++;
+        if (n < sample.length)
+        {
+            sample[(int) n] = object;
+        }
+        else
+        {
+            long index = (long) (random.nextDouble() * (n + 1));
+            if (index < sample.length)
+            {
+                sample[(int) index] = object;
+            }
+        }
+    }
+
+    /**
+     * Get the number of objects offered.
+     *
+     * @return The number of objects offered.
+     */
+    public long getSeen()
+    {
+        return seen;
+    }
+
+    /**
+     * Get the number of objects in the sample.
+     *
+     * @return The number of objects in the sample.
+     */
+    public int size()
+    {
+        return (int) Math.min(seen, sample.length);
+    }
+
+    /**
+     * Get the sampled objects.
+     *
+     * @return A new list of the sampled objects.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> toList()
+    {
+        int size = size();
+        List<T> list = new ArrayList<T>(size);
+        for (int i = 0; i < size; i++)
+        {
+            list.add((T) sample[i]);
+        }
+        return list;
+    }
+}
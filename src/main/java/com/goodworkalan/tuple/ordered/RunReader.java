@@ -0,0 +1,171 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * An iterator over the tuples in a sorted run file written by
+ * {@link RunWriter}. The run file is deleted when the reader is closed.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple.
+ */
+final class RunReader<T extends Tuple<?, ?>> implements Iterator<T>, Closeable
+{
+    /** The run file. */
+    private final File file;
+
+    /** The input stream with a read-ahead buffer. */
+    private final DataInputStream in;
+
+    /** The buffer that receives each binary key. */
+    private byte[] key;
+
+    /** The next tuple or null if there are no more tuples. */
+    private T next;
+
+    /**
+     * Open the given run file.
+     * 
+     * @param file
+     *            The run file.
+     * @param bufferSize
+     *            The size of the read-ahead buffer.
+     * @exception IOException
+     *                If the file cannot be opened or read.
+     */
+    public RunReader(File file, int bufferSize) throws IOException
+    {
+        this.file = file;
+        this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), bufferSize));
+        this.key = new byte[64];
+        this.next = read();
+    }
+
+    /**
+     * Read the next tuple from the run file.
+     * 
+     * @return The next tuple or null at the end of the file.
+     * @exception IOException
+     *                If the file cannot be read.
+     */
+    private T read() throws IOException
+    {
+        int b = in.read();
+        if (b == -1)
+        {
+            return null;
+        }
+        int length = 0;
+        int shift = 0;
+        while ((b & 0x80) != 0)
+        {
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+            if (shift > 28)
+            {
+                throw new IOException("Malformed length in run file " + file + ".");
+            }
+            b = in.readUnsignedByte();
+        }
+        return decode(length | (b << shift));
+    }
+
+    /**
+     * Read and decode a binary key of the given length.
+     * 
+     * @param length
+     *            The length of the binary key.
+     * @return The tuple.
+     * @exception IOException
+     *                If the file cannot be read.
+     */
+    @SuppressWarnings("unchecked")
+    private T decode(int length) throws IOException
+    {
+        if (key.length < length)
+        {
+            key = new byte[Math.max(length, key.length * 2)];
+        }
+        in.readFully(key, 0, length);
+        return (T) Keys.decode(ByteBuffer.wrap(key, 0, length));
+    }
+
+    /**
+     * Return true if there are more tuples in the run.
+     * 
+     * @return True if there are more tuples.
+     */
+    public boolean hasNext()
+    {
+        return next != null;
+    }
+
+    /**
+     * Get the next tuple in the run.
+     * 
+     * @return The next tuple.
+     * @exception NoSuchElementException
+     *                If there are no more tuples.
+     * @exception IllegalStateException
+     *                If the run file cannot be read.
+     */
+    public T next()
+    {
+        if (next == null)
+        {
+            throw new NoSuchElementException();
+        }
+        T tuple = next;
+        try
+        {
+            next = read();
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Unable to read run file " + file + ".", e);
+        }
+        return tuple;
+    }
+
+    /**
+     * Not supported.
+     * 
+     * @exception UnsupportedOperationException
+     *                Always.
+     */
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Close and delete the run file.
+     * 
+     * @exception IOException
+     *                If the file cannot be closed.
+     */
+    public void close() throws IOException
+    {
+        next = null;
+        try
+        {
+            in.close();
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Writes tuples to a sorted run file. Each tuple is written as its binary key
+ * from {@link Keys} preceded by the length of the key as an unsigned variable
+ * length integer of seven bits per byte.
+ * 
+ * @author Alan Gutierrez
+ */
+final class RunWriter implements Closeable
+{
+    /** The buffered output stream. */
+    private final OutputStream out;
+
+    /** The buffer that receives each binary key. */
+    private ByteBuffer key;
+
+    /**
+     * Create the given run file.
+     * 
+     * @param file
+     *            The run file.
+     * @param bufferSize
+     *            The size of the write buffer.
+     * @exception IOException
+     *                If the file cannot be created.
+     */
+    public RunWriter(File file, int bufferSize) throws IOException
+    {
+        this.out = new BufferedOutputStream(new FileOutputStream(file), bufferSize);
+        this.key = ByteBuffer.allocate(64);
+    }
+
+    /**
+     * Write the given tuple.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @exception IOException
+     *                If the file cannot be written.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded in a binary key.
+     */
+    public void write(Tuple<?, ?> tuple) throws IOException
+    {
+        int length = Keys.length(tuple);
+        if (key.capacity() < length)
+        {
+            key = ByteBuffer.allocate(Math.max(length, key.capacity() * 2));
+        }
+        key.clear();
+        Keys.encode(tuple, key);
+        int remaining = length;
+        while ((remaining & ~0x7F) != 0)
+        {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+        out.write(key.array(), 0, length);
+    }
+
+    /**
+     * Flush and close the run file.
+     * 
+     * @exception IOException
+     *                If the file cannot be written.
+     */
+    public void close() throws IOException
+    {
+        out.close();
+    }
+}
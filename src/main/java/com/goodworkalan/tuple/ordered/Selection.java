@@ -0,0 +1,386 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * A bounded selection of the least objects offered according to a
+ * comparator, such as a {@link TupleComparator}.
+ * <p>
+ * The selection is a binary heap of at most the bound number of objects with
+ * the greatest selected object at its root. Once the selection is full, an
+ * offered object that is not less than the root is rejected with a single
+ * comparison and without allocation, otherwise it replaces the root, so
+ * selecting from <em>n</em> objects takes <em>O(n log k)</em> time and
+ * <em>O(k)</em> memory. Each selected object is kept with the sequence in
+ * which it was offered, and objects that compare as equal are ordered by that
+ * sequence, so of objects that compare as equal, the first offered is
+ * preferred, both when selecting and in the selected list.
+ * <p>
+ * To select the greatest objects, select the least objects by the reverse of
+ * the comparator. The {@link #least(int, Comparator)} and
+ * {@link #greatest(int, Comparator)} collectors use selections that are merged
+ * when a parallel stream is collected.
+ *
+ * @author Alan Gutierrez
+ *
+ * @param <T>
+ *            The type of object selected.
+ */
+public class Selection<T>
+{
+    /** The maximum number of objects selected. */
+    private final int bound;
+
+    /** The comparator that orders the objects. */
+    private final Comparator<? super T> comparator;
+
+    /** The selected objects as a heap with the greatest at the root. */
+    private final Object[] heap;
+
+    /** The offer sequence of each selected object, parallel to the heap. */
+    private final long[] sequences;
+
+    /** The number of selected objects. */
+    private int size;
+
+    /** The offer sequence of the next object offered. */
+    private long next;
+
+    /**
+     * Create a selection of at most the given number of the least objects
+     * according to the given comparator.
+     *
+     * @param bound
+     *            The maximum number of objects selected.
+     * @param comparator
+     *            The comparator that orders the objects.
+     * @exception IllegalArgumentException
+     *                If the bound is negative.
+     */
+    public Selection(int bound, Comparator<? super T> comparator)
+    {
+        if (bound < 0)
+        {
+            throw new IllegalArgumentException("Bound must not be negative.");
+        }
+        this.bound = bound;
+        this.comparator = comparator;
+        this.heap = new Object[bound];
+        this.sequences = new long[bound];
+    }
+
+    /**
+     * Get a collector that collects the given number of the least elements of
+     * a stream according to the given comparator into a list in ascending
+     * order.
+     *
+     * @param <T>
+     *            The type of element.
+     * @param bound
+     *            The maximum number of elements collected.
+     * @param comparator
+     *            The comparator that orders the elements.
+     * @return A bounded collector of the least elements.
+     */
+    public static <T> Collector<T, ?, List<T>> least(int bound, Comparator<? super T> comparator)
+    {
+        return new Collect<T>(bound, comparator);
+    }
+
+    /**
+     * Get a collector that collects the given number of the greatest elements
+     * of a stream according to the given comparator into a list in descending
+     * order.
+     *
+     * @param <T>
+     *            The type of element.
+     * @param bound
+     *            The maximum number of elements collected.
+     * @param comparator
+     *            The comparator that orders the elements.
+     * @return A bounded collector of the greatest elements.
+     */
+    public static <T> Collector<T, ?, List<T>> greatest(int bound, Comparator<? super T> comparator)
+    {
+        return new Collect<T>(bound, Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Get the number of selected objects.
+     *
+     * @return The number of selected objects.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Compare two selected objects by the comparator and then by the order in
+     * which they were offered.
+     * 
+     * @param left
+     *            The left object.
+     * @param leftSequence
+     *            The offer sequence of the left object.
+     * @param right
+     *            The right object.
+     * @param rightSequence
+     *            The offer sequence of the right object.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         object is preferred to, the same as, or not preferred to the
+     *         right object.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(Object left, long leftSequence, Object right, long rightSequence)
+    {
+        int compare = comparator.compare((T) left, (T) right);
+        if (compare == 0)
+        {
+            return leftSequence < rightSequence ? -1 : leftSequence == rightSequence ? 0 : 1;
+        }
+        return compare;
+    }
+
+    /**
+     * Offer an object to the selection. If the selection is full, the object
+     * is selected only if it is less than the greatest selected object, which
+     * is then removed.
+     *
+     * @param object
+     *            The object to offer.
+     * @return True if the object was selected.
+     */
+    public boolean offer(T object)
+    {
+        return insert(object, next++);
+    }
+
+    /**
+     * Insert an object with the given offer sequence into the heap, replacing
+     * the root if the heap is full and the object is preferred to the root.
+     * 
+     * @param object
+     *            The object to offer.
+     * @param sequence
+     *            The offer sequence of the object.
+     * @return True if the object was selected.
+     */
+    private boolean insert(Object object, long sequence)
+    {
+        if (size < bound)
+        {
+            int index = size++;
+            while (index > 0)
+            {
+                int parent = (index - 1) >>> 1;
+                if (compare(object, sequence, heap[parent], sequences[parent]) <= 0)
+                {
+                    break;
+                }
+                heap[index] = heap[parent];
+                sequences[index] = sequences[parent];
+                index = parent;
+            }
+            heap[index] = object;
+            sequences[index] = sequence;
+            return true;
+        }
+        if (bound == 0 || compare(object, sequence, heap[0], sequences[0]) >= 0)
+        {
+            return false;
+        }
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half)
+        {
+            int child = index * 2 + 1;
+            int right = child + 1;
+            if (right < size && compare(heap[right], sequences[right], heap[child], sequences[child]) > 0)
+            {
+                child = right;
+            }
+            if (compare(object, sequence, heap[child], sequences[child]) >= 0)
+            {
+                break;
+            }
+            heap[index] = heap[child];
+            sequences[index] = sequences[child];
+            index = child;
+        }
+        heap[index] = object;
+        sequences[index] = sequence;
+        return true;
+    }
+
+    /**
+     * Offer all of the objects selected by the given selection to this
+     * selection as if they were offered after every object offered to this
+     * selection, in the order they were offered to the given selection.
+     *
+     * @param selection
+     *            The selection to merge into this selection.
+     */
+    public void addAll(Selection<? extends T> selection)
+    {
+        long offset = next;
+        for (int i = 0; i < selection.size; i++)
+        {
+            insert(selection.heap[i], offset + selection.sequences[i]);
+        }
+        next += selection.next;
+    }
+
+    /**
+     * Get the selected objects in ascending order according to the comparator
+     * of the selection, with objects that compare as equal in the order they
+     * were offered.
+     *
+     * @return A new list of the selected objects.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> toList()
+    {
+        Integer[] indexes = new Integer[size];
+        for (int i = 0; i < size; i++)
+        {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, new Comparator<Integer>()
+        {
+            public int compare(Integer left, Integer right)
+            {
+                return Selection.this.compare(heap[left], sequences[left], heap[right], sequences[right]);
+            }
+        });
+        List<T> list = new ArrayList<T>(size);
+        for (Integer index : indexes)
+        {
+            list.add((T) heap[index]);
+        }
+        return list;
+    }
+
+    /**
+     * A collector of a bounded selection of stream elements.
+     *
+     * @param <T>
+     *            The type of element.
+     */
+    private final static class Collect<T> implements Collector<T, Selection<T>, List<T>>
+    {
+        /** The maximum number of elements collected. */
+        private final int bound;
+
+        /** The comparator that orders the elements. */
+        private final Comparator<? super T> comparator;
+
+        /**
+         * Create a collector of a bounded selection.
+         *
+         * @param bound
+         *            The maximum number of elements collected.
+         * @param comparator
+         *            The comparator that orders the elements.
+         * @exception IllegalArgumentException
+         *                If the bound is negative.
+         */
+        public Collect(int bound, Comparator<? super T> comparator)
+        {
+            if (bound < 0)
+            {
+                throw new IllegalArgumentException("Bound must not be negative.");
+            }
+            this.bound = bound;
+            this.comparator = comparator;
+        }
+
+        /**
+         * Get a supplier of empty selections.
+         *
+         * @return A supplier of empty selections.
+         */
+        public Supplier<Selection<T>> supplier()
+        {
+            return new Supplier<Selection<T>>()
+            {
+                public Selection<T> get()
+                {
+                    return new Selection<T>(bound, comparator);
+                }
+            };
+        }
+
+        /**
+         * Get a function that offers an element to a selection.
+         *
+         * @return The accumulator.
+         */
+        public BiConsumer<Selection<T>, T> accumulator()
+        {
+            return new BiConsumer<Selection<T>, T>()
+            {
+                public void accept(Selection<T> selection, T element)
+                {
+                    selection.offer(element);
+                }
+            };
+        }
+
+        /**
+         * Get a function that merges the right selection into the left, so
+         * that of elements that compare as equal, the earliest in encounter
+         * order is preferred.
+         *
+         * @return The combiner.
+         */
+        public BinaryOperator<Selection<T>> combiner()
+        {
+            return new BinaryOperator<Selection<T>>()
+            {
+                public Selection<T> apply(Selection<T> left, Selection<T> right)
+                {
+                    left.addAll(right);
+                    return left;
+                }
+            };
+        }
+
+        /**
+         * Get a function that converts a selection into an ordered list.
+         *
+         * @return The finisher.
+         */
+        public Function<Selection<T>, List<T>> finisher()
+        {
+            return new Function<Selection<T>, List<T>>()
+            {
+                public List<T> apply(Selection<T> selection)
+                {
+                    return selection.toList();
+                }
+            };
+        }
+
+        /**
+         * Get the characteristics of the collector, which has none.
+         *
+         * @return The characteristics of the collector.
+         */
+        public Set<Characteristics> characteristics()
+        {
+            return EnumSet.noneOf(Characteristics.class);
+        }
+    }
+}
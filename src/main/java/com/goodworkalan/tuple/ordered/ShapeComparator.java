@@ -0,0 +1,419 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Comparator;
+
+import com.mallardsoft.tuple.Tuple;
+import com.mallardsoft.tuple.Variable;
+
+/**
+ * A template for a straight-line comparator of tuples of up to ten members.
+ * <p>
+ * Each member is compared by its own method, so each member comparison has
+ * its own <code>compareTo</code> call site. The {@link Specializer} loads a
+ * fresh copy of this class for each tuple shape, so that every shape has its
+ * own type profile and the JIT can inline the <code>compareTo</code> of the
+ * member types the shape actually contains.
+ * <p>
+ * This class must only reference itself and public classes, since its copies
+ * are defined in their own class loaders and do not share the runtime package
+ * of the library.
+ * 
+ * @author Alan Gutierrez
+ */
+final class ShapeComparator implements Comparator<Object>
+{
+    /** The largest number of members compared. */
+    public final static int MAXIMUM_ARITY = 10;
+
+    /** The variable that ignores the first member when a tuple is split. */
+    private final Variable<Object> discard;
+
+    /** The number of members compared. */
+    private final int arity;
+
+    /** Whether each member is ordered from greatest to least. */
+    private final boolean[] descending;
+
+    /** Whether null members are ordered after non-null members. */
+    private final boolean[] nullsLast;
+
+    /** Whether each member is a primitive that must not be null. */
+    private final boolean[] primitive;
+
+    /**
+     * Create a straight-line comparator.
+     * 
+     * @param descending
+     *            Whether each member is ordered from greatest to least.
+     * @param nullsLast
+     *            Whether null members are ordered after non-null members.
+     * @param primitive
+     *            Whether each member is a primitive that must not be null.
+     * @param discard
+     *            A variable that ignores the values set, since this class
+     *            cannot reach the one in the library package.
+     */
+    public ShapeComparator(boolean[] descending, boolean[] nullsLast, boolean[] primitive, Variable<Object> discard)
+    {
+        this.discard = discard;
+        this.arity = descending.length;
+        this.descending = descending;
+        this.nullsLast = nullsLast;
+        this.primitive = primitive;
+    }
+
+    /**
+     * Get the remainder of the given tuple after the first member.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @return The remainder of the tuple.
+     */
+    @SuppressWarnings("unchecked")
+    private Tuple<?, ?> rest(Tuple<?, ?> tuple)
+    {
+        return (Tuple<?, ?>) ((Tuple<Object, ?>) tuple).extract(discard);
+    }
+
+    /**
+     * Order the given members when either is null.
+     * 
+     * @param index
+     *            The member index.
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         member is ordered before, the same as, or after the right member.
+     * @exception NullPointerException
+     *                If the member is a primitive.
+     */
+    private int nulls(int index, Object left, Object right)
+    {
+        if (primitive[index])
+        {
+            throw new NullPointerException();
+        }
+        if (left == null)
+        {
+            return right == null ? 0 : nullsLast[index] ? 1 : -1;
+        }
+        return nullsLast[index] ? -1 : 1;
+    }
+
+    /**
+     * Compare the given tuples member by member.
+     * 
+     * @param left
+     *            The left tuple.
+     * @param right
+     *            The right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         tuple is less than, equal to, or greater than the right tuple.
+     */
+    public int compare(Object left, Object right)
+    {
+        Tuple<?, ?> l = (Tuple<?, ?>) left;
+        Tuple<?, ?> r = (Tuple<?, ?>) right;
+        int compare = member0(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 1)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member1(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 2)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member2(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 3)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member3(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 4)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member4(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 5)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member5(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 6)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member6(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 7)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member7(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 8)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member8(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 9)
+        {
+            return compare;
+        }
+        l = rest(l);
+        r = rest(r);
+        compare = member9(Tuple.get1(l), Tuple.get1(r));
+        if (compare != 0 || arity == 10)
+        {
+            return compare;
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Compare member 1.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member0(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(0, left, right);
+        }
+        if (descending[0])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 2.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member1(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(1, left, right);
+        }
+        if (descending[1])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 3.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member2(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(2, left, right);
+        }
+        if (descending[2])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 4.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member3(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(3, left, right);
+        }
+        if (descending[3])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 5.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member4(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(4, left, right);
+        }
+        if (descending[4])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 6.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member5(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(5, left, right);
+        }
+        if (descending[5])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 7.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member6(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(6, left, right);
+        }
+        if (descending[6])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 8.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member7(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(7, left, right);
+        }
+        if (descending[7])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 9.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member8(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(8, left, right);
+        }
+        if (descending[8])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+
+    /**
+     * Compare member 10.
+     * 
+     * @param left
+     *            The member of the left tuple.
+     * @param right
+     *            The member of the right tuple.
+     * @return The comparison of the members.
+     */
+    @SuppressWarnings("unchecked")
+    private int member9(Object left, Object right)
+    {
+        if (left == null || right == null)
+        {
+            return nulls(9, left, right);
+        }
+        if (descending[9])
+        {
+            return ((Comparable<Object>) right).compareTo(left);
+        }
+        return ((Comparable<Object>) left).compareTo(right);
+    }
+}
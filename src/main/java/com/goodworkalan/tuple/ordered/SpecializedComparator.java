@@ -0,0 +1,54 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Comparator;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * A tuple comparator that compares tuples with a straight-line comparator
+ * generated for their shape and compares prefix bounds with the tuple
+ * comparison.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple to compare.
+ */
+final class SpecializedComparator<T> extends TupleComparator<T>
+{
+    /** The straight-line comparator for the shape. */
+    private final Comparator<Object> shape;
+
+    /**
+     * Create a specialized tuple comparator.
+     * 
+     * @param order
+     *            The tuple comparison.
+     * @param shape
+     *            The straight-line comparator for the shape.
+     */
+    public SpecializedComparator(Order<?, ?> order, Comparator<Object> shape)
+    {
+        super(order);
+        this.shape = shape;
+    }
+
+    /**
+     * Compare the given tuples member by member.
+     * 
+     * @param left
+     *            The left tuple.
+     * @param right
+     *            The right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         tuple is less than, equal to, or greater than the right tuple.
+     */
+    public int compare(T left, T right)
+    {
+        if (left instanceof Tuple<?, ?> && right instanceof Tuple<?, ?>)
+        {
+            return shape.compare(left, right);
+        }
+        return super.compare(left, right);
+    }
+}
@@ -0,0 +1,212 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.mallardsoft.tuple.Variable;
+
+/**
+ * Creates and caches straight-line comparators for tuple shapes.
+ * <p>
+ * A shape is the member types of a tuple together with the direction, null
+ * placement and primitive comparison of each step of a tuple comparison. The
+ * comparator for a shape is an instance of a copy of {@link ShapeComparator}
+ * defined in a class loader of its own, so that the JIT profiles each shape
+ * separately. If the template class file cannot be read or a copy cannot be
+ * defined, a warning is logged and the template class itself is used, which
+ * orders tuples the same way but shares one profile.
+ * 
+ * @author Alan Gutierrez
+ */
+final class Specializer
+{
+    /** The logger that reports when a shape cannot be specialized. */
+    private final static Logger LOGGER = Logger.getLogger(Specializer.class.getName());
+
+    /** The class file of the template comparator or null if unavailable. */
+    private final static byte[] TEMPLATE = template();
+
+    /** The comparators by shape. */
+    private final static ConcurrentMap<List<Object>, Comparator<Object>> SHAPES = new ConcurrentHashMap<List<Object>, Comparator<Object>>();
+
+    /** Cannot be instantiated. */
+    private Specializer()
+    {
+    }
+
+    /**
+     * A class loader that defines one copy of the template comparator.
+     */
+    private final static class ShapeLoader extends ClassLoader
+    {
+        /**
+         * Create a shape loader that delegates to the loader of the library.
+         */
+        public ShapeLoader()
+        {
+            super(ShapeComparator.class.getClassLoader());
+        }
+
+        /**
+         * Define a copy of the template comparator.
+         * 
+         * @param template
+         *            The class file of the template comparator.
+         * @return The copy of the template comparator class.
+         */
+        public Class<?> define(byte[] template)
+        {
+            return defineClass(ShapeComparator.class.getName(), template, 0, template.length);
+        }
+    }
+
+    /**
+     * Read the class file of the template comparator.
+     * 
+     * @return The class file or null if it cannot be read.
+     */
+    private static byte[] template()
+    {
+        InputStream in = ShapeComparator.class.getResourceAsStream(ShapeComparator.class.getSimpleName() + ".class");
+        if (in == null)
+        {
+            LOGGER.warning("Unable to find the class file of " + ShapeComparator.class.getName() + ", tuple shapes will share one comparator class.");
+            return null;
+        }
+        try
+        {
+            try
+            {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1)
+                {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch (IOException e)
+        {
+            LOGGER.log(Level.WARNING, "Unable to read the class file of " + ShapeComparator.class.getName() + ", tuple shapes will share one comparator class.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Check that the given member types describe a shape of the given tuple
+     * comparison.
+     * 
+     * @param order
+     *            The tuple comparison.
+     * @param types
+     *            The member types.
+     * @exception IllegalArgumentException
+     *                If the number of types is not the number of steps in the
+     *                comparison or is greater than ten.
+     */
+    public static void validate(Order<?, ?> order, Class<?>[] types)
+    {
+        if (types.length != order.plan.length)
+        {
+            throw new IllegalArgumentException("Number of types must match the number of members compared.");
+        }
+        if (types.length > ShapeComparator.MAXIMUM_ARITY)
+        {
+            throw new IllegalArgumentException("Shapes are limited to ten members.");
+        }
+    }
+
+    /**
+     * Get the straight-line comparator for the given tuple comparison and
+     * member types, creating it if it does not exist.
+     * 
+     * @param order
+     *            The tuple comparison.
+     * @param types
+     *            The member types.
+     * @return The comparator for the shape.
+     * @exception IllegalArgumentException
+     *                If the number of types is not the number of steps in the
+     *                comparison or is greater than ten.
+     */
+    public static Comparator<Object> comparator(Order<?, ?> order, Class<?>[] types)
+    {
+        validate(order, types);
+        Order<?, ?>[] plan = order.plan;
+        boolean[] descending = new boolean[plan.length];
+        boolean[] nullsLast = new boolean[plan.length];
+        boolean[] primitive = new boolean[plan.length];
+        List<Object> shape = new ArrayList<Object>();
+        for (int i = 0; i < plan.length; i++)
+        {
+            descending[i] = plan[i].descending;
+            nullsLast[i] = plan[i].nullsLast;
+            primitive[i] = plan[i].primitive();
+            shape.add(types[i]);
+            shape.add(descending[i]);
+            shape.add(nullsLast[i]);
+            shape.add(primitive[i]);
+        }
+        Comparator<Object> comparator = SHAPES.get(shape);
+        if (comparator == null)
+        {
+            comparator = create(descending, nullsLast, primitive);
+            Comparator<Object> existing = SHAPES.putIfAbsent(shape, comparator);
+            if (existing != null)
+            {
+                comparator = existing;
+            }
+        }
+        return comparator;
+    }
+
+    /**
+     * Create a straight-line comparator in a copy of the template class.
+     * 
+     * @param descending
+     *            Whether each member is ordered from greatest to least.
+     * @param nullsLast
+     *            Whether null members are ordered after non-null members.
+     * @param primitive
+     *            Whether each member is a primitive that must not be null.
+     * @return A new straight-line comparator.
+     */
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> create(boolean[] descending, boolean[] nullsLast, boolean[] primitive)
+    {
+        if (TEMPLATE != null)
+        {
+            try
+            {
+                Class<?> copy = new ShapeLoader().define(TEMPLATE);
+                Constructor<?> constructor = copy.getConstructor(boolean[].class, boolean[].class, boolean[].class, Variable.class);
+                constructor.setAccessible(true);
+                return (Comparator<Object>) constructor.newInstance(descending, nullsLast, primitive, Tuples.DISCARD);
+            }
+            catch (Exception e)
+            {
+                LOGGER.log(Level.WARNING, "Unable to define a comparator class for a tuple shape, using the shared template.", e);
+            }
+            catch (LinkageError e)
+            {
+                LOGGER.log(Level.WARNING, "Unable to define a comparator class for a tuple shape, using the shared template.", e);
+            }
+        }
+        return new ShapeComparator(descending, nullsLast, primitive, Tuples.DISCARD);
+    }
+}
@@ -0,0 +1,223 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable, order-preserving dictionary of strings.
+ * <p>
+ * Each string in the dictionary is mapped to an integer code that is its
+ * index in the sorted strings, so codes order the same way as the strings
+ * they encode. A tuple member can store the code of a string instead of the
+ * string, and a tuple comparison can compare it with an <code>Integer</code>
+ * step, created with {@link Order#prepend()} or, for members that are never
+ * null, {@link Order#prependInt()}, which is much cheaper than comparing
+ * strings character by character. Codes are shared boxed integers, so
+ * encoding allocates nothing and repeated strings cost one reference each.
+ * <p>
+ * Null encodes to null, so null placement is left to the step. Codes are only
+ * meaningful within the dictionary that created them. Adding strings with
+ * {@link #with(Collection)} creates a new dictionary whose codes differ, and
+ * {@link #mapping(StringDictionary)} translates codes of the old dictionary.
+ * 
+ * @author Alan Gutierrez
+ */
+public final class StringDictionary
+{
+    /** The distinct strings in sorted order. */
+    private final String[] strings;
+
+    /** The shared boxed code of each string. */
+    private final Integer[] codes;
+
+    /**
+     * Create a dictionary of the given strings. Null strings are ignored.
+     * 
+     * @param strings
+     *            The strings.
+     */
+    public StringDictionary(Collection<String> strings)
+    {
+        this(distinct(strings));
+    }
+
+    /**
+     * Create a dictionary of the given distinct sorted strings.
+     * 
+     * @param strings
+     *            The distinct sorted strings.
+     */
+    private StringDictionary(String[] strings)
+    {
+        this.strings = strings;
+        this.codes = new Integer[strings.length];
+        for (int i = 0; i < strings.length; i++)
+        {
+            codes[i] = Integer.valueOf(i);
+        }
+    }
+
+    /**
+     * Sort the given strings and remove duplicates and nulls.
+     * 
+     * @param collection
+     *            The strings.
+     * @return The distinct sorted strings.
+     */
+    private static String[] distinct(Collection<String> collection)
+    {
+        String[] strings = new String[collection.size()];
+        int count = 0;
+        for (String string : collection)
+        {
+            if (string != null)
+            {
+                strings[count++] = string;
+            }
+        }
+        Arrays.sort(strings, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (distinct == 0 || !strings[distinct - 1].equals(strings[i]))
+            {
+                strings[distinct++] = strings[i];
+            }
+        }
+        return Arrays.copyOf(strings, distinct);
+    }
+
+    /**
+     * Create a dictionary of the strings in this dictionary and the given
+     * strings. The strings of this dictionary are already sorted, so they are
+     * merged with the sorted new strings and not sorted again.
+     * 
+     * @param added
+     *            The strings to add.
+     * @return A new dictionary.
+     */
+    public StringDictionary with(Collection<String> added)
+    {
+        String[] more = distinct(added);
+        String[] merged = new String[strings.length + more.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < strings.length || j < more.length)
+        {
+            int compare = i == strings.length ? 1 : j == more.length ? -1 : strings[i].compareTo(more[j]);
+            if (compare <= 0)
+            {
+                merged[count++] = strings[i++];
+                if (compare == 0)
+                {
+                    j++;
+                }
+            }
+            else
+            {
+                merged[count++] = more[j++];
+            }
+        }
+        return new StringDictionary(Arrays.copyOf(merged, count));
+    }
+
+    /**
+     * Get the number of strings in the dictionary.
+     * 
+     * @return The number of strings.
+     */
+    public int size()
+    {
+        return strings.length;
+    }
+
+    /**
+     * Return true if the given string is in the dictionary.
+     * 
+     * @param string
+     *            The string.
+     * @return True if the string is in the dictionary.
+     */
+    public boolean contains(String string)
+    {
+        return string != null && Arrays.binarySearch(strings, string) >= 0;
+    }
+
+    /**
+     * Get the code of the given string.
+     * 
+     * @param string
+     *            The string.
+     * @return The shared code of the string or null if the string is null.
+     * @exception IllegalArgumentException
+     *                If the string is not in the dictionary.
+     */
+    public Integer encode(String string)
+    {
+        if (string == null)
+        {
+            return null;
+        }
+        int index = Arrays.binarySearch(strings, string);
+        if (index < 0)
+        {
+            throw new IllegalArgumentException("String is not in the dictionary.");
+        }
+        return codes[index];
+    }
+
+    /**
+     * Get the string of the given code.
+     * 
+     * @param code
+     *            The code.
+     * @return The string or null if the code is null.
+     * @exception IllegalArgumentException
+     *                If the code is not in the dictionary.
+     */
+    public String decode(Integer code)
+    {
+        if (code == null)
+        {
+            return null;
+        }
+        if (code < 0 || code >= strings.length)
+        {
+            throw new IllegalArgumentException("Code is not in the dictionary.");
+        }
+        return strings[code];
+    }
+
+    /**
+     * Create a table that translates the codes of the given older dictionary
+     * into the codes of this dictionary, such as after adding strings with
+     * {@link #with(Collection)}. The element at the index of an old code is
+     * the new code.
+     * 
+     * @param older
+     *            The older dictionary.
+     * @return A table of new codes indexed by old code.
+     * @exception IllegalArgumentException
+     *                If a string of the older dictionary is not in this
+     *                dictionary.
+     */
+    public int[] mapping(StringDictionary older)
+    {
+        int[] mapping = new int[older.strings.length];
+        int j = 0;
+        for (int i = 0; i < older.strings.length; i++)
+        {
+            while (j < strings.length && strings[j].compareTo(older.strings[i]) < 0)
+            {
+                j++;
+            }
+            if (j == strings.length || !strings[j].equals(older.strings[i]))
+            {
+                throw new IllegalArgumentException("String is not in the dictionary.");
+            }
+            mapping[i] = j;
+        }
+        return mapping;
+    }
+}
@@ -0,0 +1,444 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.Comparator;
+
+import com.mallardsoft.tuple.Decuple;
+import com.mallardsoft.tuple.Nonuple;
+import com.mallardsoft.tuple.Octuple;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Quadruple;
+import com.mallardsoft.tuple.Quintuple;
+import com.mallardsoft.tuple.Septuple;
+import com.mallardsoft.tuple.Sextuple;
+import com.mallardsoft.tuple.Single;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * A comparator that orders tuples member by member using a tuple comparison.
+ * Tuple comparators are stateless and can be shared between threads, so a
+ * single comparator can order a sorted array, a tree map or a concurrent skip
+ * list map of tuples without wrapping each tuple in an {@link Ordered}.
+ * <p>
+ * The type of object compared is not bounded by tuple so that a tuple
+ * comparator can also compare the prefix bounds that {@link Prefixes} uses to
+ * create range views of sorted sets and maps.
+ * 
+ * @author Alan Gutierrez
+ * 
+ * @param <T>
+ *            The type of tuple to compare.
+ */
+public class TupleComparator<T> implements Comparator<T>
+{
+    /** The shared tuple comparators indexed by arity. */
+    private final static TupleComparator<?>[] COMPARATORS = comparators(10);
+
+    /** The tuple comparison. */
+    private final Order<?, ?> order;
+
+    /**
+     * Create a tuple comparator that uses the given tuple comparison.
+     * 
+     * @param order
+     *            The tuple comparison.
+     */
+    TupleComparator(Order<?, ?> order)
+    {
+        this.order = order;
+    }
+
+    /**
+     * Get the tuple comparison.
+     * 
+     * @return The tuple comparison.
+     */
+    Order<?, ?> getOrder()
+    {
+        return order;
+    }
+
+    /**
+     * Build the shared tuple comparators for tuples of one member up to tuples
+     * of the given number of members.
+     * 
+     * @param arity
+     *            The largest tuple arity.
+     * @return An array of tuple comparators indexed by arity.
+     */
+    private static TupleComparator<?>[] comparators(int arity)
+    {
+        TupleComparator<?>[] comparators = new TupleComparator<?>[arity + 1];
+        for (int i = 1; i <= arity; i++)
+        {
+            comparators[i] = new TupleComparator<Tuple<?, ?>>(Ordered.chain(i));
+        }
+        return comparators;
+    }
+
+    /**
+     * Get the shared tuple comparator for tuples of the given arity.
+     * 
+     * @param <T>
+     *            The type of tuple to compare.
+     * @param arity
+     *            The tuple arity.
+     * @return The shared tuple comparator.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> TupleComparator<T> comparator(int arity)
+    {
+        return (TupleComparator<T>) COMPARATORS[arity];
+    }
+
+    /**
+     * Compare the given tuples member by member.
+     * 
+     * @param left
+     *            The left tuple.
+     * @param right
+     *            The right tuple.
+     * @return A negative integer, zero, or a positive integer as the left
+     *         tuple is less than, equal to, or greater than the right tuple.
+     */
+    public int compare(T left, T right)
+    {
+        if (left instanceof PrefixBound<?>)
+        {
+            return ((PrefixBound<?>) left).compareToObject(right);
+        }
+        if (right instanceof PrefixBound<?>)
+        {
+            return -((PrefixBound<?>) right).compareToObject(left);
+        }
+        return order.compareTuples((Tuple<?, ?>) left, (Tuple<?, ?>) right);
+    }
+
+    /**
+     * Create a tuple comparator that orders tuples using the given tuple
+     * comparison.
+     * 
+     * @param <First>
+     *            The type of the first tuple member.
+     * @param <Rest>
+     *            The type of the remainder of the tuple.
+     * @param <T>
+     *            The type of tuple to compare.
+     * @param order
+     *            The tuple comparison.
+     * @return A tuple comparator.
+     */
+    public static <First extends Comparable<First>, Rest, T extends Tuple<First, Rest>> TupleComparator<T> of(Order<First, Rest> order)
+    {
+        return new TupleComparator<T>(order);
+    }
+
+    /**
+     * Create a tuple comparator that orders tuples using the given tuple
+     * comparison with a straight-line comparator generated for the shape of
+     * the tuple, which is the given member types together with the direction
+     * and null placement of each step.
+     * <p>
+     * Comparators for the same shape share a generated class, and each shape
+     * has a class of its own, so the JIT can inline the member comparisons
+     * of each shape instead of seeing every member type at every step of an
+     * interpreted comparison. Tuples are ordered exactly as the tuple
+     * comparison orders them. The member types only distinguish shapes, so a
+     * member of another type is still compared correctly, though more slowly.
+     * An instrumented comparison is not specialized.
+     * 
+     * @param <First>
+     *            The type of the first tuple member.
+     * @param <Rest>
+     *            The type of the remainder of the tuple.
+     * @param <T>
+     *            The type of tuple to compare.
+     * @param order
+     *            The tuple comparison.
+     * @param types
+     *            The type of each tuple member.
+     * @return A specialized tuple comparator.
+     * @exception IllegalArgumentException
+     *                If the number of types is not the number of members
+     *                compared or is greater than ten.
+     */
+    public static <First extends Comparable<First>, Rest, T extends Tuple<First, Rest>> TupleComparator<T> specialize(Order<First, Rest> order, Class<?>... types)
+    {
+        Specializer.validate(order, types);
+        if (order.statistics != null)
+        {
+            return new TupleComparator<T>(order);
+        }
+        return new SpecializedComparator<T>(order, Specializer.comparator(order, types));
+    }
+
+    /**
+     * Get the shared comparator for <code>Single</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Single</code> tuple.
+     * @return A comparator for <code>Single</code> tuples.
+     */
+    public static <A extends Comparable<A>> TupleComparator<Single<A>> single()
+    {
+        return comparator(1);
+    }
+
+    /**
+     * Get the shared comparator for <code>Pair</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Pair</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Pair</code> tuple.
+     * @return A comparator for <code>Pair</code> tuples.
+     */
+    public static <A extends Comparable<A>, B extends Comparable<B>> TupleComparator<Pair<A, B>> pair()
+    {
+        return comparator(2);
+    }
+
+    /**
+     * Get the shared comparator for <code>Triple</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Triple</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Triple</code> tuple.
+     * @param <C>
+     *            The third parameter in the <code>Triple</code> tuple.
+     * @return A comparator for <code>Triple</code> tuples.
+     */
+    public static <
+        A extends Comparable<A>,
+        B extends Comparable<B>,
+        C extends Comparable<C>
+    > TupleComparator<Triple<A, B, C>> triple()
+    {
+        return comparator(3);
+    }
+
+    /**
+     * Get the shared comparator for <code>Quadruple</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Quadruple</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Quadruple</code> tuple.
+     * @param <C>
+     *            The third parameter in the <code>Quadruple</code> tuple.
+     * @param <D>
+     *            The fourth parameter in the <code>Quadruple</code> tuple.
+     * @return A comparator for <code>Quadruple</code> tuples.
+     */
+    public static <
+        A extends Comparable<A>,
+        B extends Comparable<B>,
+        C extends Comparable<C>,
+        D extends Comparable<D>
+    > TupleComparator<Quadruple<A, B, C, D>> quadruple()
+    {
+        return comparator(4);
+    }
+
+    /**
+     * Get the shared comparator for <code>Quintuple</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Quintuple</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Quintuple</code> tuple.
+     * @param <C>
+     *            The third parameter in the <code>Quintuple</code> tuple.
+     * @param <D>
+     *            The fourth parameter in the <code>Quintuple</code> tuple.
+     * @param <E>
+     *            The fifth parameter in the <code>Quintuple</code> tuple.
+     * @return A comparator for <code>Quintuple</code> tuples.
+     */
+    public static <
+        A extends Comparable<A>,
+        B extends Comparable<B>,
+        C extends Comparable<C>,
+        D extends Comparable<D>,
+        E extends Comparable<E>
+    > TupleComparator<Quintuple<A, B, C, D, E>> quintuple()
+    {
+        return comparator(5);
+    }
+
+    /**
+     * Get the shared comparator for <code>Sextuple</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Sextuple</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Sextuple</code> tuple.
+     * @param <C>
+     *            The third parameter in the <code>Sextuple</code> tuple.
+     * @param <D>
+     *            The fourth parameter in the <code>Sextuple</code> tuple.
+     * @param <E>
+     *            The fifth parameter in the <code>Sextuple</code> tuple.
+     * @param <F>
+     *            The sixth parameter in the <code>Sextuple</code> tuple.
+     * @return A comparator for <code>Sextuple</code> tuples.
+     */
+    public static <
+        A extends Comparable<A>,
+        B extends Comparable<B>,
+        C extends Comparable<C>,
+        D extends Comparable<D>,
+        E extends Comparable<E>,
+        F extends Comparable<F>
+    > TupleComparator<Sextuple<A, B, C, D, E, F>> sextuple()
+    {
+        return comparator(6);
+    }
+
+    /**
+     * Get the shared comparator for <code>Septuple</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Septuple</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Septuple</code> tuple.
+     * @param <C>
+     *            The third parameter in the <code>Septuple</code> tuple.
+     * @param <D>
+     *            The fourth parameter in the <code>Septuple</code> tuple.
+     * @param <E>
+     *            The fifth parameter in the <code>Septuple</code> tuple.
+     * @param <F>
+     *            The sixth parameter in the <code>Septuple</code> tuple.
+     * @param <G>
+     *            The seventh parameter in the <code>Septuple</code> tuple.
+     * @return A comparator for <code>Septuple</code> tuples.
+     */
+    public static <
+        A extends Comparable<A>,
+        B extends Comparable<B>,
+        C extends Comparable<C>,
+        D extends Comparable<D>,
+        E extends Comparable<E>,
+        F extends Comparable<F>,
+        G extends Comparable<G>
+    > TupleComparator<Septuple<A, B, C, D, E, F, G>> septuple()
+    {
+        return comparator(7);
+    }
+
+    /**
+     * Get the shared comparator for <code>Octuple</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Octuple</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Octuple</code> tuple.
+     * @param <C>
+     *            The third parameter in the <code>Octuple</code> tuple.
+     * @param <D>
+     *            The fourth parameter in the <code>Octuple</code> tuple.
+     * @param <E>
+     *            The fifth parameter in the <code>Octuple</code> tuple.
+     * @param <F>
+     *            The sixth parameter in the <code>Octuple</code> tuple.
+     * @param <G>
+     *            The seventh parameter in the <code>Octuple</code> tuple.
+     * @param <H>
+     *            The eighth parameter in the <code>Octuple</code> tuple.
+     * @return A comparator for <code>Octuple</code> tuples.
+     */
+    public static <
+        A extends Comparable<A>,
+        B extends Comparable<B>,
+        C extends Comparable<C>,
+        D extends Comparable<D>,
+        E extends Comparable<E>,
+        F extends Comparable<F>,
+        G extends Comparable<G>,
+        H extends Comparable<H>
+    > TupleComparator<Octuple<A, B, C, D, E, F, G, H>> octuple()
+    {
+        return comparator(8);
+    }
+
+    /**
+     * Get the shared comparator for <code>Nonuple</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Nonuple</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Nonuple</code> tuple.
+     * @param <C>
+     *            The third parameter in the <code>Nonuple</code> tuple.
+     * @param <D>
+     *            The fourth parameter in the <code>Nonuple</code> tuple.
+     * @param <E>
+     *            The fifth parameter in the <code>Nonuple</code> tuple.
+     * @param <F>
+     *            The sixth parameter in the <code>Nonuple</code> tuple.
+     * @param <G>
+     *            The seventh parameter in the <code>Nonuple</code> tuple.
+     * @param <H>
+     *            The eighth parameter in the <code>Nonuple</code> tuple.
+     * @param <I>
+     *            The ninth parameter in the <code>Nonuple</code> tuple.
+     * @return A comparator for <code>Nonuple</code> tuples.
+     */
+    public static <
+        A extends Comparable<A>,
+        B extends Comparable<B>,
+        C extends Comparable<C>,
+        D extends Comparable<D>,
+        E extends Comparable<E>,
+        F extends Comparable<F>,
+        G extends Comparable<G>,
+        H extends Comparable<H>,
+        I extends Comparable<I>
+    > TupleComparator<Nonuple<A, B, C, D, E, F, G, H, I>> nonuple()
+    {
+        return comparator(9);
+    }
+
+    /**
+     * Get the shared comparator for <code>Decuple</code> tuples.
+     * 
+     * @param <A>
+     *            The first parameter in the <code>Decuple</code> tuple.
+     * @param <B>
+     *            The second parameter in the <code>Decuple</code> tuple.
+     * @param <C>
+     *            The third parameter in the <code>Decuple</code> tuple.
+     * @param <D>
+     *            The fourth parameter in the <code>Decuple</code> tuple.
+     * @param <E>
+     *            The fifth parameter in the <code>Decuple</code> tuple.
+     * @param <F>
+     *            The sixth parameter in the <code>Decuple</code> tuple.
+     * @param <G>
+     *            The seventh parameter in the <code>Decuple</code> tuple.
+     * @param <H>
+     *            The eighth parameter in the <code>Decuple</code> tuple.
+     * @param <I>
+     *            The ninth parameter in the <code>Decuple</code> tuple.
+     * @param <J>
+     *            The tenth parameter in the <code>Decuple</code> tuple.
+     * @return A comparator for <code>Decuple</code> tuples.
+     */
+    public static <
+        A extends Comparable<A>,
+        B extends Comparable<B>,
+        C extends Comparable<C>,
+        D extends Comparable<D>,
+        E extends Comparable<E>,
+        F extends Comparable<F>,
+        G extends Comparable<G>,
+        H extends Comparable<H>,
+        I extends Comparable<I>,
+        J extends Comparable<J>
+    > TupleComparator<Decuple<A, B, C, D, E, F, G, H, I, J>> decuple()
+    {
+        return comparator(10);
+    }
+}
@@ -0,0 +1,146 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * A concurrent sorted index of tuples to values.
+ * <p>
+ * The index is a concurrent skip list ordered by a {@link TupleComparator}, so
+ * tuples are stored as keys directly, without an {@link Ordered} wrapper.
+ * Lookups are lock-free and insertions and removals scale across threads.
+ * Prefix scans seek to a prefix bound in logarithmic time and return weakly
+ * consistent views that reflect concurrent updates without throwing
+ * <code>ConcurrentModificationException</code>.
+ * <p>
+ * The key type is unbounded, like that of {@link TupleComparator}, so that
+ * prefix bounds can be passed to the skip list in place of tuple keys.
+ *
+ * @author Alan Gutierrez
+ *
+ * @param <K>
+ *            The type of tuple key.
+ * @param <V>
+ *            The type of value.
+ */
+public class TupleIndex<K, V>
+{
+    /** The tuple comparison that orders the index. */
+    private final Order<?, ?> order;
+
+    /** The skip list. */
+    private final ConcurrentSkipListMap<K, V> map;
+
+    /**
+     * Create an empty index ordered by the given tuple comparator.
+     *
+     * @param comparator
+     *            The tuple comparator.
+     */
+    public TupleIndex(TupleComparator<K> comparator)
+    {
+        this.order = comparator.getOrder();
+        this.map = new ConcurrentSkipListMap<K, V>(comparator);
+    }
+
+    /**
+     * Get the value mapped to the given tuple.
+     *
+     * @param key
+     *            The tuple.
+     * @return The value or null if the tuple is not in the index.
+     */
+    public V get(K key)
+    {
+        return map.get(key);
+    }
+
+    /**
+     * Return true if the given tuple is in the index.
+     *
+     * @param key
+     *            The tuple.
+     * @return True if the tuple is in the index.
+     */
+    public boolean containsKey(K key)
+    {
+        return map.containsKey(key);
+    }
+
+    /**
+     * Map the given tuple to the given value.
+     *
+     * @param key
+     *            The tuple.
+     * @param value
+     *            The value.
+     * @return The previous value or null if the tuple was not in the index.
+     */
+    public V put(K key, V value)
+    {
+        return map.put(key, value);
+    }
+
+    /**
+     * Map the given tuple to the given value if the tuple is not already in
+     * the index.
+     *
+     * @param key
+     *            The tuple.
+     * @param value
+     *            The value.
+     * @return The current value or null if the tuple was added.
+     */
+    public V putIfAbsent(K key, V value)
+    {
+        return map.putIfAbsent(key, value);
+    }
+
+    /**
+     * Remove the given tuple from the index.
+     *
+     * @param key
+     *            The tuple.
+     * @return The removed value or null if the tuple was not in the index.
+     */
+    public V remove(K key)
+    {
+        return map.remove(key);
+    }
+
+    /**
+     * Get the number of tuples in the index. This walks the index and is not
+     * exact while the index is being updated.
+     *
+     * @return The number of tuples in the index.
+     */
+    public int size()
+    {
+        return map.size();
+    }
+
+    /**
+     * Get a weakly consistent view of the mappings whose tuples begin with the
+     * given prefix, in tuple order.
+     *
+     * @param prefix
+     *            The prefix.
+     * @return A view of the mappings whose tuples begin with the prefix.
+     */
+    public ConcurrentNavigableMap<K, V> prefix(Tuple<?, ?> prefix)
+    {
+        return map.subMap(Prefixes.<K>bound(prefix, order, false), true, Prefixes.<K>bound(prefix, order, true), true);
+    }
+
+    /**
+     * Get a weakly consistent view of the whole index, in tuple order.
+     *
+     * @return A view of the index.
+     */
+    public ConcurrentNavigableMap<K, V> asMap()
+    {
+        return map;
+    }
+}
@@ -0,0 +1,622 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * An immutable sorted table of tuples in a memory-mapped file written by
+ * {@link TupleTableWriter}.
+ * <p>
+ * Tuples are stored as their binary keys from {@link Keys}, so the table is
+ * in the order of {@link Ordered} tuples. A lookup checks the Bloom filter, if
+ * the table has one, then binary searches the first keys of the blocks
+ * in place in the mapped file and scans a single block, comparing the
+ * prefix-compressed keys with the encoded lookup key. Only the footer of the
+ * file is read onto the heap when the table is opened, so a table can be far
+ * larger than the heap and opening it costs the same regardless of its size.
+ * Keys are decoded into tuples only when a tuple is returned by an iterator.
+ * <p>
+ * The file is read with absolute gets on a read-only mapping, so a table can
+ * be read by any number of threads at once. The mapping is released when the
+ * table is garbage collected.
+ *
+ * @author Alan Gutierrez
+ *
+ * @param <T>
+ *            The type of tuple.
+ */
+public class TupleTable<T extends Tuple<?, ?>> implements Iterable<T>
+{
+    /** The magic number at the start of the footer. */
+    final static int MAGIC = 0x54555042;
+
+    /** The version of the file format. */
+    final static int VERSION = 1;
+
+    /** The length of the footer in bytes. */
+    final static int FOOTER_LENGTH = 40;
+
+    /** The mapped table file. */
+    private final MappedByteBuffer buffer;
+
+    /** The number of tuples. */
+    private final long count;
+
+    /** The offset of the block index. */
+    private final int indexOffset;
+
+    /** The number of blocks. */
+    private final int blocks;
+
+    /** The offset of the Bloom filter. */
+    private final int bloomOffset;
+
+    /** The number of bits in the Bloom filter or zero. */
+    private final long bloomBits;
+
+    /** The number of Bloom filter hashes. */
+    private final int bloomHashes;
+
+    /** The number of leading members in the Bloom filter or zero. */
+    private final int bloomMembers;
+
+    /**
+     * Open and map the given table file.
+     *
+     * @param file
+     *            The table file.
+     * @exception IOException
+     *                If the file cannot be read, is larger than two gigabytes
+     *                or is not a table file.
+     */
+    public TupleTable(File file) throws IOException
+    {
+        RandomAccessFile random = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = random.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException("Table file " + file + " is larger than two gigabytes.");
+            }
+            if (size < FOOTER_LENGTH)
+            {
+                throw new IOException("Table file " + file + " is truncated.");
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        finally
+        {
+            random.close();
+        }
+        int footer = buffer.capacity() - FOOTER_LENGTH;
+        if (buffer.getInt(footer) != MAGIC || buffer.getInt(footer + 4) != VERSION)
+        {
+            throw new IOException("File " + file + " is not a table file.");
+        }
+        this.count = buffer.getLong(footer + 8);
+        this.indexOffset = buffer.getInt(footer + 16);
+        this.blocks = buffer.getInt(footer + 20);
+        this.bloomOffset = buffer.getInt(footer + 24);
+        this.bloomBits = buffer.getInt(footer + 28) * 8L;
+        this.bloomHashes = buffer.getInt(footer + 32);
+        this.bloomMembers = buffer.getInt(footer + 36);
+    }
+
+    /**
+     * Get the length in bytes of the binary key of the given number of leading
+     * members of the given tuple, or of the whole tuple if it has fewer
+     * members.
+     *
+     * @param tuple
+     *            The tuple.
+     * @param members
+     *            The number of leading members.
+     * @return The length of the binary key of the leading members.
+     */
+    static int prefixLength(Tuple<?, ?> tuple, int members)
+    {
+        int length = 0;
+        Object rest = tuple;
+        for (int i = 0; i < members && rest instanceof Tuple<?, ?>; i++)
+        {
+            length += Keys.length(Tuples.first((Tuple<?, ?>) rest));
+            rest = Tuples.rest((Tuple<?, ?>) rest);
+        }
+        return length;
+    }
+
+    /**
+     * Get a 64-bit hash of the given bytes using FNV-1a followed by the
+     * MurmurHash3 finalizer to spread the bits.
+     *
+     * @param key
+     *            The bytes.
+     * @param length
+     *            The number of bytes to hash.
+     * @return The hash.
+     */
+    private static long hash(byte[] key, int length)
+    {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++)
+        {
+            hash ^= key[i] & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Get the Bloom filter bit for the given hash function by double hashing.
+     *
+     * @param hash
+     *            The 64-bit hash of the key.
+     * @param i
+     *            The index of the hash function.
+     * @param bits
+     *            The number of bits in the Bloom filter.
+     * @return The index of the bit.
+     */
+    private static long bit(long hash, int i, long bits)
+    {
+        long combined = (hash & 0xFFFFFFFFL) + i * (hash >>> 32);
+        return (combined & Long.MAX_VALUE) % bits;
+    }
+
+    /**
+     * Add the given bytes of a binary key to a Bloom filter.
+     *
+     * @param bloom
+     *            The Bloom filter.
+     * @param hashes
+     *            The number of hash functions.
+     * @param key
+     *            The binary key.
+     * @param length
+     *            The number of bytes to add.
+     */
+    static void addBloom(byte[] bloom, int hashes, byte[] key, int length)
+    {
+        long hash = hash(key, length);
+        long bits = bloom.length * 8L;
+        for (int i = 0; i < hashes; i++)
+        {
+            long bit = bit(hash, i, bits);
+            bloom[(int) (bit >>> 3)] |= 1 << (bit & 7);
+        }
+    }
+
+    /**
+     * Determine whether the given bytes of a binary key may have been added to
+     * the Bloom filter of the table.
+     *
+     * @param key
+     *            The binary key.
+     * @param length
+     *            The number of bytes to check.
+     * @return False if the bytes were certainly not added.
+     */
+    private boolean mightContain(byte[] key, int length)
+    {
+        long hash = hash(key, length);
+        for (int i = 0; i < bloomHashes; i++)
+        {
+            long bit = bit(hash, i, bloomBits);
+            if ((buffer.get(bloomOffset + (int) (bit >>> 3)) & (1 << (bit & 7))) == 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of tuples in the table.
+     *
+     * @return The number of tuples.
+     */
+    public long size()
+    {
+        return count;
+    }
+
+    /**
+     * Get the offset of the given block.
+     *
+     * @param block
+     *            The block.
+     * @return The offset of the block.
+     */
+    private int blockOffset(int block)
+    {
+        return buffer.getInt(indexOffset + block * 4);
+    }
+
+    /**
+     * Find the last block whose first key is less than the given key, or less
+     * than or equal to the given key if inclusive.
+     *
+     * @param key
+     *            The binary key.
+     * @param length
+     *            The length of the binary key.
+     * @param inclusive
+     *            Whether a block whose first key is equal to the key is a
+     *            match.
+     * @return The block or zero if there is no such block.
+     */
+    private int search(byte[] key, int length, boolean inclusive)
+    {
+        int low = 0;
+        int high = blocks - 1;
+        int found = 0;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int position = blockOffset(mid);
+            // The first key of a block shares nothing with a previous key.
+            position++;
+            int keyLength = 0;
+            int shift = 0;
+            int b;
+            do
+            {
+                b = buffer.get(position++);
+                keyLength |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while ((b & 0x80) != 0);
+            int compare = compare(position, keyLength, key, length);
+            if (compare < 0 || (inclusive && compare == 0))
+            {
+                found = mid;
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Compare a binary key in the mapped file with the given binary key as
+     * unsigned bytes in lexicographic order.
+     *
+     * @param position
+     *            The offset of the key in the mapped file.
+     * @param length
+     *            The length of the key in the mapped file.
+     * @param key
+     *            The binary key.
+     * @param keyLength
+     *            The length of the binary key.
+     * @return A negative integer, zero, or a positive integer as the mapped
+     *         key is less than, equal to, or greater than the binary key.
+     */
+    private int compare(int position, int length, byte[] key, int keyLength)
+    {
+        int common = Math.min(length, keyLength);
+        for (int i = 0; i < common; i++)
+        {
+            int compare = (buffer.get(position + i) & 0xFF) - (key[i] & 0xFF);
+            if (compare != 0)
+            {
+                return compare;
+            }
+        }
+        return length - keyLength;
+    }
+
+    /**
+     * Compare two binary keys as unsigned bytes in lexicographic order.
+     *
+     * @param left
+     *            The left binary key.
+     * @param leftLength
+     *            The length of the left binary key.
+     * @param right
+     *            The right binary key.
+     * @param rightLength
+     *            The length of the right binary key.
+     * @return A negative integer, zero, or a positive integer as the left key
+     *         is less than, equal to, or greater than the right key.
+     */
+    private static int compare(byte[] left, int leftLength, byte[] right, int rightLength)
+    {
+        int common = Math.min(leftLength, rightLength);
+        for (int i = 0; i < common; i++)
+        {
+            int compare = (left[i] & 0xFF) - (right[i] & 0xFF);
+            if (compare != 0)
+            {
+                return compare;
+            }
+        }
+        return leftLength - rightLength;
+    }
+
+    /**
+     * Determine whether the table contains a tuple equal to the given tuple.
+     *
+     * @param tuple
+     *            The tuple.
+     * @return True if the table contains the tuple.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded in a binary key.
+     */
+    public boolean contains(Tuple<?, ?> tuple)
+    {
+        byte[] key = Keys.encode(tuple);
+        if (blocks == 0 || (bloomMembers != 0 && !mightContain(key, prefixLength(tuple, bloomMembers))))
+        {
+            return false;
+        }
+        Cursor cursor = new Cursor(search(key, key.length, true));
+        while (cursor.advance())
+        {
+            int compare = compare(cursor.key, cursor.length, key, key.length);
+            if (compare >= 0)
+            {
+                return compare == 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get an iterator over all of the tuples in the table in order.
+     *
+     * @return An iterator over the tuples.
+     */
+    public Iterator<T> iterator()
+    {
+        return new Scan(new Cursor(0), null);
+    }
+
+    /**
+     * Get an iterator in order over the tuples in the table whose leading
+     * members are equal to the members of the given prefix.
+     *
+     * @param prefix
+     *            The prefix.
+     * @return An iterator over the tuples that start with the prefix.
+     * @exception IllegalArgumentException
+     *                If a prefix member cannot be encoded in a binary key.
+     */
+    public Iterator<T> prefix(Tuple<?, ?> prefix)
+    {
+        byte[] key = Keys.encode(prefix);
+        if (blocks == 0 || (bloomMembers != 0 && Tuples.arity(prefix) >= bloomMembers && !mightContain(key, prefixLength(prefix, bloomMembers))))
+        {
+            return new Scan(null, key);
+        }
+        Cursor cursor = new Cursor(search(key, key.length, false));
+        while (cursor.advance())
+        {
+            if (compare(cursor.key, cursor.length, key, key.length) >= 0)
+            {
+                cursor.again = true;
+                return new Scan(cursor, key);
+            }
+        }
+        return new Scan(null, key);
+    }
+
+    /**
+     * A position in the table that reads the prefix-compressed keys of one
+     * block after another into a scratch buffer.
+     */
+    private final class Cursor
+    {
+        /** The current block. */
+        private int block;
+
+        /** The offset of the next key. */
+        private int position;
+
+        /** The offset of the end of the current block. */
+        private int end;
+
+        /** The current key. */
+        private byte[] key;
+
+        /** The length of the current key. */
+        private int length;
+
+        /** Whether the next advance should return the current key again. */
+        private boolean again;
+
+        /**
+         * Create a cursor before the first key of the given block.
+         *
+         * @param block
+         *            The block.
+         */
+        public Cursor(int block)
+        {
+            this.block = block - 1;
+            this.key = new byte[64];
+        }
+
+        /**
+         * Read an unsigned variable length integer.
+         *
+         * @return The integer.
+         */
+        private int varint()
+        {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do
+            {
+                b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while ((b & 0x80) != 0);
+            return value;
+        }
+
+        /**
+         * Move to the next key.
+         *
+         * @return False if there are no more keys.
+         */
+        public boolean advance()
+        {
+            if (again)
+            {
+                again = false;
+                return true;
+            }
+            if (position == end)
+            {
+                if (block + 1 >= blocks)
+                {
+                    return false;
+                }
+                block++;
+                position = blockOffset(block);
+                end = block + 1 == blocks ? indexOffset : blockOffset(block + 1);
+            }
+            int shared = varint();
+            int suffix = varint();
+            length = shared + suffix;
+            if (key.length < length)
+            {
+                byte[] grown = new byte[Math.max(length, key.length * 2)];
+                System.arraycopy(key, 0, grown, 0, shared);
+                key = grown;
+            }
+            for (int i = shared; i < length; i++)
+            {
+                key[i] = buffer.get(position++);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An iterator over the tuples at a cursor, ending at the end of the table
+     * or at the first key that does not start with a prefix.
+     */
+    private final class Scan implements Iterator<T>
+    {
+        /** The cursor or null if there are no more tuples. */
+        private Cursor cursor;
+
+        /** The binary key of the prefix or null to read to the end. */
+        private final byte[] prefix;
+
+        /** Whether the cursor is at the next tuple. */
+        private boolean ready;
+
+        /**
+         * Create an iterator over the tuples at the given cursor.
+         *
+         * @param cursor
+         *            The cursor or null for an empty iterator.
+         * @param prefix
+         *            The binary key of the prefix or null to read to the end.
+         */
+        public Scan(Cursor cursor, byte[] prefix)
+        {
+            this.cursor = cursor;
+            this.prefix = prefix;
+        }
+
+        /**
+         * Return true if there are more tuples.
+         *
+         * @return True if there are more tuples.
+         */
+        public boolean hasNext()
+        {
+            if (!ready && cursor != null)
+            {
+                if (cursor.advance() && startsWith())
+                {
+                    ready = true;
+                }
+                else
+                {
+                    cursor = null;
+                }
+            }
+            return ready;
+        }
+
+        /**
+         * Determine whether the current key starts with the prefix.
+         *
+         * @return True if the current key starts with the prefix.
+         */
+        private boolean startsWith()
+        {
+            if (prefix == null)
+            {
+                return true;
+            }
+            if (cursor.length < prefix.length)
+            {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++)
+            {
+                if (cursor.key[i] != prefix[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Get the next tuple.
+         *
+         * @return The next tuple.
+         * @exception NoSuchElementException
+         *                If there are no more tuples.
+         */
+        @SuppressWarnings("unchecked")
+        public T next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return (T) Keys.decode(ByteBuffer.wrap(cursor.key, 0, cursor.length));
+        }
+
+        /**
+         * Not supported.
+         *
+         * @exception UnsupportedOperationException
+         *                Always.
+         */
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+}
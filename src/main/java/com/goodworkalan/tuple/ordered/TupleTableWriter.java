@@ -0,0 +1,257 @@
+package com.goodworkalan.tuple.ordered;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Writes a sorted tuple table file that is read with {@link TupleTable}.
+ * <p>
+ * Tuples must be added in the order of {@link Ordered} tuples, which is the
+ * order of their binary keys from {@link Keys}. Keys are written to blocks of
+ * roughly the block size, each key stored as the length of the prefix it
+ * shares with the previous key in the block followed by the rest of the key.
+ * The first key of each block is stored in full so that a reader can search
+ * the blocks through an index of block offsets. An optional Bloom filter of
+ * the leading members of each tuple lets a reader reject lookups of prefixes
+ * that are not in the table without reading a block.
+ * <p>
+ * The table is written in one pass, holding only the previous key, the block
+ * offsets and the Bloom filter in memory. A table file is limited to two
+ * gigabytes so that it can be mapped with a single buffer.
+ *
+ * @author Alan Gutierrez
+ */
+public class TupleTableWriter implements Closeable
+{
+    /** The default size of a block in bytes. */
+    public final static int DEFAULT_BLOCK_SIZE = 4096;
+
+    /** The number of Bloom filter bits per expected tuple. */
+    private final static int BITS_PER_TUPLE = 10;
+
+    /** The number of Bloom filter hashes. */
+    private final static int HASHES = 7;
+
+    /** The output stream. */
+    private final DataOutputStream out;
+
+    /** The size of a block in bytes. */
+    private final int blockSize;
+
+    /** The number of leading members in the Bloom filter or zero. */
+    private final int bloomMembers;
+
+    /** The Bloom filter or null. */
+    private final byte[] bloom;
+
+    /** The offset of each block. */
+    private int[] blocks;
+
+    /** The number of blocks. */
+    private int blockCount;
+
+    /** The number of bytes written to the current block. */
+    private int blockLength;
+
+    /** The number of bytes written to the file. */
+    private long offset;
+
+    /** The number of tuples written. */
+    private long count;
+
+    /** The previous key. */
+    private ByteBuffer previous;
+
+    /** The current key. */
+    private ByteBuffer key;
+
+    /**
+     * Create a writer of a table without a Bloom filter and with the default
+     * block size.
+     *
+     * @param file
+     *            The table file.
+     * @exception IOException
+     *                If the file cannot be created.
+     */
+    public TupleTableWriter(File file) throws IOException
+    {
+        this(file, DEFAULT_BLOCK_SIZE, 0, 0);
+    }
+
+    /**
+     * Create a writer of a table.
+     *
+     * @param file
+     *            The table file.
+     * @param blockSize
+     *            The size of a block in bytes.
+     * @param bloomMembers
+     *            The number of leading members to add to the Bloom filter or
+     *            zero for no Bloom filter.
+     * @param expected
+     *            The expected number of tuples, used to size the Bloom filter.
+     * @exception IOException
+     *                If the file cannot be created.
+     * @exception IllegalArgumentException
+     *                If the block size is less than one or the number of
+     *                Bloom filter members is negative.
+     */
+    public TupleTableWriter(File file, int blockSize, int bloomMembers, long expected) throws IOException
+    {
+        if (blockSize < 1)
+        {
+            throw new IllegalArgumentException("Block size must be at least one.");
+        }
+        if (bloomMembers < 0)
+        {
+            throw new IllegalArgumentException("Bloom filter members must not be negative.");
+        }
+        this.blockSize = blockSize;
+        this.bloomMembers = bloomMembers;
+        this.bloom = bloomMembers == 0 ? null : new byte[(int) Math.min(Math.max(expected * BITS_PER_TUPLE / 8, 8), Integer.MAX_VALUE / 16)];
+        this.blocks = new int[16];
+        this.previous = ByteBuffer.allocate(64);
+        this.key = ByteBuffer.allocate(64);
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    }
+
+    /**
+     * Add a tuple to the table.
+     *
+     * @param tuple
+     *            The tuple.
+     * @exception IOException
+     *                If the file cannot be written or grows larger than two
+     *                gigabytes.
+     * @exception IllegalArgumentException
+     *                If a tuple member cannot be encoded in a binary key or
+     *                the tuple is ordered before the previous tuple.
+     */
+    public void add(Tuple<?, ?> tuple) throws IOException
+    {
+        int length = Keys.length(tuple);
+        if (key.capacity() < length)
+        {
+            key = ByteBuffer.allocate(Math.max(length, key.capacity() * 2));
+        }
+        key.clear();
+        Keys.encode(tuple, key);
+        byte[] bytes = key.array();
+        byte[] last = previous.array();
+        int lastLength = count == 0 ? 0 : previous.limit();
+        int shared = 0;
+        int common = Math.min(length, lastLength);
+        while (shared < common && bytes[shared] == last[shared])
+        {
+            shared++;
+        }
+        if (shared < common ? (bytes[shared] & 0xFF) < (last[shared] & 0xFF) : length < lastLength)
+        {
+            throw new IllegalArgumentException("Tuples must be added in order.");
+        }
+        if (bloom != null)
+        {
+            TupleTable.addBloom(bloom, HASHES, bytes, TupleTable.prefixLength(tuple, bloomMembers));
+        }
+        if (blockCount == 0 || blockLength + length - shared + 10 > blockSize)
+        {
+            if (offset > Integer.MAX_VALUE - length - 10)
+            {
+                throw new IOException("Table is larger than two gigabytes.");
+            }
+            if (blockCount == blocks.length)
+            {
+                blocks = Arrays.copyOf(blocks, blockCount * 2);
+            }
+            blocks[blockCount++] = (int) offset;
+            blockLength = 0;
+            shared = 0;
+        }
+        int written = varint(shared) + varint(length - shared);
+        out.write(bytes, shared, length - shared);
+        written += length - shared;
+        blockLength += written;
+        offset += written;
+        count++;
+        ByteBuffer swap = previous;
+        previous = key;
+        key = swap;
+        previous.limit(length);
+    }
+
+    /**
+     * Write the given unsigned integer as a variable length integer of seven
+     * bit groups, least significant first.
+     *
+     * @param value
+     *            The value.
+     * @return The number of bytes written.
+     * @exception IOException
+     *                If the file cannot be written.
+     */
+    private int varint(int value) throws IOException
+    {
+        int written = 1;
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0)
+        {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+            written++;
+        }
+        out.write(remaining);
+        return written;
+    }
+
+    /**
+     * Write the block index, the Bloom filter and the footer and close the
+     * file.
+     *
+     * @exception IOException
+     *                If the file cannot be written or is larger than two
+     *                gigabytes.
+     */
+    public void close() throws IOException
+    {
+        try
+        {
+            long indexOffset = offset;
+            long bloomOffset = indexOffset + 4L * blockCount;
+            int bloomLength = bloom == null ? 0 : bloom.length;
+            if (bloomOffset + bloomLength + TupleTable.FOOTER_LENGTH > Integer.MAX_VALUE)
+            {
+                throw new IOException("Table is larger than two gigabytes.");
+            }
+            for (int i = 0; i < blockCount; i++)
+            {
+                out.writeInt(blocks[i]);
+            }
+            if (bloom != null)
+            {
+                out.write(bloom);
+            }
+            out.writeInt(TupleTable.MAGIC);
+            out.writeInt(TupleTable.VERSION);
+            out.writeLong(count);
+            out.writeInt((int) indexOffset);
+            out.writeInt(blockCount);
+            out.writeInt((int) bloomOffset);
+            out.writeInt(bloomLength);
+            out.writeInt(HASHES);
+            out.writeInt(bloomMembers);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.goodworkalan.tuple.ordered;
+
+import com.mallardsoft.tuple.Tuple;
+import com.mallardsoft.tuple.Variable;
+
+/**
+ * Static methods that take tuples apart without allocating variables.
+ * 
+ * @author Alan Gutierrez
+ */
+final class Tuples
+{
+    /**
+     * The variable passed to <code>Tuple.extract</code> to get the rest of a
+     * tuple. It ignores the first member instead of storing it, so it has no
+     * state for threads to contend on.
+     */
+    final static Variable<Object> DISCARD = new Discard();
+
+    /** Cannot be instantiated. */
+    private Tuples()
+    {
+    }
+
+    /**
+     * Get the first member of the given tuple.
+     * 
+     * @param <First>
+     *            The type of the first member.
+     * @param tuple
+     *            The tuple.
+     * @return The first member of the tuple.
+     */
+    public static <First> First first(Tuple<First, ?> tuple)
+    {
+        return Tuple.get1(tuple);
+    }
+
+    /**
+     * Get the remainder of the given tuple after the first member.
+     * 
+     * @param <First>
+     *            The type of the first member.
+     * @param <Rest>
+     *            The type of the remainder of the tuple.
+     * @param tuple
+     *            The tuple.
+     * @return The remainder of the tuple.
+     */
+    @SuppressWarnings("unchecked")
+    public static <First, Rest> Rest rest(Tuple<First, Rest> tuple)
+    {
+        return tuple.extract((Variable<First>) (Variable<?>) DISCARD);
+    }
+
+    /**
+     * A variable that ignores every value set.
+     */
+    private final static class Discard extends Variable<Object>
+    {
+        /**
+         * Ignore the given value.
+         * 
+         * @param value
+         *            The value.
+         */
+        public void set(Object value)
+        {
+        }
+    }
+
+    /**
+     * Count the members of the given tuple.
+     * 
+     * @param tuple
+     *            The tuple.
+     * @return The number of members in the tuple.
+     */
+    public static int arity(Tuple<?, ?> tuple)
+    {
+        int arity = 0;
+        Object rest = tuple;
+        while (rest instanceof Tuple<?, ?>)
+        {
+            arity++;
+            rest = rest((Tuple<?, ?>) rest);
+        }
+        return arity;
+    }
+}
@@ -0,0 +1,40 @@
+package com.goodworkalan.tuple.ordered;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Tuple;
+
+/**
+ * Tests of the abbreviated keys of tuple comparisons. These tests are in the
+ * implementation package rather than the API package because
+ * <code>Order.abbreviate</code> and the <code>Keys</code> type tags are
+ * package-private.
+ * 
+ * @author Alan Gutierrez
+ */
+public class AbbreviateTest
+{
+    @Test
+    public void abbreviatePrimitiveResolution()
+    {
+        Order<Long, Tuple<Integer, End>> order = Order.lastInt().prependLong();
+        assertTrue(order.abbreviate(Tuple.from(1L, 0)) > order.abbreviate(Tuple.from(0L, 0)));
+        assertTrue(order.abbreviate(Tuple.from(-1L, 0)) < order.abbreviate(Tuple.from(0L, 0)));
+        assertEquals(order.abbreviate(Tuple.from(7L, 0)), 7L);
+        Order<Integer, Tuple<Integer, End>> ints = Order.lastInt().prependInt();
+        assertEquals(ints.abbreviate(Tuple.from(1, 2)), (1L << 32) | 0x80000002L);
+    }
+
+    @Test
+    public void abbreviateTagged()
+    {
+        Order<Long, Tuple<Integer, End>> order = Order.<Integer>last().<Long>prepend();
+        assertEquals(order.abbreviate(Tuple.from(0L, 0)), ((long) Keys.LONG << 56 | 0x80L << 48) ^ Long.MIN_VALUE);
+        Order<String, End> strings = Order.<String>last();
+        assertEquals(strings.abbreviate(Tuple.from("ab")), ((long) Keys.STRING << 56 | (long) 'a' << 48 | (long) 'b' << 40) ^ Long.MIN_VALUE);
+    }
+}
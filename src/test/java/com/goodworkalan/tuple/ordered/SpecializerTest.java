@@ -0,0 +1,58 @@
+package com.goodworkalan.tuple.ordered;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Comparator;
+
+import org.testng.annotations.Test;
+
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Tuple;
+
+public class SpecializerTest
+{
+    @Test
+    public void shapes()
+    {
+        Order<String, Tuple<Integer, End>> order = Order.<Integer>last().<String>prepend();
+        Comparator<Object> first = Specializer.comparator(order, new Class<?>[] { String.class, Integer.class });
+        Comparator<Object> second = Specializer.comparator(order, new Class<?>[] { String.class, Long.class });
+        Comparator<Object> descending = Specializer.comparator(order.descending(), new Class<?>[] { String.class, Integer.class });
+        assertEquals(first.getClass().getName(), ShapeComparator.class.getName());
+        assertNotSame(first.getClass(), ShapeComparator.class);
+        assertNotSame(second.getClass(), ShapeComparator.class);
+        assertNotSame(first.getClass(), second.getClass());
+        assertNotSame(first.getClass(), descending.getClass());
+        assertNotSame(first.getClass().getClassLoader(), ShapeComparator.class.getClassLoader());
+        assertSame(Specializer.comparator(order, new Class<?>[] { String.class, Integer.class }), first);
+    }
+
+    @Test
+    public void primitive()
+    {
+        assertTrue(Order.lastInt().primitive());
+        assertTrue(Order.lastLong().primitive());
+        assertTrue(Order.lastDouble().descending().primitive());
+        assertFalse(Order.<Integer>last().primitive());
+        assertFalse(Order.lastInt().<String>prepend().primitive());
+    }
+
+    @Test
+    public void instrumented()
+    {
+        Order<Integer, End> order = Order.<Integer>last().instrument(new ComparisonStatistics());
+        TupleComparator<?> comparator = TupleComparator.specialize(order, Integer.class);
+        assertSame(comparator.getClass(), TupleComparator.class);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void instrumentedTypes()
+    {
+        Order<Integer, End> order = Order.<Integer>last().instrument(new ComparisonStatistics());
+        TupleComparator.specialize(order, Integer.class, Integer.class);
+    }
+}
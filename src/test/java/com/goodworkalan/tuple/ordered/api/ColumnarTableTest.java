@@ -0,0 +1,123 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.ColumnarTable;
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class ColumnarTableTest
+{
+    private static List<Triple<String, Long, Double>> random(int count, long seed)
+    {
+        Random random = new Random(seed);
+        List<Triple<String, Long, Double>> tuples = new ArrayList<Triple<String, Long, Double>>();
+        for (int i = 0; i < count; i++)
+        {
+            String string = random.nextInt(20) == 0 ? null : Integer.toString(random.nextInt(50), 36);
+            Long number = random.nextInt(30) == 0 ? null : Long.valueOf(random.nextInt(10) - 5);
+            tuples.add(Tuple.from(string, number, (double) random.nextInt(4) - 2));
+        }
+        return tuples;
+    }
+
+    private static <T> List<T> list(Iterator<T> iterator)
+    {
+        List<T> list = new ArrayList<T>();
+        while (iterator.hasNext())
+        {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    private void check(List<Triple<String, Long, Double>> tuples, TupleComparator<Triple<String, Long, Double>> comparator)
+    {
+        ColumnarTable<Triple<String, Long, Double>> table = new ColumnarTable<Triple<String, Long, Double>>(tuples, comparator);
+        List<Triple<String, Long, Double>> sorted = new ArrayList<Triple<String, Long, Double>>(tuples);
+        Collections.sort(sorted, comparator);
+        assertEquals(table.size(), sorted.size());
+        assertEquals(list(table.iterator()), sorted);
+        for (Triple<String, Long, Double> probe : random(300, 7))
+        {
+            int expected = Collections.binarySearch(sorted, probe, comparator);
+            if (expected >= 0)
+            {
+                while (expected > 0 && comparator.compare(sorted.get(expected - 1), probe) == 0)
+                {
+                    expected--;
+                }
+            }
+            assertEquals(table.indexOf(probe), expected);
+            assertEquals(table.contains(probe), expected >= 0);
+            List<Triple<String, Long, Double>> prefixed = new ArrayList<Triple<String, Long, Double>>();
+            for (Triple<String, Long, Double> tuple : sorted)
+            {
+                Pair<String, Long> prefix = Tuple.from(Tuple.get1(tuple), Tuple.get2(tuple));
+                if (prefix.equals(Tuple.from(Tuple.get1(probe), Tuple.get2(probe))))
+                {
+                    prefixed.add(tuple);
+                }
+            }
+            Pair<String, Long> prefix = Tuple.from(Tuple.get1(probe), Tuple.get2(probe));
+            assertEquals(list(table.prefix(prefix)), prefixed);
+            assertEquals(table.toIndex(prefix) - table.fromIndex(prefix), prefixed.size());
+        }
+    }
+
+    @Test
+    public void ascending()
+    {
+        check(random(2000, 1), TupleComparator.<String, Long, Double>triple());
+        check(random(1, 1), TupleComparator.<String, Long, Double>triple());
+        check(random(0, 1), TupleComparator.<String, Long, Double>triple());
+    }
+
+    @Test
+    public void descending()
+    {
+        Order<String, Tuple<Long, Tuple<Double, End>>> order = Order.<Double>last().descending().<Long>prepend().descending().nullsLast().<String>prepend().nullsLast();
+        check(random(2000, 2), TupleComparator.of(order));
+    }
+
+    @Test
+    public void primitive()
+    {
+        List<Triple<Integer, Long, Double>> tuples = new ArrayList<Triple<Integer, Long, Double>>();
+        for (int i = 0; i < 1000; i++)
+        {
+            tuples.add(Tuple.from(999 - i, (long) i % 7, i / 3.0));
+        }
+        Order<Integer, Tuple<Long, Tuple<Double, End>>> order = Order.lastDouble().prependLong().prependInt().descending();
+        ColumnarTable<Triple<Integer, Long, Double>> table = new ColumnarTable<Triple<Integer, Long, Double>>(tuples, TupleComparator.of(order));
+        assertEquals(list(table.iterator()), tuples);
+        assertEquals(table.indexOf(Tuple.from(990, 2L, 3.0)), 9);
+        assertTrue(table.contains(Tuple.from(0, 5L, 333.0)));
+        assertFalse(table.contains(Tuple.from(0, 5L, 333.5)));
+        assertEquals(table.get(500), Tuple.from(499, 3L, 500 / 3.0));
+        assertEquals(list(table.prefix(Tuple.from(7))), Collections.singletonList(Tuple.from(7, 5L, 992 / 3.0)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void mixedArity()
+    {
+        List<Tuple<?, ?>> tuples = new ArrayList<Tuple<?, ?>>();
+        tuples.add(Tuple.from(1, 2));
+        tuples.add(Tuple.from(1, 2, 3));
+        new ColumnarTable<Tuple<?, ?>>(tuples);
+    }
+}
@@ -0,0 +1,70 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.ComparisonStatistics;
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class ComparisonStatisticsTest
+{
+    @Test
+    public void histogram()
+    {
+        ComparisonStatistics statistics = new ComparisonStatistics();
+        Order<String, Tuple<Integer, Tuple<Integer, End>>> order = Order.<Integer>last().<Integer>prepend().<String>prepend().instrument(statistics);
+        TupleComparator<Triple<String, Integer, Integer>> comparator = TupleComparator.of(order);
+        assertTrue(comparator.compare(Tuple.from("a", 1, 1), Tuple.from("b", 1, 1)) < 0);
+        assertTrue(comparator.compare(Tuple.from("a", 1, 1), Tuple.from("a", 2, 1)) < 0);
+        assertTrue(comparator.compare(Tuple.from("a", 1, 1), Tuple.from("a", 1, 2)) < 0);
+        assertEquals(comparator.compare(Tuple.from((String) null, 1, 1), Tuple.from((String) null, 1, 1)), 0);
+        assertEquals(statistics.getComparisons(), 4);
+        assertEquals(statistics.getMembersExamined()[0], 1);
+        assertEquals(statistics.getMembersExamined()[1], 1);
+        assertEquals(statistics.getMembersExamined()[2], 2);
+        assertEquals(statistics.getMeanMembersExamined(), 9.0 / 4);
+        assertEquals(statistics.getNullComparisons(), 1);
+        assertTrue(statistics.getNanoseconds() >= 0);
+        statistics.reset();
+        assertEquals(statistics.getComparisons(), 0);
+    }
+
+    @Test
+    public void modifiers()
+    {
+        ComparisonStatistics statistics = new ComparisonStatistics();
+        Order<Integer, Tuple<Integer, Tuple<Integer, End>>> order = Order.lastInt().prependInt().prependInt().instrument(statistics).descending();
+        Ordered<Triple<Integer, Integer, Integer>> left = Ordered.order(Tuple.from(1, 2, 3), order);
+        Ordered<Triple<Integer, Integer, Integer>> right = Ordered.order(Tuple.from(2, 2, 3), order);
+        assertTrue(left.compareTo(right) > 0);
+        assertEquals(statistics.getComparisons(), 1);
+    }
+
+    @Test
+    public void register() throws Exception
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.goodworkalan.tuple.ordered:type=ComparisonStatistics,name=test");
+        server.registerMBean(new ComparisonStatistics(), name);
+        try
+        {
+            assertEquals(server.getAttribute(name, "Comparisons"), 0L);
+        }
+        finally
+        {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.ExternalSort;
+import com.goodworkalan.tuple.ordered.MergedRuns;
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class ExternalSortTest
+{
+    private static File directory() throws IOException
+    {
+        File directory = File.createTempFile("external", "sort");
+        directory.delete();
+        directory.mkdir();
+        return directory;
+    }
+
+    private static List<Triple<String, Long, Double>> random(int count)
+    {
+        Random random = new Random(count);
+        List<Triple<String, Long, Double>> tuples = new ArrayList<Triple<String, Long, Double>>();
+        for (int i = 0; i < count; i++)
+        {
+            String string = random.nextInt(20) == 0 ? null : Integer.toString(random.nextInt(100), 36);
+            tuples.add(Tuple.from(string, (long) random.nextInt(10) - 5, random.nextDouble()));
+        }
+        return tuples;
+    }
+
+    private void check(List<Triple<String, Long, Double>> tuples, TupleComparator<Triple<String, Long, Double>> comparator, int runSize, int fanIn) throws IOException
+    {
+        File directory = directory();
+        List<Triple<String, Long, Double>> expected = new ArrayList<Triple<String, Long, Double>>(tuples);
+        Collections.sort(expected, comparator);
+        ExternalSort<Triple<String, Long, Double>> sort = new ExternalSort<Triple<String, Long, Double>>(comparator, directory, runSize, fanIn, 512);
+        MergedRuns<Triple<String, Long, Double>> sorted = sort.sort(tuples.iterator());
+        List<Triple<String, Long, Double>> actual = new ArrayList<Triple<String, Long, Double>>();
+        while (sorted.hasNext())
+        {
+            actual.add(sorted.next());
+        }
+        assertEquals(actual, expected);
+        assertEquals(directory.list().length, 0);
+        directory.delete();
+    }
+
+    @Test
+    public void sort() throws IOException
+    {
+        check(random(10000), TupleComparator.<String, Long, Double>triple(), 100, 3);
+        check(random(10000), TupleComparator.<String, Long, Double>triple(), 1000, 64);
+        check(random(10), TupleComparator.<String, Long, Double>triple(), 1000, 2);
+        check(random(0), TupleComparator.<String, Long, Double>triple(), 1000, 2);
+    }
+
+    @Test
+    public void descending() throws IOException
+    {
+        Order<String, Tuple<Long, Tuple<Double, End>>> order = Order.lastDouble().prependLong().descending().<String>prepend().nullsLast();
+        TupleComparator<Triple<String, Long, Double>> comparator = TupleComparator.of(order);
+        check(random(5000), comparator, 77, 4);
+    }
+
+    @Test
+    public void close() throws IOException
+    {
+        File directory = directory();
+        ExternalSort<Triple<String, Long, Double>> sort = new ExternalSort<Triple<String, Long, Double>>(TupleComparator.<String, Long, Double>triple(), directory, 10, 8, 64);
+        MergedRuns<Triple<String, Long, Double>> sorted = sort.sort(random(100).iterator());
+        sorted.next();
+        sorted.close();
+        assertFalse(sorted.hasNext());
+        assertEquals(directory.list().length, 0);
+        directory.delete();
+    }
+
+    @Test
+    public void unencodable() throws IOException
+    {
+        File directory = directory();
+        List<Pair<Integer, BigInteger>> tuples = new ArrayList<Pair<Integer, BigInteger>>();
+        for (int i = 0; i < 10; i++)
+        {
+            tuples.add(Tuple.from(i, BigInteger.valueOf(i)));
+        }
+        ExternalSort<Pair<Integer, BigInteger>> sort = new ExternalSort<Pair<Integer, BigInteger>>(TupleComparator.<Integer, BigInteger>pair(), directory, 4, 2, 64);
+        try
+        {
+            sort.sort(tuples.iterator());
+            fail("Encoded a big integer.");
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+        assertEquals(directory.list().length, 0);
+        directory.delete();
+    }
+
+    @Test
+    public void failedMerge() throws IOException
+    {
+        File directory = directory();
+        final List<Triple<String, Long, Double>> tuples = random(20);
+        final Iterator<Triple<String, Long, Double>> iterator = tuples.iterator();
+        final boolean[] merging = new boolean[1];
+        final Comparator<Triple<String, Long, Double>> triple = TupleComparator.<String, Long, Double>triple();
+        Comparator<Triple<String, Long, Double>> comparator = new Comparator<Triple<String, Long, Double>>()
+        {
+            public int compare(Triple<String, Long, Double> left, Triple<String, Long, Double> right)
+            {
+                if (merging[0])
+                {
+                    throw new IllegalStateException();
+                }
+                return triple.compare(left, right);
+            }
+        };
+        Iterator<Triple<String, Long, Double>> input = new Iterator<Triple<String, Long, Double>>()
+        {
+            public boolean hasNext()
+            {
+                merging[0] = !iterator.hasNext();
+                return !merging[0];
+            }
+
+            public Triple<String, Long, Double> next()
+            {
+                return iterator.next();
+            }
+
+            public void remove()
+            {
+                throw new UnsupportedOperationException();
+            }
+        };
+        ExternalSort<Triple<String, Long, Double>> sort = new ExternalSort<Triple<String, Long, Double>>(comparator, directory, 4, 2, 64);
+        try
+        {
+            sort.sort(input);
+            fail("Merged with a failing comparator.");
+        }
+        catch (IllegalStateException e)
+        {
+        }
+        assertEquals(directory.list().length, 0);
+        directory.delete();
+    }
+}
@@ -0,0 +1,143 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.GroupBy;
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.Reducer;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class GroupByTest
+{
+    private final static Reducer<Triple<String, Integer, Integer>, Pair<String, Integer>> SUM = new Reducer<Triple<String, Integer, Integer>, Pair<String, Integer>>()
+    {
+        public Pair<String, Integer> start(Triple<String, Integer, Integer> tuple)
+        {
+            return Tuple.from(Tuple.get1(tuple), Tuple.get3(tuple));
+        }
+
+        public Pair<String, Integer> reduce(Pair<String, Integer> aggregate, Triple<String, Integer, Integer> tuple)
+        {
+            return Tuple.from(Tuple.get1(aggregate), Tuple.get2(aggregate) + Tuple.get3(tuple));
+        }
+    };
+
+    private static List<Triple<String, Integer, Integer>> sorted(int count)
+    {
+        Random random = new Random(count);
+        List<Triple<String, Integer, Integer>> tuples = new ArrayList<Triple<String, Integer, Integer>>();
+        for (int i = 0; i < count; i++)
+        {
+            String string = random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(20));
+            tuples.add(Tuple.from(string, random.nextInt(5), random.nextInt(100)));
+        }
+        Collections.sort(tuples, TupleComparator.<String, Integer, Integer>triple());
+        return tuples;
+    }
+
+    @Test
+    public void sum()
+    {
+        List<Triple<String, Integer, Integer>> tuples = sorted(1000);
+        Map<String, Integer> expected = new TreeMap<String, Integer>();
+        int nulls = 0;
+        for (Triple<String, Integer, Integer> tuple : tuples)
+        {
+            String key = Tuple.get1(tuple);
+            if (key == null)
+            {
+                nulls += Tuple.get3(tuple);
+            }
+            else
+            {
+                expected.put(key, (expected.containsKey(key) ? expected.get(key) : 0) + Tuple.get3(tuple));
+            }
+        }
+        GroupBy<Triple<String, Integer, Integer>, Pair<String, Integer>> groups = new GroupBy<Triple<String, Integer, Integer>, Pair<String, Integer>>(tuples.iterator(), 1, SUM);
+        Pair<String, Integer> first = groups.next();
+        assertEquals(Tuple.get1(first), null);
+        assertEquals(Tuple.get2(first), (Integer) nulls);
+        for (Map.Entry<String, Integer> entry : expected.entrySet())
+        {
+            assertEquals(groups.next(), Tuple.from(entry.getKey(), entry.getValue()));
+        }
+        assertFalse(groups.hasNext());
+    }
+
+    @Test
+    public void count()
+    {
+        List<Triple<String, Integer, Integer>> tuples = sorted(1000);
+        Reducer<Triple<String, Integer, Integer>, int[]> count = new Reducer<Triple<String, Integer, Integer>, int[]>()
+        {
+            public int[] start(Triple<String, Integer, Integer> tuple)
+            {
+                return new int[] { 1 };
+            }
+
+            public int[] reduce(int[] aggregate, Triple<String, Integer, Integer> tuple)
+            {
+                aggregate[0]++;
+                return aggregate;
+            }
+        };
+        int groups = 0;
+        int total = 0;
+        GroupBy<Triple<String, Integer, Integer>, int[]> by = new GroupBy<Triple<String, Integer, Integer>, int[]>(tuples.iterator(), 2, count);
+        while (by.hasNext())
+        {
+            total += by.next()[0];
+            groups++;
+        }
+        int expected = 0;
+        for (int i = 0; i < tuples.size(); i++)
+        {
+            if (i == 0 || !Ordered.order(Tuple.from(Tuple.get1(tuples.get(i)), Tuple.get2(tuples.get(i)))).equals(Ordered.order(Tuple.from(Tuple.get1(tuples.get(i - 1)), Tuple.get2(tuples.get(i - 1))))))
+            {
+                expected++;
+            }
+        }
+        assertEquals(total, tuples.size());
+        assertEquals(groups, expected);
+    }
+
+    @Test
+    public void descending()
+    {
+        Order<String, Tuple<Integer, Tuple<Integer, End>>> order = Order.<Integer>last().<Integer>prepend().<String>prepend().descending();
+        List<Triple<String, Integer, Integer>> tuples = Arrays.asList(Tuple.from("b", 1, 1), Tuple.from("b", 2, 2), Tuple.from("a", 1, 3));
+        GroupBy<Triple<String, Integer, Integer>, Pair<String, Integer>> groups = new GroupBy<Triple<String, Integer, Integer>, Pair<String, Integer>>(tuples.iterator(), order, 1, SUM);
+        assertEquals(groups.next(), Tuple.from("b", 3));
+        assertEquals(groups.next(), Tuple.from("a", 3));
+        assertFalse(groups.hasNext());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void unsorted()
+    {
+        List<Triple<String, Integer, Integer>> tuples = Arrays.asList(Tuple.from("b", 1, 1), Tuple.from("a", 1, 3));
+        new GroupBy<Triple<String, Integer, Integer>, Pair<String, Integer>>(tuples.iterator(), 1, SUM).next();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void members()
+    {
+        new GroupBy<Triple<String, Integer, Integer>, Pair<String, Integer>>(sorted(10).iterator(), 0, SUM);
+    }
+}
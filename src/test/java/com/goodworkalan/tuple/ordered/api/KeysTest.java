@@ -0,0 +1,95 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Keys;
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.mallardsoft.tuple.Quadruple;
+import com.mallardsoft.tuple.Tuple;
+
+public class KeysTest
+{
+    private final static String[] STRINGS = { null, "", "a", "ab", "a\u0000", "a\u0000b", "\u007f", "\u0080", "\u07ff", "\u0800", "\uffff", "\ud800\udc00", "\ue000", "b" };
+
+    private final static Double[] DOUBLES = { null, Double.NEGATIVE_INFINITY, -1.5, -0.0, 0.0, Double.MIN_VALUE, 2.5, Double.POSITIVE_INFINITY, Double.NaN };
+
+    private final static Long[] LONGS = { null, Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE };
+
+    private final static Integer[] INTEGERS = { null, Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE };
+
+    private Quadruple<String, Double, Long, Integer> random(Random random)
+    {
+        return Tuple.from(STRINGS[random.nextInt(STRINGS.length)], DOUBLES[random.nextInt(DOUBLES.length)], LONGS[random.nextInt(LONGS.length)], INTEGERS[random.nextInt(INTEGERS.length)]);
+    }
+
+    @Test
+    public void order()
+    {
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++)
+        {
+            Quadruple<String, Double, Long, Integer> left = random(random);
+            Quadruple<String, Double, Long, Integer> right = random(random);
+            int expected = Integer.signum(Ordered.order(left).compareTo(Ordered.order(right)));
+            assertEquals(Integer.signum(Keys.compare(Keys.encode(left), Keys.encode(right))), expected, left + " " + right);
+        }
+    }
+
+    @Test
+    public void decode()
+    {
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++)
+        {
+            Quadruple<String, Double, Long, Integer> tuple = random(random);
+            assertEquals(Keys.decode(Keys.encode(tuple)), tuple);
+        }
+        assertEquals(Keys.decode(Keys.encode(Tuple.from(true, (byte) -1, (short) 7, 'x'))), Tuple.from(true, (byte) -1, (short) 7, 'x'));
+        assertEquals(Keys.decode(Keys.encode(Tuple.from(1.5f, "z"))), Tuple.from(1.5f, "z"));
+    }
+
+    @Test
+    public void buffer()
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        Quadruple<String, Double, Long, Integer> tuple = Tuple.from("a\u0000", 1.0, 2L, (Integer) null);
+        assertEquals(Keys.length(tuple), Keys.encode(tuple).length);
+        Keys.encode(tuple, buffer);
+        buffer.flip();
+        assertEquals(Keys.compare(buffer, ByteBuffer.wrap(Keys.encode(tuple))), 0);
+        assertEquals(Keys.decode(buffer), tuple);
+        assertTrue(!buffer.hasRemaining());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void unsupported()
+    {
+        Keys.encode(Tuple.from(new java.math.BigDecimal(1)));
+    }
+
+    @Test
+    public void truncated()
+    {
+        byte[] key = Keys.encode(Tuple.from("abc", 1L, '\u4e2d'));
+        for (int length = 1; length < key.length; length++)
+        {
+            byte[] prefix = new byte[length];
+            System.arraycopy(key, 0, prefix, 0, length);
+            try
+            {
+                Keys.decode(prefix);
+            }
+            catch (IllegalArgumentException e)
+            {
+                continue;
+            }
+            assertTrue(length == 5 || length == 14, "Decoded a key truncated to " + length + " bytes.");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Combiner;
+import com.goodworkalan.tuple.ordered.MergeIterator;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Tuple;
+
+public class MergeIteratorTest
+{
+    private final static TupleComparator<Pair<Integer, String>> COMPARATOR = TupleComparator.<Integer, String>pair();
+
+    private static List<List<Pair<Integer, String>>> sources(int count, int size)
+    {
+        Random random = new Random(count * 31 + size);
+        List<List<Pair<Integer, String>>> sources = new ArrayList<List<Pair<Integer, String>>>();
+        for (int i = 0; i < count; i++)
+        {
+            List<Pair<Integer, String>> source = new ArrayList<Pair<Integer, String>>();
+            int length = random.nextInt(size + 1);
+            for (int j = 0; j < length; j++)
+            {
+                source.add(Tuple.from(random.nextInt(size), Integer.toString(random.nextInt(3))));
+            }
+            Collections.sort(source, COMPARATOR);
+            sources.add(source);
+        }
+        return sources;
+    }
+
+    private static List<Iterator<Pair<Integer, String>>> iterators(List<List<Pair<Integer, String>>> sources)
+    {
+        List<Iterator<Pair<Integer, String>>> iterators = new ArrayList<Iterator<Pair<Integer, String>>>();
+        for (List<Pair<Integer, String>> source : sources)
+        {
+            iterators.add(source.iterator());
+        }
+        return iterators;
+    }
+
+    private static List<Pair<Integer, String>> list(Iterator<Pair<Integer, String>> iterator)
+    {
+        List<Pair<Integer, String>> list = new ArrayList<Pair<Integer, String>>();
+        while (iterator.hasNext())
+        {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    @Test
+    public void keep()
+    {
+        for (int count = 0; count < 10; count++)
+        {
+            List<List<Pair<Integer, String>>> sources = sources(count, 50);
+            List<Pair<Integer, String>> expected = new ArrayList<Pair<Integer, String>>();
+            for (List<Pair<Integer, String>> source : sources)
+            {
+                expected.addAll(source);
+            }
+            Collections.sort(expected, COMPARATOR);
+            List<Pair<Integer, String>> actual = list(new MergeIterator<Pair<Integer, String>>(iterators(sources), COMPARATOR));
+            assertEquals(actual, expected);
+            for (int i = 0; i < actual.size(); i++)
+            {
+                assertSame(actual.get(i), expected.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void drop()
+    {
+        List<List<Pair<Integer, String>>> sources = sources(7, 100);
+        List<Pair<Integer, String>> expected = new ArrayList<Pair<Integer, String>>();
+        for (List<Pair<Integer, String>> source : sources)
+        {
+            expected.addAll(source);
+        }
+        Collections.sort(expected, COMPARATOR);
+        for (int i = expected.size() - 1; i > 0; i--)
+        {
+            if (COMPARATOR.compare(expected.get(i - 1), expected.get(i)) == 0)
+            {
+                expected.remove(i);
+            }
+        }
+        List<Pair<Integer, String>> actual = list(new MergeIterator<Pair<Integer, String>>(iterators(sources), COMPARATOR, MergeIterator.<Pair<Integer, String>>first()));
+        assertEquals(actual, expected);
+        for (int i = 0; i < actual.size(); i++)
+        {
+            assertSame(actual.get(i), expected.get(i));
+        }
+    }
+
+    @Test
+    public void combine()
+    {
+        List<Iterator<Pair<Integer, Integer>>> sources = new ArrayList<Iterator<Pair<Integer, Integer>>>();
+        sources.add(Collections.singletonList(Tuple.from(1, 1)).iterator());
+        sources.add(Collections.singletonList(Tuple.from(1, 2)).iterator());
+        sources.add(Collections.singletonList(Tuple.from(2, 4)).iterator());
+        Combiner<Pair<Integer, Integer>> sum = new Combiner<Pair<Integer, Integer>>()
+        {
+            public Pair<Integer, Integer> combine(Pair<Integer, Integer> combined, Pair<Integer, Integer> duplicate)
+            {
+                return Tuple.from(Tuple.get1(combined), Tuple.get2(combined) + Tuple.get2(duplicate));
+            }
+        };
+        MergeIterator<Pair<Integer, Integer>> merge = new MergeIterator<Pair<Integer, Integer>>(sources, new Comparator<Pair<Integer, Integer>>()
+        {
+            public int compare(Pair<Integer, Integer> left, Pair<Integer, Integer> right)
+            {
+                return Tuple.get1(left).compareTo(Tuple.get1(right));
+            }
+        }, sum);
+        assertEquals(merge.next(), Tuple.from(1, 3));
+        assertEquals(merge.next(), Tuple.from(2, 4));
+        assertFalse(merge.hasNext());
+    }
+}
@@ -0,0 +1,129 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Joiner;
+import com.goodworkalan.tuple.ordered.MergeJoin;
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class MergeJoinTest
+{
+    private final static Joiner<Triple<String, Integer, Integer>, Pair<String, Integer>, String> JOINER = new Joiner<Triple<String, Integer, Integer>, Pair<String, Integer>, String>()
+    {
+        public String join(Triple<String, Integer, Integer> left, Pair<String, Integer> right)
+        {
+            return left + "/" + right;
+        }
+    };
+
+    private static List<Triple<String, Integer, Integer>> left(int count)
+    {
+        Random random = new Random(count);
+        List<Triple<String, Integer, Integer>> tuples = new ArrayList<Triple<String, Integer, Integer>>();
+        for (int i = 0; i < count; i++)
+        {
+            String key = random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(30));
+            tuples.add(Tuple.from(key, random.nextInt(5), i));
+        }
+        Collections.sort(tuples, TupleComparator.<String, Integer, Integer>triple());
+        return tuples;
+    }
+
+    private static List<Pair<String, Integer>> right(int count)
+    {
+        Random random = new Random(count + 1);
+        List<Pair<String, Integer>> tuples = new ArrayList<Pair<String, Integer>>();
+        for (int i = 0; i < count; i++)
+        {
+            String key = random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(30));
+            tuples.add(Tuple.from(key, i));
+        }
+        Collections.sort(tuples, TupleComparator.<String, Integer>pair());
+        return tuples;
+    }
+
+    private static boolean same(String left, String right)
+    {
+        return Ordered.order(Tuple.from(left)).equals(Ordered.order(Tuple.from(right)));
+    }
+
+    private static List<String> expected(MergeJoin.Type type, List<Triple<String, Integer, Integer>> left, List<Pair<String, Integer>> right)
+    {
+        List<String> expected = new ArrayList<String>();
+        for (Triple<String, Integer, Integer> l : left)
+        {
+            boolean matched = false;
+            for (Pair<String, Integer> r : right)
+            {
+                if (same(Tuple.get1(l), Tuple.get1(r)))
+                {
+                    matched = true;
+                    if (type != MergeJoin.Type.ANTI)
+                    {
+                        expected.add(JOINER.join(l, r));
+                    }
+                }
+            }
+            if (!matched && type != MergeJoin.Type.INNER)
+            {
+                expected.add(JOINER.join(l, null));
+            }
+        }
+        return expected;
+    }
+
+    private static List<String> actual(MergeJoin.Type type, List<Triple<String, Integer, Integer>> left, List<Pair<String, Integer>> right)
+    {
+        MergeJoin<Triple<String, Integer, Integer>, Pair<String, Integer>, String> join = new MergeJoin<Triple<String, Integer, Integer>, Pair<String, Integer>, String>(type, left.iterator(), right.iterator(), 1, JOINER);
+        List<String> actual = new ArrayList<String>();
+        while (join.hasNext())
+        {
+            actual.add(join.next());
+        }
+        return actual;
+    }
+
+    @Test
+    public void join()
+    {
+        for (MergeJoin.Type type : MergeJoin.Type.values())
+        {
+            for (int size : new int[] { 0, 1, 10, 100, 300 })
+            {
+                List<Triple<String, Integer, Integer>> left = left(size);
+                List<Pair<String, Integer>> right = right(size / 2);
+                assertEquals(actual(type, left, right), expected(type, left, right));
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void maximum()
+    {
+        List<Triple<String, Integer, Integer>> left = Arrays.asList(Tuple.from("a", 1, 1));
+        List<Pair<String, Integer>> right = Arrays.asList(Tuple.from("a", 1), Tuple.from("a", 2), Tuple.from("a", 3));
+        MergeJoin<Triple<String, Integer, Integer>, Pair<String, Integer>, String> join = new MergeJoin<Triple<String, Integer, Integer>, Pair<String, Integer>, String>(MergeJoin.Type.INNER, left.iterator(), right.iterator(), Order.<Integer>last().<String>prepend(), 1, 2, JOINER);
+        join.next();
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void unsorted()
+    {
+        List<Triple<String, Integer, Integer>> left = Arrays.asList(Tuple.from("b", 1, 1), Tuple.from("a", 1, 1));
+        List<Pair<String, Integer>> right = Collections.emptyList();
+        actual(MergeJoin.Type.LEFT, left, right);
+    }
+}
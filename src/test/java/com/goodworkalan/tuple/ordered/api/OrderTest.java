@@ -0,0 +1,107 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class OrderTest
+{
+    @Test
+    public void compare()
+    {
+        Order<String, Tuple<Integer, End>> order = Order.<Integer>last().<String>prepend();
+        assertEquals(order.compare(Tuple.from("A", 1), Tuple.from("A", 1)), 0);
+        assertTrue(order.compare(Tuple.from("A", 1), Tuple.from("A", 0)) > 0);
+        assertTrue(order.compare(Tuple.from("A", 1), Tuple.from("B", 0)) < 0);
+        assertTrue(order.compare(Tuple.from("A", 1), Tuple.from("A", 2)) < 0);
+    }
+
+    @Test
+    public void nulls()
+    {
+        Order<String, Tuple<Integer, End>> order = Order.<Integer>last().<String>prepend();
+        assertTrue(order.compare(Tuple.from("A", 1), Tuple.from((String) null, 1)) > 0);
+        assertTrue(order.compare(Tuple.from((String) null, 1), Tuple.from("A", 1)) < 0);
+        assertEquals(order.compare(Tuple.from((String) null, 1), Tuple.from((String) null, 1)), 0);
+        assertTrue(order.compare(Tuple.from((String) null, 2), Tuple.from((String) null, 1)) > 0);
+        assertTrue(order.compare(Tuple.from("A", (Integer) null), Tuple.from("A", 1)) < 0);
+    }
+
+    @Test
+    public void comparable()
+    {
+        Order<String, Tuple<Integer, End>> order = Order.<Integer>last().<String>prepend();
+        Comparable<Tuple<String, Tuple<Integer, End>>> comparable = order.comparable(Tuple.from("B", 1));
+        assertTrue(comparable.compareTo(Tuple.from("A", 1)) > 0);
+        assertTrue(comparable.compareTo(Tuple.from("B", 2)) < 0);
+        assertEquals(comparable.compareTo(Tuple.from("B", 1)), 0);
+    }
+
+    @Test
+    public void primitives()
+    {
+        Order<Long, Tuple<Integer, Tuple<Long, End>>> order = Order.lastLong().prependInt().prependLong();
+        assertEquals(order.compare(Tuple.from(1L, 2, 3L), Tuple.from(1L, 2, 3L)), 0);
+        assertTrue(order.compare(Tuple.from(Long.MIN_VALUE, 2, 3L), Tuple.from(Long.MAX_VALUE, 2, 3L)) < 0);
+        assertTrue(order.compare(Tuple.from(1L, 3, 3L), Tuple.from(1L, -2, 3L)) > 0);
+        assertTrue(order.compare(Tuple.from(1L, 2, -3L), Tuple.from(1L, 2, 3L)) < 0);
+
+        Ordered<Triple<Long, Integer, Long>> ordered = Ordered.order(Tuple.from(1L, 2, 3L), order);
+        assertTrue(ordered.compareTo(Ordered.order(Tuple.from(1L, 2, 4L), order)) < 0);
+        TupleComparator<Triple<Long, Integer, Long>> comparator = TupleComparator.of(order);
+        assertTrue(comparator.compare(Tuple.from(2L, 0, 0L), Tuple.from(1L, 9, 9L)) > 0);
+    }
+
+    @Test
+    public void doubles()
+    {
+        Order<Double, End> order = Order.lastDouble();
+        Double[] doubles = { Double.NEGATIVE_INFINITY, -1.0, -0.0, 0.0, 1.0, Double.POSITIVE_INFINITY, Double.NaN };
+        for (int i = 0; i < doubles.length; i++)
+        {
+            for (int j = 0; j < doubles.length; j++)
+            {
+                assertEquals(Integer.signum(order.compare(Tuple.from(doubles[i]), Tuple.from(doubles[j]))), Integer.signum(doubles[i].compareTo(doubles[j])));
+            }
+        }
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void primitiveNull()
+    {
+        Order.lastInt().compare(Tuple.from((Integer) null), Tuple.from(1));
+    }
+
+    @Test
+    public void directions()
+    {
+        Order<String, Tuple<Integer, Tuple<Long, End>>> order = Order.lastLong().<Integer>prepend().descending().<String>prepend();
+        assertTrue(order.compare(Tuple.from("east", 9, 1L), Tuple.from("east", 1, 0L)) < 0);
+        assertTrue(order.compare(Tuple.from("east", 9, 1L), Tuple.from("east", 9, 0L)) > 0);
+        assertTrue(order.compare(Tuple.from("east", 1, 1L), Tuple.from("west", 9, 0L)) < 0);
+        assertTrue(order.compare(Tuple.from("east", (Integer) null, 1L), Tuple.from("east", 9, 0L)) < 0);
+        assertEquals(order.ascending().compare(Tuple.from("a", 1, 1L), Tuple.from("b", 1, 1L)), order.compare(Tuple.from("a", 1, 1L), Tuple.from("b", 1, 1L)));
+        assertTrue(order.descending().compare(Tuple.from("a", 1, 1L), Tuple.from("b", 1, 1L)) > 0);
+        assertTrue(Order.lastInt().descending().compare(Tuple.from(Integer.MIN_VALUE), Tuple.from(Integer.MAX_VALUE)) > 0);
+    }
+
+    @Test
+    public void nullsLast()
+    {
+        Order<String, End> order = Order.<String>last().nullsLast();
+        assertTrue(order.compare(Tuple.from((String) null), Tuple.from("A")) > 0);
+        assertTrue(order.compare(Tuple.from("A"), Tuple.from((String) null)) < 0);
+        assertEquals(order.compare(Tuple.from((String) null), Tuple.from((String) null)), 0);
+        assertTrue(order.descending().compare(Tuple.from((String) null), Tuple.from("A")) > 0);
+        assertTrue(order.descending().compare(Tuple.from("A"), Tuple.from("B")) > 0);
+        assertTrue(order.nullsFirst().compare(Tuple.from((String) null), Tuple.from("A")) < 0);
+    }
+}
@@ -4,12 +4,16 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
 import java.util.TreeSet;
 
 import org.testng.annotations.Test;
 
+import com.goodworkalan.tuple.ordered.Order;
 import com.goodworkalan.tuple.ordered.Ordered;
+import com.mallardsoft.tuple.End;
 import com.mallardsoft.tuple.Pair;
 import com.mallardsoft.tuple.Tuple;
 
@@ -57,6 +61,119 @@ public class OrderedTest
         assertFalse(pairs.hasNext());
     }
     
+    @Test
+    public void custom()
+    {
+        Order<String, Tuple<Integer, End>> order = Order.<Integer>last().<String>prepend();
+        Ordered<Pair<String, Integer>> pair = Ordered.order(Tuple.from("A", 1), order);
+        assertEquals(pair.compareTo(Ordered.order(Tuple.from("A", 1), order)), 0);
+        assertTrue(pair.compareTo(Ordered.order(Tuple.from("A", 0), order)) > 0);
+        assertTrue(pair.compareTo(Ordered.order(Tuple.from("B", 0))) < 0);
+    }
+    
+    @Test
+    public void equality()
+    {
+        Ordered<Pair<String, Integer>> pair = Ordered.order(Tuple.from("A", 1));
+        assertEquals(pair, Ordered.order(Tuple.from("A", 1)));
+        assertEquals(pair.hashCode(), Ordered.order(Tuple.from("A", 1)).hashCode());
+        assertEquals(pair.hashCode(), pair.hashCode());
+        assertFalse(pair.equals(Ordered.order(Tuple.from("A", 2))));
+        assertFalse(pair.equals(Ordered.order(Tuple.from("A"))));
+        assertFalse(pair.equals(Tuple.from("A", 1)));
+        assertFalse(pair.equals(null));
+        assertEquals(Ordered.order(Tuple.from((String) null, 2)), Ordered.order(Tuple.from((String) null, 2)));
+        assertEquals(Ordered.order(Tuple.from((String) null, 2)).hashCode(), Ordered.order(Tuple.from((String) null, 2)).hashCode());
+    }
+
+    @Test
+    public void equalityOfMixedTypes()
+    {
+        Ordered<Pair<String, Integer>> string = Ordered.order(Tuple.from("a", 1));
+        Ordered<Pair<Integer, Integer>> integer = Ordered.order(Tuple.from(1, 1));
+        assertFalse(string.equals(integer));
+        assertFalse(integer.equals(string));
+        assertFalse(string.equals(Ordered.order(Tuple.from((String) null, 1))));
+        assertFalse(Ordered.order(Tuple.from((String) null, 1)).equals(string));
+        HashSet<Object> set = new HashSet<Object>();
+        set.add(string);
+        set.add(integer);
+        set.add(Ordered.order(Tuple.from("a", 1)));
+        assertEquals(set.size(), 2);
+    }
+
+    @Test
+    public void hash()
+    {
+        HashSet<Ordered<Pair<String, Integer>>> set = new HashSet<Ordered<Pair<String, Integer>>>();
+        set.add(Ordered.order(Tuple.from("A", 1)));
+        set.add(Ordered.order(Tuple.from("A", 2)));
+        set.add(Ordered.order(Tuple.from("A", 1)));
+        set.add(Ordered.order(Tuple.from((String) null, 1)));
+        set.add(Ordered.order(Tuple.from((String) null, 1)));
+        assertEquals(set.size(), 3);
+        assertTrue(set.contains(Ordered.order(Tuple.from("A", 2))));
+    }
+    
+    @Test
+    public void abbreviate()
+    {
+        Random random = new Random(0);
+        String[] strings = { null, "", "a", "abcdefg", "abcdefgh", "abcdefghi", "abcdefgz", "b", "a\u0000" };
+        Order<String, Tuple<Integer, End>> descending = Order.<Integer>last().<String>prepend().descending();
+        for (int i = 0; i < 10000; i++)
+        {
+            Pair<String, Integer> left = Tuple.from(strings[random.nextInt(strings.length)], random.nextInt(3) - 1);
+            Pair<String, Integer> right = Tuple.from(strings[random.nextInt(strings.length)], random.nextInt(3) - 1);
+            int expected = Integer.signum(Ordered.order(left).compareTo(Ordered.order(right)));
+            assertEquals(Integer.signum(Ordered.abbreviate(left).compareTo(Ordered.abbreviate(right))), expected);
+            assertEquals(Integer.signum(Ordered.abbreviate(left).compareTo(Ordered.order(right))), expected);
+            expected = Integer.signum(Ordered.order(left, descending).compareTo(Ordered.order(right, descending)));
+            assertEquals(Integer.signum(Ordered.abbreviate(left, descending).compareTo(Ordered.abbreviate(right, descending))), expected);
+        }
+        assertTrue(Ordered.abbreviate(Tuple.from(Long.MIN_VALUE, 1)).compareTo(Ordered.abbreviate(Tuple.from(-1L, 0))) < 0);
+        assertTrue(Ordered.abbreviate(Tuple.from(256L, 1)).compareTo(Ordered.abbreviate(Tuple.from(257L, 0))) < 0);
+        assertEquals(Ordered.abbreviate(Tuple.from("A", 1)), Ordered.order(Tuple.from("A", 1)));
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void abbreviateTypes()
+    {
+        Random random = new Random(0);
+        Object[] members = { null, (short) -1, (short) 2, 'a', '\u00e9', '\u4e2d', (byte) -3, (byte) 4, true, false, -1.5f, 2.5f, -0.0, 0.0, 3.25, "\u00e9", "\u4e2d\u4e2d", "a\u0000b" };
+        for (int i = 0; i < 10000; i++)
+        {
+            Object first = members[random.nextInt(members.length)];
+            Object second = members[random.nextInt(members.length)];
+            if (first != null && second != null && first.getClass() != second.getClass())
+            {
+                second = first;
+            }
+            Pair left = Tuple.from(first, random.nextInt(3));
+            Pair right = Tuple.from(second, random.nextInt(3));
+            int expected = Integer.signum(Ordered.order(left).compareTo(Ordered.order(right)));
+            assertEquals(Integer.signum(Ordered.abbreviate(left).compareTo(Ordered.abbreviate(right))), expected);
+        }
+    }
+
+    @Test
+    public void abbreviatePrimitive()
+    {
+        Random random = new Random(0);
+        Order<Long, Tuple<Integer, End>> longs = Order.lastInt().prependLong();
+        Order<Integer, Tuple<Double, End>> ints = Order.lastDouble().prependInt();
+        for (int i = 0; i < 10000; i++)
+        {
+            Pair<Long, Integer> left = Tuple.from((long) random.nextInt(5) - 2, random.nextInt(3));
+            Pair<Long, Integer> right = Tuple.from((long) random.nextInt(5) - 2, random.nextInt(3));
+            assertEquals(Integer.signum(Ordered.abbreviate(left, longs).compareTo(Ordered.abbreviate(right, longs))), Integer.signum(Ordered.order(left, longs).compareTo(Ordered.order(right, longs))));
+            Pair<Integer, Double> l = Tuple.from(random.nextInt(5) - 2, random.nextInt(5) - 2.5);
+            Pair<Integer, Double> r = Tuple.from(random.nextInt(5) - 2, random.nextInt(5) - 2.5);
+            assertEquals(Integer.signum(Ordered.abbreviate(l, ints).compareTo(Ordered.abbreviate(r, ints))), Integer.signum(Ordered.order(l, ints).compareTo(Ordered.order(r, ints))));
+        }
+    }
+    
     @Test
     public void single()
     {
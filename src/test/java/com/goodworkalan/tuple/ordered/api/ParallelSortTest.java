@@ -0,0 +1,87 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.ParallelSort;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Tuple;
+
+public class ParallelSortTest
+{
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Pair<String, Integer>[] random(int count)
+    {
+        Random random = new Random(count);
+        Pair<String, Integer>[] pairs = new Pair[count];
+        for (int i = 0; i < count; i++)
+        {
+            String string = random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(50));
+            pairs[i] = Tuple.from(string, random.nextInt(100));
+        }
+        return pairs;
+    }
+
+    @Test
+    public void comparator()
+    {
+        Pair<String, Integer>[] pairs = random(100000);
+        Pair<String, Integer>[] expected = pairs.clone();
+        Arrays.sort(expected, TupleComparator.<String, Integer>pair());
+        new ParallelSort(new ForkJoinPool(4), 100).sort(pairs, TupleComparator.<String, Integer>pair());
+        for (int i = 0; i < pairs.length; i++)
+        {
+            assertTrue(pairs[i] == expected[i]);
+        }
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void ordered()
+    {
+        Pair<String, Integer>[] pairs = random(50000);
+        Ordered<Pair<String, Integer>>[] ordered = new Ordered[pairs.length];
+        for (int i = 0; i < pairs.length; i++)
+        {
+            ordered[i] = Ordered.order(pairs[i]);
+        }
+        Ordered<Pair<String, Integer>>[] expected = ordered.clone();
+        Arrays.sort(expected);
+        new ParallelSort(new ForkJoinPool(3), 37).sort(ordered);
+        for (int i = 0; i < ordered.length; i++)
+        {
+            assertTrue(ordered[i] == expected[i]);
+        }
+    }
+
+    @Test
+    public void keys()
+    {
+        Pair<String, Integer>[] pairs = random(30000);
+        Pair<String, Integer>[] expected = pairs.clone();
+        Arrays.sort(expected, TupleComparator.<String, Integer>pair());
+        new ParallelSort(new ForkJoinPool(2), 1000).sortByKeys(pairs);
+        for (int i = 0; i < pairs.length; i++)
+        {
+            assertTrue(pairs[i] == expected[i]);
+        }
+    }
+
+    @Test
+    public void small()
+    {
+        Pair<String, Integer>[] pairs = random(10);
+        Pair<String, Integer>[] expected = pairs.clone();
+        Arrays.sort(expected, TupleComparator.<String, Integer>pair());
+        new ParallelSort().sort(pairs, TupleComparator.<String, Integer>pair());
+        assertEquals(pairs, expected);
+    }
+}
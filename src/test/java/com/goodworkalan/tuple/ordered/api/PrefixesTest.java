@@ -0,0 +1,150 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.Ordered;
+import com.goodworkalan.tuple.ordered.Prefixes;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class PrefixesTest
+{
+    private static <S extends java.util.Set<Ordered<Triple<String, Integer, Integer>>>> S ordered(S set)
+    {
+        for (String tenant : new String[] { null, "a", "b", "c" })
+        {
+            for (int day = 0; day < 3; day++)
+            {
+                for (int id = 0; id < 4; id++)
+                {
+                    set.add(Ordered.order(Tuple.from(tenant, day, id)));
+                }
+            }
+        }
+        return set;
+    }
+
+    @Test
+    public void orderedSet()
+    {
+        NavigableSet<Ordered<Triple<String, Integer, Integer>>> set = ordered(new TreeSet<Ordered<Triple<String, Integer, Integer>>>());
+        NavigableSet<Ordered<Triple<String, Integer, Integer>>> view = Prefixes.subSet(set, Tuple.from("b", 1));
+        assertEquals(view.size(), 4);
+        assertEquals(view.first().getTuple(), Tuple.from("b", 1, 0));
+        assertEquals(view.last().getTuple(), Tuple.from("b", 1, 3));
+        assertEquals(Prefixes.subSet(set, Tuple.from("b")).size(), 12);
+        assertEquals(Prefixes.subSet(set, Tuple.from((String) null)).size(), 12);
+        assertEquals(Prefixes.subSet(set, Tuple.from("b", 1, 2)).size(), 1);
+        assertEquals(Prefixes.subSet(set, Tuple.from("d")).size(), 0);
+        assertEquals(Prefixes.subSet(set, Tuple.from("b", 7)).size(), 0);
+    }
+
+    @Test
+    public void concurrent()
+    {
+        NavigableSet<Ordered<Triple<String, Integer, Integer>>> set = ordered(new ConcurrentSkipListSet<Ordered<Triple<String, Integer, Integer>>>());
+        Iterator<Ordered<Triple<String, Integer, Integer>>> iterator = Prefixes.subSet(set, Tuple.from("c", 2)).iterator();
+        for (int id = 0; id < 4; id++)
+        {
+            assertEquals(iterator.next().getTuple(), Tuple.from("c", 2, id));
+        }
+        assertTrue(!iterator.hasNext());
+    }
+
+    @Test
+    public void comparatorMap()
+    {
+        NavigableMap<Triple<String, Integer, Integer>, Integer> map = new TreeMap<Triple<String, Integer, Integer>, Integer>(TupleComparator.<String, Integer, Integer>triple());
+        int count = 0;
+        for (String tenant : new String[] { "a", "b", "c" })
+        {
+            for (int day = 0; day < 3; day++)
+            {
+                map.put(Tuple.from(tenant, day, 0), count++);
+            }
+        }
+        NavigableMap<Triple<String, Integer, Integer>, Integer> view = Prefixes.subMap(map, Tuple.from("b"));
+        assertEquals(view.size(), 3);
+        assertEquals(view.firstKey(), Tuple.from("b", 0, 0));
+        assertEquals((int) view.lastEntry().getValue(), 5);
+    }
+
+    @Test
+    public void descending()
+    {
+        Order<String, Tuple<Integer, Tuple<Integer, End>>> order = Order.<Integer>last().<Integer>prepend().descending().<String>prepend();
+        TupleComparator<Triple<String, Integer, Integer>> comparator = TupleComparator.of(order);
+        TreeSet<Triple<String, Integer, Integer>> set = new TreeSet<Triple<String, Integer, Integer>>(comparator);
+        for (int day = 0; day < 5; day++)
+        {
+            set.add(Tuple.from("a", day, 1));
+            set.add(Tuple.from("b", day, 1));
+        }
+        NavigableSet<Triple<String, Integer, Integer>> view = Prefixes.subSet(set, Tuple.from("a"));
+        assertEquals(view.size(), 5);
+        assertEquals(view.first(), Tuple.from("a", 4, 1));
+        assertEquals(Prefixes.subSet(set, Tuple.from("b", 3)).first(), Tuple.from("b", 3, 1));
+    }
+
+    @Test
+    public void nested()
+    {
+        NavigableSet<Ordered<Triple<String, Integer, Integer>>> set = ordered(new TreeSet<Ordered<Triple<String, Integer, Integer>>>());
+        NavigableSet<Ordered<Triple<String, Integer, Integer>>> view = Prefixes.subSet(Prefixes.subSet(set, Tuple.from("b")), Tuple.from("b", 1));
+        assertEquals(view.size(), 4);
+        assertEquals(view.first().getTuple(), Tuple.from("b", 1, 0));
+        NavigableSet<Ordered<Triple<String, Integer, Integer>>> narrow = Prefixes.subSet(set, Tuple.from("b", 1, 2));
+        assertEquals(narrow.size(), 1);
+        try
+        {
+            Prefixes.subSet(narrow, Tuple.from("b"));
+            fail("Nested a wider prefix inside a narrower view.");
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+    }
+
+    @Test
+    public void nestedComparator()
+    {
+        TreeSet<Triple<String, Integer, Integer>> set = new TreeSet<Triple<String, Integer, Integer>>(TupleComparator.<String, Integer, Integer>triple());
+        for (int day = 0; day < 3; day++)
+        {
+            set.add(Tuple.from("a", day, 1));
+            set.add(Tuple.from("b", day, 1));
+        }
+        NavigableSet<Triple<String, Integer, Integer>> view = Prefixes.subSet(Prefixes.subSet(set, Tuple.from("a")), Tuple.from("a", 1));
+        assertEquals(view.size(), 1);
+        assertEquals(view.first(), Tuple.from("a", 1, 1));
+        try
+        {
+            Prefixes.subSet(Prefixes.subSet(set, Tuple.from("a", 1)), Tuple.from("a"));
+            fail("Nested a wider prefix inside a narrower view.");
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void foreignComparator()
+    {
+        TreeSet<String> set = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+        Prefixes.subSet(set, Tuple.from("a"));
+    }
+}
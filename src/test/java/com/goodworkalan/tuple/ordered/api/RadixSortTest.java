@@ -0,0 +1,86 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.RadixSort;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class RadixSortTest
+{
+    private final static double[] DOUBLES = { -0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, -1.5, 2.5, Double.MIN_VALUE };
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Triple<Integer, Long, Double>[] random(int count)
+    {
+        Random random = new Random(count);
+        Triple<Integer, Long, Double>[] tuples = new Triple[count];
+        for (int i = 0; i < count; i++)
+        {
+            int integer = random.nextBoolean() ? random.nextInt(8) - 4 : random.nextInt();
+            long number = random.nextBoolean() ? random.nextInt(3) : random.nextLong();
+            tuples[i] = Tuple.from(integer, number, DOUBLES[random.nextInt(DOUBLES.length)]);
+        }
+        return tuples;
+    }
+
+    private static <T> void check(RadixSort sort, T[] tuples, TupleComparator<T> comparator)
+    {
+        T[] expected = tuples.clone();
+        Arrays.sort(expected, comparator);
+        T[] actual = tuples.clone();
+        sort.sort((Tuple<?, ?>[]) actual);
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertSame(actual[i], expected[i]);
+        }
+    }
+
+    @Test
+    public void sequential()
+    {
+        for (int size : new int[] { 0, 1, 100, 1000, 50000 })
+        {
+            check(new RadixSort(), random(size), TupleComparator.<Integer, Long, Double>triple());
+        }
+    }
+
+    @Test
+    public void parallel()
+    {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            check(new RadixSort(pool, 16, 1000), random(50000), TupleComparator.<Integer, Long, Double>triple());
+            check(new RadixSort(pool), random(300000), TupleComparator.<Integer, Long, Double>triple());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void fallback()
+    {
+        Random random = new Random(1);
+        Pair<String, Integer>[] strings = new Pair[5000];
+        Pair<Integer, Integer>[] nulls = new Pair[5000];
+        for (int i = 0; i < strings.length; i++)
+        {
+            strings[i] = Tuple.from(Integer.toString(random.nextInt(100)), random.nextInt(10));
+            nulls[i] = Tuple.from(i == 4000 ? null : random.nextInt(100), random.nextInt(10));
+        }
+        check(new RadixSort(), strings, TupleComparator.<String, Integer>pair());
+        check(new RadixSort(), nulls, TupleComparator.<Integer, Integer>pair());
+    }
+}
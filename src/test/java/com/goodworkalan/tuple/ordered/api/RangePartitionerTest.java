@@ -0,0 +1,129 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.RangePartitioner;
+import com.goodworkalan.tuple.ordered.Reservoir;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Tuple;
+
+public class RangePartitionerTest
+{
+    private static List<Pair<Integer, String>> skewed(int count)
+    {
+        Random random = new Random(count);
+        List<Pair<Integer, String>> tuples = new ArrayList<Pair<Integer, String>>();
+        for (int i = 0; i < count; i++)
+        {
+            int first = random.nextInt(2) == 0 ? 7 : random.nextInt(1000);
+            String second = random.nextInt(50) == 0 ? null : Integer.toString(random.nextInt(1000), 36);
+            tuples.add(Tuple.from(first, second));
+        }
+        return tuples;
+    }
+
+    @Test
+    public void concatenate()
+    {
+        List<Pair<Integer, String>> tuples = skewed(20000);
+        TupleComparator<Pair<Integer, String>> comparator = TupleComparator.pair();
+        Reservoir<Pair<Integer, String>> reservoir = new Reservoir<Pair<Integer, String>>(1000, new Random(1));
+        for (Pair<Integer, String> tuple : tuples)
+        {
+            reservoir.add(tuple);
+        }
+        RangePartitioner<Pair<Integer, String>> partitioner = RangePartitioner.of(reservoir, 8, comparator);
+        assertEquals(partitioner.getPartitionCount(), 8);
+        assertEquals(partitioner.getSplits().size(), 7);
+        List<List<Pair<Integer, String>>> partitions = new ArrayList<List<Pair<Integer, String>>>();
+        for (int i = 0; i < 8; i++)
+        {
+            partitions.add(new ArrayList<Pair<Integer, String>>());
+        }
+        for (Pair<Integer, String> tuple : tuples)
+        {
+            partitions.get(partitioner.partition(tuple)).add(tuple);
+        }
+        List<Pair<Integer, String>> concatenated = new ArrayList<Pair<Integer, String>>();
+        long total = 0;
+        for (int i = 0; i < 8; i++)
+        {
+            Collections.sort(partitions.get(i), comparator);
+            concatenated.addAll(partitions.get(i));
+            assertEquals(partitioner.getPartitionSizes()[i], partitions.get(i).size());
+            total += partitioner.getPartitionSizes()[i];
+        }
+        assertEquals(total, tuples.size());
+        List<Pair<Integer, String>> sorted = new ArrayList<Pair<Integer, String>>(tuples);
+        Collections.sort(sorted, comparator);
+        assertEquals(concatenated, sorted);
+        assertTrue(partitioner.getImbalance() < 1.5, "imbalance " + partitioner.getImbalance());
+        partitioner.reset();
+        assertEquals(partitioner.getImbalance(), 0.0);
+    }
+
+    @Test
+    public void splits()
+    {
+        List<Pair<Integer, String>> splits = Arrays.asList(Tuple.from(10, "a"), Tuple.from(10, "a"), Tuple.from(20, (String) null));
+        RangePartitioner<Pair<Integer, String>> partitioner = new RangePartitioner<Pair<Integer, String>>(splits, TupleComparator.<Integer, String>pair());
+        assertEquals(partitioner.find(Tuple.from(9, "z")), 0);
+        assertEquals(partitioner.find(Tuple.from(10, "a")), 2);
+        assertEquals(partitioner.find(Tuple.from(10, "b")), 2);
+        assertEquals(partitioner.find(Tuple.from(20, (String) null)), 3);
+        assertEquals(partitioner.find(Tuple.from(21, "a")), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void unordered()
+    {
+        List<Pair<Integer, String>> splits = Arrays.asList(Tuple.from(20, "a"), Tuple.from(10, "a"));
+        new RangePartitioner<Pair<Integer, String>>(splits, TupleComparator.<Integer, String>pair());
+    }
+
+    @Test
+    public void empty()
+    {
+        RangePartitioner<Pair<Integer, String>> partitioner = RangePartitioner.sample(new ArrayList<Pair<Integer, String>>().iterator(), 4, 10, TupleComparator.<Integer, String>pair());
+        assertEquals(partitioner.getPartitionCount(), 4);
+        assertEquals(partitioner.getSplits().size(), 0);
+        assertEquals(partitioner.partition(Tuple.from(1, "a")), 0);
+        assertTrue(Arrays.equals(partitioner.getPartitionSizes(), new long[] { 1, 0, 0, 0 }));
+        assertEquals(partitioner.getImbalance(), 4.0);
+    }
+
+    @Test
+    public void reservoir()
+    {
+        Reservoir<Integer> reservoir = null;
+        int[] counts = new int[10];
+        for (int trial = 0; trial < 100; trial++)
+        {
+            reservoir = new Reservoir<Integer>(100, new Random(trial));
+            for (int i = 0; i < 1000; i++)
+            {
+                reservoir.add(i);
+            }
+            for (int sampled : reservoir.toList())
+            {
+                counts[sampled / 100]++;
+            }
+        }
+        assertEquals(reservoir.size(), 100);
+        assertEquals(reservoir.getSeen(), 1000);
+        for (int count : counts)
+        {
+            assertTrue(count > 800 && count < 1200, "count " + count);
+        }
+    }
+}
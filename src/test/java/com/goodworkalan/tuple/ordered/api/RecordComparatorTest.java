@@ -0,0 +1,118 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.RecordComparator;
+import com.goodworkalan.tuple.ordered.Records;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class RecordComparatorTest
+{
+    private static List<Triple<String, Long, Double>> random(int count)
+    {
+        Random random = new Random(count);
+        List<Triple<String, Long, Double>> tuples = new ArrayList<Triple<String, Long, Double>>();
+        for (int i = 0; i < count; i++)
+        {
+            String string = random.nextInt(10) == 0 ? null : Integer.toString(random.nextInt(200), 36) + (random.nextBoolean() ? "\u00e9" : "");
+            Long number = random.nextInt(20) == 0 ? null : Long.valueOf(random.nextInt(10) - 5);
+            tuples.add(Tuple.from(string, number, random.nextInt(4) - 2 + (random.nextBoolean() ? -0.0 : 0.5)));
+        }
+        return tuples;
+    }
+
+    private static int signum(int compare)
+    {
+        return compare < 0 ? -1 : compare > 0 ? 1 : 0;
+    }
+
+    private void check(TupleComparator<Triple<String, Long, Double>> comparator)
+    {
+        RecordComparator records = new RecordComparator(comparator);
+        List<Triple<String, Long, Double>> tuples = random(300);
+        for (Triple<String, Long, Double> left : tuples)
+        {
+            ByteBuffer l = ByteBuffer.wrap(Records.encode(left));
+            for (Triple<String, Long, Double> right : tuples)
+            {
+                ByteBuffer r = ByteBuffer.wrap(Records.encode(right));
+                assertEquals(signum(records.compare(l, r)), signum(comparator.compare(left, right)));
+            }
+        }
+    }
+
+    @Test
+    public void ascending()
+    {
+        check(TupleComparator.<String, Long, Double>triple());
+    }
+
+    @Test
+    public void descending()
+    {
+        Order<String, Tuple<Long, Tuple<Double, End>>> order = Order.<Double>last().descending().<Long>prepend().nullsLast().<String>prepend().descending().nullsLast();
+        check(TupleComparator.of(order));
+    }
+
+    @Test
+    public void decode()
+    {
+        Tuple<?, ?> tuple = Tuple.from("a\u0000b", 1, 2L, 3.5, 4.5f, (short) -6, 'c', (byte) -7, true, null);
+        byte[] record = Records.encode(tuple);
+        assertEquals(record.length, Records.length(tuple));
+        ByteBuffer buffer = ByteBuffer.allocate(record.length + 3);
+        buffer.position(3);
+        Records.encode(tuple, buffer);
+        buffer.position(3);
+        assertEquals(Records.arity(buffer), 10);
+        assertEquals(Records.recordLength(buffer), record.length);
+        assertEquals(Records.member(buffer, 0), "a\u0000b");
+        assertEquals(Records.member(buffer, 5), Short.valueOf((short) -6));
+        assertNull(Records.member(buffer, 9));
+        assertEquals(Records.decode(buffer), tuple);
+        assertEquals(buffer.position(), 3);
+        assertEquals(Records.decode(record), tuple);
+    }
+
+    @Test
+    public void packed()
+    {
+        List<Triple<String, Long, Double>> tuples = random(100);
+        ByteBuffer packed = ByteBuffer.allocate(100 * 64);
+        int[] offsets = new int[tuples.size()];
+        for (int i = 0; i < tuples.size(); i++)
+        {
+            offsets[i] = packed.position();
+            Records.encode(tuples.get(i), packed);
+        }
+        ByteBuffer left = packed.duplicate();
+        ByteBuffer right = packed.duplicate();
+        RecordComparator records = new RecordComparator(3);
+        TupleComparator<Triple<String, Long, Double>> comparator = TupleComparator.triple();
+        for (int i = 1; i < tuples.size(); i++)
+        {
+            left.position(offsets[i - 1]);
+            right.position(offsets[i]);
+            assertEquals(signum(records.compare(left, right)), signum(comparator.compare(tuples.get(i - 1), tuples.get(i))));
+            assertEquals(Records.recordLength(left), offsets[i] - offsets[i - 1]);
+        }
+    }
+
+    @Test(expectedExceptions = ClassCastException.class)
+    public void mixedTypes()
+    {
+        new RecordComparator(1).compare(ByteBuffer.wrap(Records.encode(Tuple.from(1))), ByteBuffer.wrap(Records.encode(Tuple.from("1"))));
+    }
+}
@@ -0,0 +1,128 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Selection;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class SelectionTest
+{
+    private final static TupleComparator<Triple<Integer, Long, Integer>> COMPARATOR = TupleComparator.<Integer, Long, Integer>triple();
+
+    private static List<Triple<Integer, Long, Integer>> random(int count)
+    {
+        Random random = new Random(count);
+        List<Triple<Integer, Long, Integer>> tuples = new ArrayList<Triple<Integer, Long, Integer>>();
+        for (int i = 0; i < count; i++)
+        {
+            tuples.add(Tuple.from(random.nextInt(100), (long) random.nextInt(10), i));
+        }
+        return tuples;
+    }
+
+    @Test
+    public void least()
+    {
+        List<Triple<Integer, Long, Integer>> tuples = random(10000);
+        Selection<Triple<Integer, Long, Integer>> selection = new Selection<Triple<Integer, Long, Integer>>(100, COMPARATOR);
+        for (Triple<Integer, Long, Integer> tuple : tuples)
+        {
+            selection.offer(tuple);
+        }
+        List<Triple<Integer, Long, Integer>> expected = new ArrayList<Triple<Integer, Long, Integer>>(tuples);
+        Collections.sort(expected, COMPARATOR);
+        assertEquals(selection.size(), 100);
+        assertEquals(selection.toList(), expected.subList(0, 100));
+    }
+
+    @Test
+    public void reject()
+    {
+        Selection<Triple<Integer, Long, Integer>> selection = new Selection<Triple<Integer, Long, Integer>>(2, COMPARATOR);
+        assertTrue(selection.offer(Tuple.from(3, 0L, 0)));
+        assertTrue(selection.offer(Tuple.from(1, 0L, 0)));
+        assertFalse(selection.offer(Tuple.from(3, 0L, 0)));
+        assertTrue(selection.offer(Tuple.from(2, 0L, 0)));
+        assertFalse(selection.offer(Tuple.from(4, 0L, 0)));
+        assertEquals(selection.toList().size(), 2);
+        assertFalse(new Selection<Triple<Integer, Long, Integer>>(0, COMPARATOR).offer(Tuple.from(1, 0L, 0)));
+    }
+
+    @Test
+    public void collect()
+    {
+        List<Triple<Integer, Long, Integer>> tuples = random(100000);
+        List<Triple<Integer, Long, Integer>> expected = new ArrayList<Triple<Integer, Long, Integer>>(tuples);
+        Collections.sort(expected, COMPARATOR);
+        assertEquals(tuples.parallelStream().collect(Selection.least(50, COMPARATOR)), expected.subList(0, 50));
+        List<Triple<Integer, Long, Integer>> greatest = new ArrayList<Triple<Integer, Long, Integer>>(expected.subList(expected.size() - 50, expected.size()));
+        Collections.reverse(greatest);
+        assertEquals(tuples.parallelStream().collect(Selection.greatest(50, COMPARATOR)), greatest);
+    }
+
+    @Test
+    public void ties()
+    {
+        List<Triple<Integer, Long, Integer>> offered = new ArrayList<Triple<Integer, Long, Integer>>();
+        offered.add(Tuple.from(5, 0L, 1));
+        offered.add(Tuple.from(5, 0L, 2));
+        offered.add(Tuple.from(3, 0L, 3));
+        Comparator<Triple<Integer, Long, Integer>> first = new Comparator<Triple<Integer, Long, Integer>>()
+        {
+            public int compare(Triple<Integer, Long, Integer> left, Triple<Integer, Long, Integer> right)
+            {
+                return Tuple.get1(left).compareTo(Tuple.get1(right));
+            }
+        };
+        Selection<Triple<Integer, Long, Integer>> selection = new Selection<Triple<Integer, Long, Integer>>(2, first);
+        for (Triple<Integer, Long, Integer> tuple : offered)
+        {
+            selection.offer(tuple);
+        }
+        assertEquals(selection.toList(), Arrays.asList(offered.get(2), offered.get(0)));
+    }
+
+    @Test
+    public void parallelTies()
+    {
+        List<Pair<Integer, Integer>> tuples = new ArrayList<Pair<Integer, Integer>>();
+        for (int i = 0; i < 10000; i++)
+        {
+            tuples.add(Tuple.from(i % 3, i));
+        }
+        Comparator<Pair<Integer, Integer>> first = new Comparator<Pair<Integer, Integer>>()
+        {
+            public int compare(Pair<Integer, Integer> left, Pair<Integer, Integer> right)
+            {
+                return Tuple.get1(left).compareTo(Tuple.get1(right));
+            }
+        };
+        List<Pair<Integer, Integer>> expected = new ArrayList<Pair<Integer, Integer>>();
+        for (int i = 0; i < 15; i += 3)
+        {
+            expected.add(Tuple.from(0, i));
+        }
+        assertEquals(tuples.parallelStream().collect(Selection.least(5, first)), expected);
+        assertEquals(tuples.stream().collect(Selection.least(5, first)), expected);
+        List<Pair<Integer, Integer>> greatest = new ArrayList<Pair<Integer, Integer>>();
+        for (int i = 2; i < 15; i += 3)
+        {
+            greatest.add(Tuple.from(2, i));
+        }
+        assertEquals(tuples.parallelStream().collect(Selection.greatest(5, first)), greatest);
+    }
+}
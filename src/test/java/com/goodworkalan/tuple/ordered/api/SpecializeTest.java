@@ -0,0 +1,85 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.Prefixes;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class SpecializeTest
+{
+    private static List<Triple<String, Integer, Double>> random(int count)
+    {
+        Random random = new Random(count);
+        List<Triple<String, Integer, Double>> tuples = new ArrayList<Triple<String, Integer, Double>>();
+        for (int i = 0; i < count; i++)
+        {
+            String string = random.nextInt(5) == 0 ? null : Integer.toString(random.nextInt(4));
+            Integer integer = random.nextInt(5) == 0 ? null : random.nextInt(4);
+            tuples.add(Tuple.from(string, integer, (double) random.nextInt(4)));
+        }
+        return tuples;
+    }
+
+    private void check(Order<String, Tuple<Integer, Tuple<Double, End>>> order)
+    {
+        TupleComparator<Triple<String, Integer, Double>> interpreted = TupleComparator.of(order);
+        TupleComparator<Triple<String, Integer, Double>> specialized = TupleComparator.specialize(order, String.class, Integer.class, Double.class);
+        List<Triple<String, Integer, Double>> tuples = random(200);
+        for (Triple<String, Integer, Double> left : tuples)
+        {
+            for (Triple<String, Integer, Double> right : tuples)
+            {
+                assertEquals(Integer.signum(specialized.compare(left, right)), Integer.signum(interpreted.compare(left, right)));
+            }
+        }
+    }
+
+    @Test
+    public void semantics()
+    {
+        check(Order.lastDouble().<Integer>prepend().<String>prepend());
+        check(Order.lastDouble().descending().<Integer>prepend().nullsLast().<String>prepend().descending());
+        check(Order.lastDouble().<Integer>prepend().descending().nullsLast().<String>prepend().nullsLast());
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void primitive()
+    {
+        TupleComparator<Triple<String, Integer, Double>> specialized = TupleComparator.specialize(Order.lastDouble().prependInt().<String>prepend(), String.class, Integer.class, Double.class);
+        specialized.compare(Tuple.from("a", (Integer) null, 1.0), Tuple.from("a", 1, 1.0));
+    }
+
+    @Test
+    public void prefix()
+    {
+        TupleComparator<Triple<String, Integer, Double>> specialized = TupleComparator.specialize(Order.lastDouble().<Integer>prepend().<String>prepend(), String.class, Integer.class, Double.class);
+        TreeSet<Triple<String, Integer, Double>> set = new TreeSet<Triple<String, Integer, Double>>(specialized);
+        set.addAll(random(200));
+        int count = 0;
+        for (Triple<String, Integer, Double> tuple : set)
+        {
+            if ("1".equals(Tuple.get1(tuple)))
+            {
+                count++;
+            }
+        }
+        assertEquals(Prefixes.subSet(set, Tuple.from("1")).size(), count);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void types()
+    {
+        TupleComparator.specialize(Order.lastDouble().<Integer>prepend().<String>prepend(), String.class, Integer.class);
+    }
+}
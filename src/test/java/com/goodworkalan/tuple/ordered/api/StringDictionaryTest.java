@@ -0,0 +1,94 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.StringDictionary;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Tuple;
+
+public class StringDictionaryTest
+{
+    private static List<String> strings(int count, long seed)
+    {
+        Random random = new Random(seed);
+        List<String> strings = new ArrayList<String>();
+        for (int i = 0; i < count; i++)
+        {
+            strings.add(random.nextInt(10) == 0 ? null : Long.toString(random.nextInt(500), 36));
+        }
+        return strings;
+    }
+
+    @Test
+    public void order()
+    {
+        List<String> strings = strings(1000, 1);
+        StringDictionary dictionary = new StringDictionary(strings);
+        TupleComparator<Pair<String, Integer>> plain = TupleComparator.<String, Integer>pair();
+        TupleComparator<Pair<Integer, Integer>> coded = TupleComparator.of(Order.lastInt().<Integer>prepend());
+        for (int i = 0; i < strings.size(); i++)
+        {
+            for (int j = 0; j < strings.size(); j += 7)
+            {
+                int expected = plain.compare(Tuple.from(strings.get(i), 0), Tuple.from(strings.get(j), 0));
+                int actual = coded.compare(Tuple.from(dictionary.encode(strings.get(i)), 0), Tuple.from(dictionary.encode(strings.get(j)), 0));
+                assertEquals(Integer.signum(actual), Integer.signum(expected));
+            }
+        }
+    }
+
+    @Test
+    public void encode()
+    {
+        StringDictionary dictionary = new StringDictionary(Arrays.asList("b", "a", "c", "a", null));
+        assertEquals(dictionary.size(), 3);
+        assertEquals(dictionary.encode("a"), (Integer) 0);
+        assertEquals(dictionary.encode("c"), (Integer) 2);
+        assertSame(dictionary.encode(new String("b")), dictionary.encode("b"));
+        assertNull(dictionary.encode(null));
+        assertEquals(dictionary.decode(1), "b");
+        assertNull(dictionary.decode(null));
+        assertTrue(dictionary.contains("a"));
+        assertFalse(dictionary.contains("d"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void missing()
+    {
+        new StringDictionary(Arrays.asList("a")).encode("b");
+    }
+
+    @Test
+    public void rebuild()
+    {
+        StringDictionary older = new StringDictionary(strings(500, 2));
+        List<String> added = strings(500, 3);
+        StringDictionary newer = older.with(added);
+        List<String> all = new ArrayList<String>(strings(500, 2));
+        all.addAll(added);
+        StringDictionary expected = new StringDictionary(all);
+        assertEquals(newer.size(), expected.size());
+        for (int i = 0; i < newer.size(); i++)
+        {
+            assertEquals(newer.decode(i), expected.decode(i));
+        }
+        int[] mapping = newer.mapping(older);
+        for (int i = 0; i < older.size(); i++)
+        {
+            assertEquals(newer.decode(mapping[i]), older.decode(i));
+        }
+    }
+}
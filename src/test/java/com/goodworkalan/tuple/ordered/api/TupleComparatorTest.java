@@ -0,0 +1,69 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.TreeMap;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.Order;
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.mallardsoft.tuple.End;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class TupleComparatorTest
+{
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void sort()
+    {
+        Pair<String, Integer>[] pairs = new Pair[] {
+            Tuple.from("B", 1), Tuple.from("A", 2), Tuple.from((String) null, 3), Tuple.from("A", 1)
+        };
+        Arrays.sort(pairs, TupleComparator.<String, Integer>pair());
+        assertEquals(pairs[0], Tuple.from((String) null, 3));
+        assertEquals(pairs[1], Tuple.from("A", 1));
+        assertEquals(pairs[2], Tuple.from("A", 2));
+        assertEquals(pairs[3], Tuple.from("B", 1));
+    }
+
+    @Test
+    public void tree()
+    {
+        TreeMap<Triple<Integer, Integer, Integer>, String> tree = new TreeMap<Triple<Integer, Integer, Integer>, String>(TupleComparator.<Integer, Integer, Integer>triple());
+        tree.put(Tuple.from(1, 2, 3), "a");
+        tree.put(Tuple.from(1, 2, 2), "b");
+        tree.put(Tuple.from(0, 9, 9), "c");
+        tree.put(Tuple.from(1, 2, 3), "d");
+        assertEquals(tree.size(), 3);
+        Iterator<String> values = tree.values().iterator();
+        assertEquals(values.next(), "c");
+        assertEquals(values.next(), "b");
+        assertEquals(values.next(), "d");
+    }
+
+    @Test
+    public void shared()
+    {
+        assertTrue(TupleComparator.<String, Integer>pair() == TupleComparator.<String, Integer>pair());
+    }
+
+    @Test
+    public void custom()
+    {
+        Order<String, Tuple<Integer, End>> order = Order.<Integer>last().<String>prepend();
+        TupleComparator<Pair<String, Integer>> comparator = TupleComparator.of(order);
+        assertTrue(comparator.compare(Tuple.from("A", 2), Tuple.from("B", 1)) < 0);
+    }
+
+    @Test
+    public void decuple()
+    {
+        assertTrue(TupleComparator.<Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer, Integer>decuple().compare(Tuple.from(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), Tuple.from(1, 2, 3, 4, 5, 6, 7, 8, 9, 11)) < 0);
+    }
+}
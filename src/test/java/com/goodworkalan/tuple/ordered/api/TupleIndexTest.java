@@ -0,0 +1,101 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.goodworkalan.tuple.ordered.TupleIndex;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class TupleIndexTest
+{
+    @Test
+    public void map()
+    {
+        TupleIndex<Pair<String, Integer>, String> index = new TupleIndex<Pair<String, Integer>, String>(TupleComparator.<String, Integer>pair());
+        assertNull(index.put(Tuple.from("a", 1), "one"));
+        assertEquals(index.put(Tuple.from("a", 1), "uno"), "one");
+        assertEquals(index.putIfAbsent(Tuple.from("a", 1), "eins"), "uno");
+        assertEquals(index.get(Tuple.from("a", 1)), "uno");
+        assertTrue(index.containsKey(Tuple.from("a", 1)));
+        assertEquals(index.remove(Tuple.from("a", 1)), "uno");
+        assertEquals(index.size(), 0);
+    }
+
+    @Test
+    public void prefix()
+    {
+        TupleIndex<Triple<String, Integer, Integer>, Integer> index = new TupleIndex<Triple<String, Integer, Integer>, Integer>(TupleComparator.<String, Integer, Integer>triple());
+        for (String string : new String[] { null, "a", "b", "c" })
+        {
+            for (int i = 0; i < 10; i++)
+            {
+                index.put(Tuple.from(string, i % 3, i), i);
+            }
+        }
+        ConcurrentNavigableMap<Triple<String, Integer, Integer>, Integer> b = index.prefix(Tuple.from("b"));
+        assertEquals(b.size(), 10);
+        assertEquals(b.firstKey(), Tuple.from("b", 0, 0));
+        assertEquals(b.lastKey(), Tuple.from("b", 2, 8));
+        assertEquals(index.prefix(Tuple.from("b", 1)).size(), 3);
+        assertEquals(index.prefix(Tuple.from((String) null)).size(), 10);
+        assertEquals(index.prefix(Tuple.from("d")).size(), 0);
+        index.put(Tuple.from("b", 1, 100), 100);
+        assertEquals(b.size(), 11);
+    }
+
+    @Test
+    public void concurrent() throws InterruptedException
+    {
+        final TupleIndex<Pair<Integer, Integer>, Integer> index = new TupleIndex<Pair<Integer, Integer>, Integer>(TupleComparator.<Integer, Integer>pair());
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++)
+        {
+            final int thread = t;
+            threads.add(new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    for (int i = 0; i < 1000; i++)
+                    {
+                        index.put(Tuple.from(thread, i), i);
+                        index.prefix(Tuple.from((thread + 1) % 4)).size();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(index.size(), 4000);
+        for (int t = 0; t < 4; t++)
+        {
+            assertEquals(index.prefix(Tuple.from(t)).size(), 1000);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.goodworkalan.tuple.ordered.api;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.goodworkalan.tuple.ordered.TupleComparator;
+import com.goodworkalan.tuple.ordered.TupleTable;
+import com.goodworkalan.tuple.ordered.TupleTableWriter;
+import com.mallardsoft.tuple.Pair;
+import com.mallardsoft.tuple.Triple;
+import com.mallardsoft.tuple.Tuple;
+
+public class TupleTableTest
+{
+    private static List<Triple<String, Long, Double>> random(int count)
+    {
+        Random random = new Random(count);
+        List<Triple<String, Long, Double>> tuples = new ArrayList<Triple<String, Long, Double>>();
+        for (int i = 0; i < count; i++)
+        {
+            String string = random.nextInt(20) == 0 ? null : Integer.toString(random.nextInt(100), 36);
+            tuples.add(Tuple.from(string, (long) random.nextInt(10) - 5, (double) random.nextInt(4)));
+        }
+        Collections.sort(tuples, TupleComparator.<String, Long, Double>triple());
+        return tuples;
+    }
+
+    private static <T> List<T> list(Iterator<T> iterator)
+    {
+        List<T> list = new ArrayList<T>();
+        while (iterator.hasNext())
+        {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    private static TupleTable<Triple<String, Long, Double>> write(List<Triple<String, Long, Double>> tuples, int blockSize, int bloomMembers) throws IOException
+    {
+        File file = File.createTempFile("tuple", ".table");
+        file.deleteOnExit();
+        TupleTableWriter writer = new TupleTableWriter(file, blockSize, bloomMembers, tuples.size());
+        try
+        {
+            for (Triple<String, Long, Double> tuple : tuples)
+            {
+                writer.add(tuple);
+            }
+        }
+        finally
+        {
+            writer.close();
+        }
+        return new TupleTable<Triple<String, Long, Double>>(file);
+    }
+
+    private void check(List<Triple<String, Long, Double>> tuples, int blockSize, int bloomMembers) throws IOException
+    {
+        TupleTable<Triple<String, Long, Double>> table = write(tuples, blockSize, bloomMembers);
+        assertEquals(table.size(), tuples.size());
+        assertEquals(list(table.iterator()), tuples);
+        Random random = new Random(blockSize);
+        for (int i = 0; i < 200; i++)
+        {
+            String string = random.nextInt(20) == 0 ? null : Integer.toString(random.nextInt(110), 36);
+            Triple<String, Long, Double> tuple = Tuple.from(string, (long) random.nextInt(12) - 6, (double) random.nextInt(5));
+            assertEquals(table.contains(tuple), tuples.contains(tuple));
+            List<Triple<String, Long, Double>> first = new ArrayList<Triple<String, Long, Double>>();
+            List<Triple<String, Long, Double>> second = new ArrayList<Triple<String, Long, Double>>();
+            for (Triple<String, Long, Double> candidate : tuples)
+            {
+                if (string == null ? Tuple.get1(candidate) == null : string.equals(Tuple.get1(candidate)))
+                {
+                    first.add(candidate);
+                    if (Tuple.get2(candidate).equals(Tuple.get2(tuple)))
+                    {
+                        second.add(candidate);
+                    }
+                }
+            }
+            assertEquals(list(table.prefix(Tuple.from(string))), first);
+            assertEquals(list(table.prefix(Tuple.from(string, Tuple.get2(tuple)))), second);
+        }
+    }
+
+    @Test
+    public void lookup() throws IOException
+    {
+        check(random(5000), 64, 0);
+        check(random(5000), 4096, 0);
+        check(random(5000), 1, 0);
+        check(random(1), 64, 0);
+        check(random(0), 64, 0);
+    }
+
+    @Test
+    public void bloom() throws IOException
+    {
+        check(random(5000), 128, 1);
+        check(random(5000), 128, 2);
+        check(random(5000), 128, 3);
+        check(random(0), 128, 2);
+    }
+
+    @Test
+    public void pairs() throws IOException
+    {
+        File file = File.createTempFile("tuple", ".table");
+        file.deleteOnExit();
+        TupleTableWriter writer = new TupleTableWriter(file);
+        for (int i = 0; i < 1000; i++)
+        {
+            writer.add(Tuple.from(i / 10, "item" + (i % 10)));
+        }
+        writer.close();
+        TupleTable<Pair<Integer, String>> table = new TupleTable<Pair<Integer, String>>(file);
+        assertTrue(table.contains(Tuple.from(42, "item7")));
+        assertFalse(table.contains(Tuple.from(42, "item")));
+        assertFalse(table.contains(Tuple.from(100, "item0")));
+        List<Pair<Integer, String>> prefix = list(table.prefix(Tuple.from(42)));
+        assertEquals(prefix.size(), 10);
+        assertEquals(prefix.get(0), Tuple.from(42, "item0"));
+        assertEquals(prefix.get(9), Tuple.from(42, "item9"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void unordered() throws IOException
+    {
+        File file = File.createTempFile("tuple", ".table");
+        file.deleteOnExit();
+        TupleTableWriter writer = new TupleTableWriter(file);
+        try
+        {
+            writer.add(Tuple.from(2, "b"));
+            writer.add(Tuple.from(1, "a"));
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void notTable() throws IOException
+    {
+        File file = File.createTempFile("tuple", ".table");
+        file.deleteOnExit();
+        TupleTableWriter writer = new TupleTableWriter(file);
+        writer.close();
+        RandomAccessFile random = new RandomAccessFile(file, "rw");
+        random.writeInt(0);
+        random.close();
+        new TupleTable<Pair<Integer, String>>(file);
+    }
+}